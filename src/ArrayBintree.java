@@ -0,0 +1,735 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bintree that stores its nodes in flat primitive arrays instead of one
+ * object per node. It splits space exactly like Bintree, so inserts,
+ * searches and the printed tree are identical; only the storage differs.
+ *
+ * Internal nodes live in one int array holding two child references per
+ * node, since each level only uses the two halves of the axis it splits. A
+ * child reference is an int: 0 for a child that was never set, -1 for an
+ * empty child, a positive value for an internal node and any other negative
+ * value for a leaf.
+ *
+ * A leaf is a block of leafCapacity slots. Each slot keeps the seminar ID
+ * and coordinates in int arrays, and nothing else: the tree holds no
+ * reference to a seminar. A search scans primitives and resolves only the
+ * IDs of its matches to seminars, through the SeminarStore the tree was
+ * given, which may be shared with the other indexes. Co-located seminars
+ * that overflow a block continue in a chained block. Deletes merge
+ * internal nodes whose seminars fit in one leaf back into that leaf.
+ * Blocks and internal nodes freed by splits, deletes and merges go on free
+ * lists and are reused by later inserts.
+ *
+ * No command selects this engine yet: SemManagerBST uses Bintree, and this
+ * class is measured against it by BintreeBenchmark.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class ArrayBintree {
+    private static final int UNSET = 0; // Child that was never set
+    private static final int EMPTY = -1; // Node emptied by a delete
+    private static final int NONE = -1; // End of a block chain or free list
+    private static final int INITIAL_NODES = 16; // Initial node capacity
+    private static final int INITIAL_STACK = 32; // Traversal stack length
+
+    private int leafCapacity; // Split threshold and slots per block
+    private OutputSink output; // Sink all output of this tree is written to
+    private int root; // Reference to the root node
+
+    private int[] children; // Two child references per internal node
+    private int nodeTop; // Internal nodes ever allocated
+    private int freeNode; // First free internal node, chained via children
+
+    private int[] blockCount; // Slots in use per block
+    private int[] blockNext; // Next block of a leaf, or of the free list
+    private int blockTop; // Blocks ever allocated
+    private int freeBlock; // First free block
+    private int[] slotId; // Seminar ID per slot
+    private int[] slotX; // Seminar x-coordinate per slot
+    private int[] slotY; // Seminar y-coordinate per slot
+    private SeminarStore store; // Resolves the seminar IDs of the slots
+
+    /**
+     * Constructs an empty array bintree with the default leaf capacity.
+     */
+    public ArrayBintree() {
+        this(Bintree.DEFAULT_LEAF_CAPACITY);
+    }
+
+
+    /**
+     * Constructs an empty array bintree with a record store of its own
+     * whose leaves split once they hold more than the given number of
+     * seminars.
+     *
+     * @param leafCapacity
+     *            The split threshold for leaf buckets (at least 1).
+     */
+    public ArrayBintree(int leafCapacity) {
+        this(leafCapacity, new SeminarStore());
+    }
+
+
+    /**
+     * Constructs an empty array bintree that resolves seminar IDs through
+     * the given store, and whose leaves split once they hold more than the
+     * given number of seminars.
+     *
+     * @param leafCapacity
+     *            The split threshold for leaf buckets (at least 1).
+     * @param store
+     *            The record store, which may be shared with other indexes.
+     */
+    public ArrayBintree(int leafCapacity, SeminarStore store) {
+        if (leafCapacity < 1) {
+            throw new IllegalArgumentException(
+                "Leaf capacity must be at least 1");
+        }
+        this.leafCapacity = leafCapacity;
+        output = ConsoleSink.getInstance();
+        root = EMPTY;
+        children = new int[2 * INITIAL_NODES];
+        freeNode = NONE;
+        blockCount = new int[INITIAL_NODES];
+        blockNext = new int[INITIAL_NODES];
+        freeBlock = NONE;
+        slotId = new int[INITIAL_NODES * leafCapacity];
+        slotX = new int[INITIAL_NODES * leafCapacity];
+        slotY = new int[INITIAL_NODES * leafCapacity];
+        this.store = store;
+    }
+
+
+    /**
+     * Sets the sink all output of this tree is written to.
+     *
+     * @param output
+     *            The output sink.
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+
+    /**
+     * Gets the record store the seminar IDs of the tree are resolved in.
+     *
+     * @return The record store.
+     */
+    public SeminarStore getStore() {
+        return store;
+    }
+
+
+    /**
+     * Gets the split threshold for leaf buckets.
+     *
+     * @return The number of seminars a leaf may hold before it splits.
+     */
+    public int getLeafCapacity() {
+        return leafCapacity;
+    }
+
+
+    /**
+     * Checks whether the tree is empty.
+     *
+     * @return True if the tree holds no seminars.
+     */
+    public boolean isEmpty() {
+        return root == EMPTY || root == UNSET;
+    }
+
+
+    /**
+     * Gets the number of internal nodes ever allocated. Freed nodes are
+     * reused before this grows.
+     *
+     * @return The high-water mark of the internal node pool.
+     */
+    public int getAllocatedNodes() {
+        return nodeTop;
+    }
+
+
+    /**
+     * Gets the number of leaf blocks ever allocated. Freed blocks are reused
+     * before this grows.
+     *
+     * @return The high-water mark of the leaf block pool.
+     */
+    public int getAllocatedBlocks() {
+        return blockTop;
+    }
+
+
+    /**
+     * Inserts a seminar into the tree, adding it to the record store.
+     *
+     * @param data
+     *            The seminar to insert.
+     * @param worldSize
+     *            The size of the world (bounding area).
+     */
+    public void insert(Seminar data, int worldSize) {
+        store.add(data); // Only reads a store that has it
+        int x0 = 0;
+        int y0 = 0;
+        int width = worldSize;
+        int height = worldSize;
+        int level = 0;
+        int parent = NONE;
+        int parentSlot = 0;
+        int node = root;
+        while (node != UNSET && node != EMPTY) {
+            if (node < 0) {
+                int block = leafBlock(node);
+                // Co-located seminars can never be separated, so they stay
+                // together
+                if (leafCount(block) < leafCapacity || allAt(block, data.x(),
+                    data.y())) {
+                    addToLeaf(block, data.id(), data.x(), data.y());
+                    return;
+                }
+                node = splitLeaf(block, x0, y0, width, height, level);
+                setChild(parent, parentSlot, node);
+            }
+            else {
+                int quadrant = Bintree.getQuadrant(data.x(), data.y(), x0, y0,
+                    width, height, level);
+                x0 = Bintree.childX0(quadrant, x0, width);
+                y0 = Bintree.childY0(quadrant, y0, height);
+                width = Bintree.childWidth(level, width);
+                height = Bintree.childHeight(level, height);
+                level++;
+                parent = node - 1;
+                parentSlot = quadrant & 1;
+                node = children[2 * parent + parentSlot];
+            }
+        }
+        int block = allocateBlock();
+        addToLeaf(block, data.id(), data.x(), data.y());
+        setChild(parent, parentSlot, leafRef(block));
+    }
+
+
+    // Replaces a full leaf with an internal node holding its seminars
+    private int splitLeaf(
+        int block,
+        int x0,
+        int y0,
+        int width,
+        int height,
+        int level) {
+        int node = allocateNode();
+        for (int b = block; b != NONE; b = blockNext[b]) {
+            for (int i = 0; i < blockCount[b]; i++) {
+                int slot = b * leafCapacity + i;
+                int quadrant = Bintree.getQuadrant(slotX[slot], slotY[slot],
+                    x0, y0, width, height, level);
+                int index = 2 * node + (quadrant & 1);
+                if (children[index] == UNSET) {
+                    children[index] = leafRef(allocateBlock());
+                }
+                addToLeaf(leafBlock(children[index]), slotId[slot],
+                    slotX[slot], slotY[slot]);
+            }
+        }
+        freeLeaf(block);
+        return node + 1;
+    }
+
+
+    /**
+     * Searches for and prints all seminars that lie within the given radius
+     * (inclusive) of the point (x, y), followed by the number of nodes
+     * visited.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param radius
+     *            The search radius.
+     * @param worldSize
+     *            The worldsize.
+     * @return The number of nodes visited in the search.
+     */
+    public int search(int x, int y, int radius, int worldSize) {
+        List<Seminar> matches = new ArrayList<>();
+        int nodesVisited = search(x, y, radius, worldSize, matches);
+        Bintree.printMatches(output, matches, nodesVisited);
+        return nodesVisited;
+    }
+
+
+    /**
+     * Collects all seminars that lie within the given radius (inclusive) of
+     * the point (x, y). Subtrees whose region cannot intersect the search
+     * circle are never visited.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param radius
+     *            The search radius.
+     * @param worldSize
+     *            The worldsize.
+     * @param matches
+     *            The list the matching seminars are appended to, in preorder.
+     * @return The number of nodes visited in the search.
+     */
+    public int search(
+        int x,
+        int y,
+        int radius,
+        int worldSize,
+        List<Seminar> matches) {
+        if (radius < 0) {
+            return 0;
+        }
+        return search(root, x, y, (long)radius * radius, 0, 0, worldSize,
+            worldSize, 0, matches);
+    }
+
+
+    private int search(
+        int node,
+        int x,
+        int y,
+        long radiusSquared,
+        int x0,
+        int y0,
+        int width,
+        int height,
+        int level,
+        List<Seminar> matches) {
+        int count = 1;
+
+        if (node == UNSET || node == EMPTY) {
+            return count;
+        }
+        if (node < 0) {
+            for (int b = leafBlock(node); b != NONE; b = blockNext[b]) {
+                int end = b * leafCapacity + blockCount[b];
+                for (int slot = b * leafCapacity; slot < end; slot++) {
+                    if (Bintree.distanceSquared(x, y, slotX[slot],
+                        slotY[slot]) <= radiusSquared) {
+                        matches.add(store.searchID(slotId[slot]));
+                    }
+                }
+            }
+            return count;
+        }
+
+        int index = 2 * (node - 1);
+        int first = (level % 2 == 0) ? 0 : 2;
+        int newWidth = Bintree.childWidth(level, width);
+        int newHeight = Bintree.childHeight(level, height);
+        for (int quadrant = first; quadrant < first + 2; quadrant++) {
+            int newX0 = Bintree.childX0(quadrant, x0, width);
+            int newY0 = Bintree.childY0(quadrant, y0, height);
+            if (Bintree.boxDistanceSquared(x, y, newX0, newY0, newWidth,
+                newHeight) <= radiusSquared) {
+                count += search(children[index + (quadrant & 1)], x, y,
+                    radiusSquared, newX0, newY0, newWidth, newHeight, level
+                        + 1, matches);
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Performs a preorder traversal of the tree, starting from the root.
+     * Prints the tree structure and its elements in the same format as
+     * Bintree.
+     */
+    public void preorderTraversal() {
+        output.println("Location Tree:");
+        if (isEmpty()) {
+            output.println("E");
+            return;
+        }
+        int[] stack = new int[INITIAL_STACK];
+        int[] depths = new int[INITIAL_STACK];
+        int top = 0;
+        stack[top] = root;
+        depths[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int depth = depths[top];
+            if (node == UNSET) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < depth; i++) {
+                line.append("  ");
+            }
+
+            if (node == EMPTY) {
+                line.append('E');
+            }
+            else if (node < 0) {
+                int block = leafBlock(node);
+                line.append("Leaf with ").append(leafCount(block)).append(
+                    " objects:");
+                for (int b = block; b != NONE; b = blockNext[b]) {
+                    for (int i = 0; i < blockCount[b]; i++) {
+                        line.append(' ').append(slotId[b * leafCapacity + i]);
+                    }
+                }
+            }
+            else {
+                line.append('I');
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    depths = Arrays.copyOf(depths, depths.length * 2);
+                }
+                // Push in reverse so the children are printed in order
+                int index = 2 * (node - 1);
+                stack[top] = children[index + 1];
+                depths[top++] = depth + 1;
+                stack[top] = children[index];
+                depths[top++] = depth + 1;
+            }
+            output.println(line.toString());
+        }
+    }
+
+
+    /**
+     * Deletes every seminar with the specified coordinates (x, y) from the
+     * tree.
+     *
+     * @param x
+     *            The x-coordinate of the seminars to delete.
+     * @param y
+     *            The y-coordinate of the seminars to delete.
+     * @param worldSize
+     *            The worldsize.
+     */
+    public void delete(int x, int y, int worldSize) {
+        delete(x, y, null, worldSize);
+    }
+
+
+    /**
+     * Deletes a single seminar from the tree, leaving any other seminars at
+     * the same coordinates in place.
+     *
+     * @param data
+     *            The seminar to delete.
+     * @param worldSize
+     *            The worldsize.
+     */
+    public void delete(Seminar data, int worldSize) {
+        delete(data.x(), data.y(), data, worldSize);
+    }
+
+
+    // Follows the region containing (x, y) down to its leaf, removes either
+    // the given seminar or, without one, everything at (x, y), then merges
+    // the nodes on the way back up
+    private void delete(int x, int y, Seminar data, int worldSize) {
+        int[] path = new int[INITIAL_STACK];
+        int[] slots = new int[INITIAL_STACK];
+        int depth = 0;
+        int x0 = 0;
+        int y0 = 0;
+        int width = worldSize;
+        int height = worldSize;
+        int level = 0;
+        int node = root;
+        while (node > 0) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                slots = Arrays.copyOf(slots, depth * 2);
+            }
+            int quadrant = Bintree.getQuadrant(x, y, x0, y0, width, height,
+                level);
+            x0 = Bintree.childX0(quadrant, x0, width);
+            y0 = Bintree.childY0(quadrant, y0, height);
+            width = Bintree.childWidth(level, width);
+            height = Bintree.childHeight(level, height);
+            level++;
+            path[depth] = node - 1;
+            slots[depth] = quadrant & 1;
+            node = children[2 * path[depth] + slots[depth]];
+            depth++;
+        }
+        if (node == UNSET || node == EMPTY) {
+            return;
+        }
+        int block = leafBlock(node);
+        if (!removeFromLeaf(block, x, y, data)) {
+            return;
+        }
+
+        int replacement = node;
+        if (blockCount[block] == 0) {
+            // Bucket is now empty, replace it with an empty node
+            freeLeaf(block);
+            replacement = EMPTY;
+        }
+        while (depth > 0) {
+            depth--;
+            // An emptied child is unset again, as in Bintree
+            children[2 * path[depth] + slots[depth]] = (replacement == EMPTY)
+                ? UNSET
+                : replacement;
+            replacement = merge(path[depth]);
+            if (replacement == path[depth] + 1) {
+                return;
+            }
+        }
+        root = replacement;
+    }
+
+
+    // Returns the reference that should replace an internal node: EMPTY
+    // when it holds nothing, one leaf when its seminars fit in a leaf or are
+    // all co-located, or the node itself otherwise. A replaced node is
+    // freed.
+    private int merge(int node) {
+        int total = 0;
+        int first = NONE;
+        boolean colocated = true;
+        for (int slot = 0; slot < 2; slot++) {
+            int ref = children[2 * node + slot];
+            if (ref == UNSET || ref == EMPTY) {
+                continue;
+            }
+            if (ref > 0) {
+                return node + 1;
+            }
+            int block = leafBlock(ref);
+            if (first == NONE) {
+                first = block * leafCapacity;
+            }
+            total += leafCount(block);
+            colocated = colocated && allAt(block, slotX[first], slotY[first]);
+        }
+        if (total > leafCapacity && !colocated) {
+            return node + 1;
+        }
+        int target = EMPTY;
+        for (int slot = 0; slot < 2; slot++) {
+            int ref = children[2 * node + slot];
+            if (ref == UNSET || ref == EMPTY) {
+                continue;
+            }
+            if (target == EMPTY) {
+                target = ref;
+                continue;
+            }
+            int block = leafBlock(ref);
+            for (int b = block; b != NONE; b = blockNext[b]) {
+                for (int i = 0; i < blockCount[b]; i++) {
+                    int from = b * leafCapacity + i;
+                    addToLeaf(leafBlock(target), slotId[from], slotX[from],
+                        slotY[from]);
+                }
+            }
+            freeLeaf(block);
+        }
+        children[2 * node] = freeNode;
+        freeNode = node;
+        return target;
+    }
+
+
+    private static int leafRef(int block) {
+        return -(block + 2);
+    }
+
+
+    private static int leafBlock(int ref) {
+        return -ref - 2;
+    }
+
+
+    // Stores a child reference in an internal node, or in the root when
+    // there is no parent
+    private void setChild(int parent, int slot, int ref) {
+        if (parent == NONE) {
+            root = ref;
+        }
+        else {
+            children[2 * parent + slot] = ref;
+        }
+    }
+
+
+    private int leafCount(int block) {
+        int count = 0;
+        for (int b = block; b != NONE; b = blockNext[b]) {
+            count += blockCount[b];
+        }
+        return count;
+    }
+
+
+    private boolean allAt(int block, int x, int y) {
+        for (int b = block; b != NONE; b = blockNext[b]) {
+            int end = b * leafCapacity + blockCount[b];
+            for (int slot = b * leafCapacity; slot < end; slot++) {
+                if (slotX[slot] != x || slotY[slot] != y) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    // Inserts a seminar into a leaf, keeping it sorted by ID. When a block
+    // is full its largest entry is carried over into the next block.
+    private void addToLeaf(int block, int id, int x, int y) {
+        while (true) {
+            int base = block * leafCapacity;
+            int count = blockCount[block];
+            if (count < leafCapacity || slotId[base + count - 1] > id) {
+                int i = count;
+                boolean carry = count == leafCapacity;
+                int carryId = 0;
+                int carryX = 0;
+                int carryY = 0;
+                if (carry) {
+                    i--;
+                    carryId = slotId[base + i];
+                    carryX = slotX[base + i];
+                    carryY = slotY[base + i];
+                }
+                else {
+                    blockCount[block]++;
+                }
+                while (i > 0 && slotId[base + i - 1] > id) {
+                    copySlot(base + i - 1, base + i);
+                    i--;
+                }
+                setSlot(base + i, id, x, y);
+                if (!carry) {
+                    return;
+                }
+                id = carryId;
+                x = carryX;
+                y = carryY;
+            }
+            if (blockNext[block] == NONE) {
+                int next = allocateBlock();
+                blockNext[block] = next;
+            }
+            block = blockNext[block];
+        }
+    }
+
+
+    // Drops the first seminar with the given seminar's ID or, without one,
+    // every seminar at (x, y), then packs the rest towards the first block
+    private boolean removeFromLeaf(int block, int x, int y, Seminar data) {
+        boolean removed = false;
+        int write = block;
+        int written = 0;
+        for (int b = block; b != NONE; b = blockNext[b]) {
+            for (int i = 0; i < blockCount[b]; i++) {
+                int slot = b * leafCapacity + i;
+                boolean match = (data == null)
+                    ? slotX[slot] == x && slotY[slot] == y
+                    : !removed && slotId[slot] == data.id();
+                if (match) {
+                    removed = true;
+                    continue;
+                }
+                if (written == leafCapacity) {
+                    write = blockNext[write];
+                    written = 0;
+                }
+                copySlot(slot, write * leafCapacity + written++);
+            }
+        }
+        if (!removed) {
+            return false;
+        }
+        for (int b = block; b != write; b = blockNext[b]) {
+            blockCount[b] = leafCapacity;
+        }
+        blockCount[write] = written;
+        if (blockNext[write] != NONE) {
+            freeLeaf(blockNext[write]);
+            blockNext[write] = NONE;
+        }
+        return true;
+    }
+
+
+    private void setSlot(int slot, int id, int x, int y) {
+        slotId[slot] = id;
+        slotX[slot] = x;
+        slotY[slot] = y;
+    }
+
+
+    private void copySlot(int from, int to) {
+        slotId[to] = slotId[from];
+        slotX[to] = slotX[from];
+        slotY[to] = slotY[from];
+    }
+
+
+    private int allocateNode() {
+        int node = freeNode;
+        if (node != NONE) {
+            freeNode = children[2 * node];
+        }
+        else {
+            if (2 * nodeTop == children.length) {
+                children = Arrays.copyOf(children, children.length * 2);
+            }
+            node = nodeTop++;
+        }
+        children[2 * node] = UNSET;
+        children[2 * node + 1] = UNSET;
+        return node;
+    }
+
+
+    private int allocateBlock() {
+        int block = freeBlock;
+        if (block != NONE) {
+            freeBlock = blockNext[block];
+        }
+        else {
+            if (blockTop == blockCount.length) {
+                int blocks = blockTop * 2;
+                blockCount = Arrays.copyOf(blockCount, blocks);
+                blockNext = Arrays.copyOf(blockNext, blocks);
+                slotId = Arrays.copyOf(slotId, blocks * leafCapacity);
+                slotX = Arrays.copyOf(slotX, blocks * leafCapacity);
+                slotY = Arrays.copyOf(slotY, blocks * leafCapacity);
+            }
+            block = blockTop++;
+        }
+        blockCount[block] = 0;
+        blockNext[block] = NONE;
+        return block;
+    }
+
+
+    // Puts every block of a leaf chain on the free list
+    private void freeLeaf(int block) {
+        while (block != NONE) {
+            int next = blockNext[block];
+            blockCount[block] = 0;
+            blockNext[block] = freeBlock;
+            freeBlock = block;
+            block = next;
+        }
+    }
+}
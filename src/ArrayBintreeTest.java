@@ -0,0 +1,155 @@
+import student.TestCase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class contains test cases for the ArrayBintree class, comparing it
+ * with the object based Bintree.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class ArrayBintreeTest extends TestCase {
+
+    /**
+     * Tests that random inserts and deletes build the same tree as Bintree,
+     * and that searches find the same seminars after visiting the same
+     * nodes.
+     */
+    public void testMatchesBintree() {
+        Random random = new Random(7);
+        for (int capacity = 1; capacity <= 4; capacity++) {
+            // The largest world uses coordinates beyond the range of a short
+            int size = (capacity == 4) ? 1 << 24 : 128;
+            int spacing = size / 16;
+            Bintree objects = new Bintree(capacity);
+            ArrayBintree arrays = new ArrayBintree(capacity);
+            CollectingSink objectText = new CollectingSink();
+            CollectingSink arrayText = new CollectingSink();
+            objects.setOutput(objectText);
+            arrays.setOutput(arrayText);
+            List<Seminar> seminars = new ArrayList<>();
+            for (int id = 0; id < 300; id++) {
+                // A coarse grid makes co-located seminars common, and the
+                // IDs are unique but out of order, as in a SeminarStore
+                Seminar seminar = Fixtures.seminar(id * 7 % 1000, 45, random
+                    .nextInt(16) * spacing, random.nextInt(16) * spacing,
+                    "VT");
+                objects.insert(seminar, size);
+                arrays.insert(seminar, size);
+                seminars.add(seminar);
+            }
+            for (int i = 0; i < 200; i++) {
+                Seminar seminar = seminars.get(random.nextInt(seminars
+                    .size()));
+                objects.delete(seminar, size);
+                arrays.delete(seminar, size);
+            }
+            for (int i = 0; i < 50; i++) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                int radius = random.nextInt(size / 3);
+                List<Seminar> expected = new ArrayList<>();
+                List<Seminar> actual = new ArrayList<>();
+                assertEquals(objects.search(x, y, radius, size, expected),
+                    arrays.search(x, y, radius, size, actual));
+                assertEquals(expected, actual);
+            }
+            objects.preorderTraversal();
+            arrays.preorderTraversal();
+            objects.search(size / 2, size / 2, size / 4, size);
+            arrays.search(size / 2, size / 2, size / 4, size);
+            assertEquals(objectText.getText(), arrayText.getText());
+        }
+    }
+
+
+    /**
+     * Tests that co-located seminars overflowing a block stay in one leaf,
+     * sorted by ID, and that deleting them frees their blocks for reuse.
+     */
+    public void testColocatedChain() {
+        ArrayBintree tree = new ArrayBintree(2);
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        int[] ids = { 5, 3, 9, 1, 7, 2 };
+        for (int id : ids) {
+            tree.insert(Fixtures.seminar(id, 45, 10, 10, "VT"), 128);
+        }
+        tree.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nLeaf with 6 objects: 1 2 3 5 7 9\n",
+            sink.getText());
+        assertEquals(3, tree.getAllocatedBlocks());
+
+        tree.delete(Fixtures.seminar(3, 45, 10, 10, "VT"), 128);
+        tree.delete(Fixtures.seminar(9, 45, 10, 10, "VT"), 128);
+        sink.clear();
+        tree.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nLeaf with 4 objects: 1 2 5 7\n",
+            sink.getText());
+
+        tree.delete(10, 10, 128);
+        assertTrue(tree.isEmpty());
+        for (int id : ids) {
+            tree.insert(Fixtures.seminar(id, 45, 10, 10, "VT"), 128);
+        }
+        assertEquals(3, tree.getAllocatedBlocks());
+    }
+
+
+    /**
+     * Tests that a delete follows the region of the seminar at every level,
+     * merges the emptied subtrees back into one leaf, and that the freed
+     * nodes and blocks are reused.
+     */
+    public void testDeleteMergesAndReuses() {
+        ArrayBintree tree = new ArrayBintree();
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        tree.insert(Fixtures.seminar(1, 45, 10, 10, "VT"), 128);
+        tree.insert(Fixtures.seminar(2, 45, 10, 100, "VT"), 128);
+        tree.insert(Fixtures.seminar(3, 45, 100, 10, "VT"), 128);
+        tree.insert(Fixtures.seminar(4, 45, 10, 120, "VT"), 128);
+        tree.insert(Fixtures.seminar(5, 45, 20, 20, "VT"), 128);
+        tree.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nI\n  I\n"
+            + "    Leaf with 2 objects: 1 5\n    Leaf with 2 objects: 2 4\n"
+            + "  Leaf with 1 objects: 3\n", sink.getText());
+        int nodes = tree.getAllocatedNodes();
+        int blocks = tree.getAllocatedBlocks();
+
+        tree.delete(Fixtures.seminar(4, 45, 10, 120, "VT"), 128);
+        tree.delete(Fixtures.seminar(7, 45, 10, 100, "VT"), 128);
+        sink.clear();
+        tree.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nI\n  Leaf with 3 objects: 1 2 5\n"
+            + "  Leaf with 1 objects: 3\n", sink.getText());
+
+        tree.delete(Fixtures.seminar(2, 45, 10, 100, "VT"), 128);
+        sink.clear();
+        tree.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nLeaf with 3 objects: 1 3 5\n",
+            sink.getText());
+
+        tree.insert(Fixtures.seminar(2, 45, 10, 100, "VT"), 128);
+        tree.insert(Fixtures.seminar(4, 45, 10, 120, "VT"), 128);
+        assertEquals(nodes, tree.getAllocatedNodes());
+        assertEquals(blocks, tree.getAllocatedBlocks());
+        List<Seminar> matches = new ArrayList<>();
+        tree.search(10, 120, 0, 128, matches);
+        assertEquals(1, matches.size());
+        assertEquals(4, matches.get(0).id());
+
+        Exception exception = null;
+        try {
+            new ArrayBintree(0);
+        }
+        catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+}
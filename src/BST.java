@@ -1,346 +1,160 @@
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Binary Search Tree (BST) implementation for key-value pairs.
- *
- * @param <T>
- *            Type of the keys (must be Comparable)
- * @param <V>
- *            Type of the values
+ * A specialized Binary Search Tree (BST) for storing Seminars by their unique
+ * ID.
+ * 
  * @author {Lavisha Goyal}
  * @author {Shubham Laxmikant Deshmukh}
  * @version {1.0}
  */
 
-class BST<T extends Comparable<T>, V> {
-    /**
-     * The `TreeNode` class represents a node in a binary tree structure used
-     * for storing key-value pairs.
-     * Each `TreeNode` contains a key-value pair (`KVPair`) as its data, and it
-     * can have left and right child nodes.
-     * This class is typically used in binary search tree (BST) implementations.
-     */
-    protected class TreeNode {
-
-        private KVPair<T, V> data;
-
-        /**
-         * Gets the key-value pair data stored in this TreeNode.
-         *
-         * @return The key-value pair data
-         */
-        public KVPair<T, V> getData() {
-            return data;
-        }
-
-        private TreeNode left;
-
-        /**
-         * Gets the left child node of this TreeNode.
-         *
-         * @return The left child node representing the sub-tree rooted at the
-         *         left child of this node
-         */
-        public TreeNode getLeft() {
-            return left;
-        }
-
-// /**
-// * Sets the left child node.
-// *
-// * @param left
-// * The left child node to set.
-// */
-// public void setLeft(TreeNode left) {
-// this.left = left;
-// }
-
-        private TreeNode right;
-
-        /**
-         * Gets the right child node of this TreeNode.
-         *
-         * @return The right child node representing the sub-tree rooted at the
-         *         right child of this node
-         */
-        public TreeNode getRight() {
-            return right;
-        }
-
-// /**
-// * Sets the right child node.
-// *
-// * @param right
-// * The right child node to set.
-// */
-// public void setRight(TreeNode right) {
-// this.right = right;
-// }
-
-
-        /**
-         * Constructor for a TreeNode.
-         *
-         * @param data
-         *            The key-value pair data
-         */
-        public TreeNode(KVPair<T, V> data) {
-            this.data = data;
-            left = null;
-            right = null;
-        }
-    }
-
-    /**
-     * The root node of the binary tree structure.
-     * This field holds a reference to the topmost node in the binary tree.
-     * It represents the starting point for traversing the tree.
-     */
-    protected TreeNode root;
-    /**
-     * The count of nodes in the binary tree.
-     * This field keeps track of the total number of nodes in the tree.
-     * It is updated whenever nodes are added or removed from the tree.
-     */
-    protected int nodecount;
-
-    /**
-     * Constructor for an empty BST.
-     */
-    public BST() {
-        root = null;
-        nodecount = 0;
-    }
+class IdBST extends LongBST<Seminar> {
 
+    private SeminarStore store; // Resolves the handles held by the tree
 
     /**
-     * Insert a key-value pair into the BST.
-     *
-     * @param data
-     *            The key-value pair to insert
+     * Default constructor to create an empty IDBST with a record store of its
+     * own.
      */
-    public void insert(KVPair<T, V> data) {
-        root = inserthelp(root, data);
-        nodecount++;
+    public IdBST() {
+        this(false);
     }
 
 
     /**
-     * Helper method to recursively insert a key-value pair into the BST.
+     * Constructor to create an empty IDBST with a record store of its own
+     * that optionally keeps itself balanced.
      *
-     * @param rootNode
-     *            The root of the current subtree
-     * @param data
-     *            The key-value pair to insert
-     * @return The updated root of the subtree
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
      */
-    public TreeNode inserthelp(TreeNode rootNode, KVPair<T, V> data) {
-        if (rootNode == null) {
-            rootNode = new TreeNode(data);
-            return rootNode;
-        }
-
-        if (data.compareTo(rootNode.data) <= 0) {
-            rootNode.left = inserthelp(rootNode.left, data);
-        }
-        else {
-            rootNode.right = inserthelp(rootNode.right, data);
-        }
-
-        return rootNode;
-
+    public IdBST(boolean balanced) {
+        this(balanced, new SeminarStore());
     }
 
 
     /**
-     * Find a key-value pair in the BST by key.
+     * Constructor to create an empty IDBST that holds handles of the records
+     * in the given store and optionally keeps itself balanced.
      *
-     * @param data
-     *            The key-value pair to find
-     * @return The found key-value pair, or null if not found
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
+     * @param store
+     *            The record store, which may be shared with other indexes
      */
-    public KVPair<T, V> find(KVPair<T, V> data) {
-        return findhelp(root, data);
+    public IdBST(boolean balanced, SeminarStore store) {
+        super(balanced, store::get);
+        this.store = store;
     }
 
 
     /**
-     * Helper method to recursively find a key-value pair by key.
+     * Gets the record store the handles of the tree refer to.
      *
-     * @param rootNode
-     *            The root of the current subtree
-     * @param data
-     *            The key-value pair to find
-     * @return The found key-value pair, or null if not found
+     * @return The record store
      */
-    private KVPair<T, V> findhelp(TreeNode rootNode, KVPair<T, V> data) {
-        if (rootNode == null) {
-            return null;
-        }
-
-        if (rootNode.data.compareTo(data) > 0) {
-            return findhelp(rootNode.left, data);
-        }
-        else if (rootNode.data.compareTo(data) == 0) {
-            return rootNode.data;
-        }
-        else {
-            return findhelp(rootNode.right, data);
-        }
+    public SeminarStore getStore() {
+        return store;
     }
 
 
     /**
-     * Check if a key-value pair exists in the BST by key.
+     * Insert a Seminar with a given ID into the tree.
      *
-     * @param data
-     *            The key-value pair to check for existence
-     * @return True if the pair exists, false otherwise
+     * @param id
+     *            The ID of the Seminar
+     * @param seminar
+     *            The Seminar to insert
+     * @return True if insertion was successful, false if the ID is already in
+     *         use
      */
-    public boolean containsValue(KVPair<T, V> data) {
-        if (findhelp(root, data) != null) {
+    public boolean insertSeminar(int id, Seminar seminar) {
+        if (!containsKey(id)) {
+            insert(id, store.add(seminar));
             return true;
         }
         else {
+            output.println(
+                "Insert FAILED - There is already a record with ID " + id);
             return false;
         }
-
     }
 
 
     /**
-     * Checks if the binary search tree contains a specified key.
+     * Replaces the contents of the tree with a balanced tree over the given
+     * seminars, keyed by ID.
      *
-     * @param key
-     *            The key to search for in the binary search tree.
-     * @return True if the key is found in the binary search tree else false.
+     * @param seminars
+     *            The seminars in insertion order
      */
-    public boolean containsKey(T key) {
-        return containsKey(root, key);
-    }
-
-
-    private boolean containsKey(TreeNode node, T key) {
-        if (node == null) {
-            return false;
-        }
-
-        int comparison = key.compareTo(node.data.key());
-
-        if (comparison < 0) {
-            return containsKey(node.left, key);
-        }
-        else if (comparison > 0) {
-            return containsKey(node.right, key);
-        }
-        else {
-            return true; // Key found
+    public void loadSeminars(List<Seminar> seminars) {
+        int count = seminars.size();
+        long[] keys = new long[count];
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            Seminar seminar = seminars.get(i);
+            keys[i] = seminar.id();
+            handles[i] = store.add(seminar);
         }
+        bulkLoad(keys, handles, count);
     }
 
 
     /**
-     * Get the number of nodes in the BST.
+     * Get the number of records in the IDBST.
      *
-     * @return The number of nodes
+     * @return The number of records in the tree
      */
-    public int getSize() {
-        return nodecount;
+    public int getRecordNumber() {
+        return getSize();
     }
 
 
     /**
-     * Print the BST in an indented format.
-     *
-     * @param rootNode
-     *            The root of the current subtree
-     * @param level
-     *            The current level of the tree
+     * Print the ID Tree, including all seminars and their IDs.
      */
-    public void printhelp(TreeNode rootNode, int level) {
-        if (rootNode == null) {
-            printIndented("null", level);
-            return;
+    public void printIDTree() {
+        output.println("ID Tree:");
+
+        if (root == null) {
+            output.println("This tree is empty");
         }
-        printhelp(rootNode.right, level + 1);
-        printIndented(rootNode.data.key().toString(), level);
-        printhelp(rootNode.left, level + 1);
+        else {
+            printhelp(root, 0); // Start printing from the root with level 0
+            output.println("Number of records: " + getRecordNumber());
+        }
+
     }
 
 
     /**
-     * Print an indented value with the specified level.
+     * Removes the Seminar with the given ID from the tree. The ID is looked
+     * up in the record store, and the node is then found by the key and
+     * handle of the record.
      *
-     * @param value
-     *            The value to print
-     * @param level
-     *            The current level of indentation
+     * @param id
+     *            The ID of the Seminar to remove
      */
-    private void printIndented(String value, int level) {
-        for (int i = 0; i < level; i++) {
-            System.out.print("  "); // Two spaces per level
+    public void removeSeminar(int id) {
+        int handle = store.find(id);
+        if (handle >= 0) {
+            remove(id, handle);
         }
-        System.out.println(value);
     }
 
 
     /**
-     * Removes a node with specified key and value from the BST.
+     * Search for a Seminar by its ID in the IDBST.
      *
-     * @param dataToDelete
-     *            The key-value pair to be removed from the BST.
+     * @param id
+     *            The ID of the Seminar to search for
+     * @return The found Seminar or null if not found
      */
-    public void removeSeminar(KVPair<T, V> dataToDelete) {
-        root = removehelp(root, dataToDelete);
-        nodecount--;
-    }
-
-
-    private TreeNode removehelp(TreeNode node, KVPair<T, V> data) {
-        T key = data.key();
-        if (node == null) {
-            return null; // Node not found, nothing to delete
-        }
-        if (node.data.compareTo(key) > 0) {
-            node.left = removehelp(node.left, data);
-        }
-        else if (node.data.compareTo(key) < 0) {
-            node.right = removehelp(node.right, data);
-        }
-        else {
-            if (node.data.value() == data.value()) {
-                if (node.left == null) {
-                    return node.right;
-                }
-                else if (node.right == null) {
-                    return node.left;
-                }
-                else {
-                    TreeNode temp = getMax(node.left);
-                    node.data = temp.data;
-                    node.left = deleteMax(node.left);
-                }
-            }
-            else {
-                node.left = removehelp(node.left, data);
-            }
-        }
-        return node;
-    }
-
-
-    // Helper method to find the node with the maximum key in a subtree
-    private TreeNode getMax(TreeNode node) {
-        if (node.right == null) {
-            return node;
-        }
-        return getMax(node.right);
-    }
-
-
-    private TreeNode deleteMax(TreeNode node) {
-        if (node.right == null)
-            return node.left;
-        node.right = deleteMax(node.right);
-        return node;
+    public Seminar searchID(int id) {
+        return find(id); // Null if the ID is not found
     }
 
 }
@@ -349,133 +163,111 @@ class BST<T extends Comparable<T>, V> {
 
 
 /**
- * A specialized Binary Search Tree (BST) for storing Seminars by their unique
- * ID.
+ * A specialized Binary Search Tree (BST) for storing Seminars by their cost.
  * 
  * @author {Lavisha Goyal}
  * @author {Shubham Laxmikant Deshmukh}
  * @version {1.0}
  */
 
-class IdBST extends BST<Integer, Seminar> {
+class CostBST extends LongBST<Seminar> {
+    private SeminarStore store; // Resolves the handles held by the tree
 
     /**
-     * Default constructor to create an empty IDBST.
+     * Default constructor to create an empty CostBST with a record store of its
+     * own.
      */
-    public IdBST() {
-        super();
+    public CostBST() {
+        this(false);
     }
 
 
     /**
-     * Insert a Seminar with a given ID into the tree.
+     * Constructor to create an empty CostBST with a record store of its own
+     * that optionally keeps itself balanced.
      *
-     * @param id
-     *            The ID of the Seminar
-     * @param seminar
-     *            The Seminar to insert
-     * @return True if insertion was successful, false if the ID is already in
-     *         use
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
      */
-    public boolean insertSeminar(int id, Seminar seminar) {
-        KVPair<Integer, Seminar> data = new KVPair<>(id, seminar);
-
-        if (!containsValue(data)) {
-            insert((data));
-            return true;
-        }
-        else {
-            System.out.println(
-                "Insert FAILED - There is already a record with ID " + id);
-            return false;
-        }
+    public CostBST(boolean balanced) {
+        this(balanced, new SeminarStore());
     }
 
 
     /**
-     * Get the number of records in the IDBST.
+     * Constructor to create an empty CostBST that holds handles of the records
+     * in the given store and optionally keeps itself balanced.
      *
-     * @return The number of records in the tree
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
+     * @param store
+     *            The record store, which may be shared with other indexes
      */
-    public int getRecordNumber() {
-        return getSize();
+    public CostBST(boolean balanced, SeminarStore store) {
+        super(balanced, store::get);
+        this.store = store;
     }
 
 
     /**
-     * Print the ID Tree, including all seminars and their IDs.
+     * Gets the record store the handles of the tree refer to.
+     *
+     * @return The record store
      */
-    public void printIDTree() {
-        System.out.println("ID Tree:");
-
-        if (root == null) {
-            System.out.println("This tree is empty");
-        }
-        else {
-            printhelp(root, 0); // Start printing from the root with level 0
-            System.out.println("Number of records: " + getRecordNumber());
-        }
-
+    public SeminarStore getStore() {
+        return store;
     }
 
 
     /**
-     * Search for a Seminar by its ID in the IDBST.
+     * Insert a Seminar with a given cost into the tree.
      *
-     * @param id
-     *            The ID of the Seminar to search for
-     * @return The found Seminar or null if not found
+     * @param cost
+     *            The cost of the Seminar
+     * @param seminar
+     *            The Seminar to insert
+     * @return Always returns true
      */
-    public Seminar searchID(int id) {
-        KVPair<Integer, Seminar> searchData = new KVPair<>(id, null);
-        KVPair<Integer, Seminar> foundData = find(searchData);
+    public boolean insertSeminar(int cost, Seminar seminar) {
+        insert(cost, store.add(seminar));
+        return true;
 
-        if (foundData != null) {
-            return foundData.value();
-        }
-        else {
-            return null; // ID not found
-        }
     }
 
-}
 
-
-
-
-/**
- * A specialized Binary Search Tree (BST) for storing Seminars by their cost.
- * 
- * @author {Lavisha Goyal}
- * @author {Shubham Laxmikant Deshmukh}
- * @version {1.0}
- */
-
-class CostBST extends BST<Integer, Seminar> {
     /**
-     * Default constructor to create an empty CostBST.
+     * Replaces the contents of the tree with a balanced tree over the given
+     * seminars, keyed by cost.
+     *
+     * @param seminars
+     *            The seminars in insertion order
      */
-    public CostBST() {
-        super();
+    public void loadSeminars(List<Seminar> seminars) {
+        int count = seminars.size();
+        long[] keys = new long[count];
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            Seminar seminar = seminars.get(i);
+            keys[i] = seminar.cost();
+            handles[i] = store.add(seminar);
+        }
+        bulkLoad(keys, handles, count);
     }
 
-    private int recordsInRangeCount = 0; // Initialize the count to 0
 
     /**
-     * Insert a Seminar with a given cost into the tree.
+     * Removes the Seminar with the given ID from the tree. The ID is looked
+     * up in the record store, and the node is then found by the key and
+     * handle of the record.
      *
-     * @param cost
-     *            The cost of the Seminar
-     * @param seminar
-     *            The Seminar to insert
-     * @return Always returns true
+     * @param id
+     *            The ID of the Seminar to remove
      */
-    public boolean insertSeminar(int cost, Seminar seminar) {
-        KVPair<Integer, Seminar> data = new KVPair<>(cost, seminar);
-
-        insert(data);
-        return true;
-
+    public void removeSeminar(int id) {
+        int handle = store.find(id);
+        if (handle >= 0) {
+            remove(store.get(handle).cost(), handle);
+        }
     }
 
 
@@ -493,14 +285,14 @@ class CostBST extends BST<Integer, Seminar> {
      * Print the Cost Tree, including all seminars and their costs.
      */
     public void printCostTree() {
-        System.out.println("Cost Tree:");
+        output.println("Cost Tree:");
 
         if (root == null) {
-            System.out.println("This tree is empty");
+            output.println("This tree is empty");
         }
         else {
             printhelp(root, 0); // Start printing from the root with level 0
-            System.out.println("Number of records: " + getRecordNumber());
+            output.println("Number of records: " + getRecordNumber());
         }
 
     }
@@ -515,15 +307,53 @@ class CostBST extends BST<Integer, Seminar> {
      *            The maximum cost in the range
      */
     public void searchAndPrintCostRange(int minCost, int maxCost) {
-        recordsInRangeCount = searchAndPrintCostRangeHelper(root, minCost,
-            maxCost);
-        System.out.println(recordsInRangeCount
-            + " nodes visited in this search");
+        int visited = searchAndPrintCostRangeHelper(root, minCost, maxCost);
+        output.println(visited + " nodes visited in this search");
+    }
+
+
+    /**
+     * Print the number of Seminars within a cost range, counted from the
+     * subtree sizes without visiting the Seminars themselves.
+     *
+     * @param minCost
+     *            The minimum cost for the range
+     * @param maxCost
+     *            The maximum cost for the range
+     */
+    public void printCostRangeCount(int minCost, int maxCost) {
+        output.println(countRange(minCost, maxCost)
+            + " seminars with costs in range " + minCost + " to " + maxCost);
+    }
+
+
+    /**
+     * Print a window of the Seminars within a cost range, in cost order.
+     *
+     * @param minCost
+     *            The minimum cost for the range
+     * @param maxCost
+     *            The maximum cost for the range
+     * @param limit
+     *            The largest number of Seminars to print
+     * @param offset
+     *            The number of Seminars in the range to skip first
+     */
+    public void searchAndPrintCostRange(
+        int minCost,
+        int maxCost,
+        int limit,
+        int offset) {
+        List<Seminar> seminars = new ArrayList<>();
+        collectRange(minCost, maxCost, offset, limit, seminars);
+        for (Seminar seminar : seminars) {
+            output.println(seminar.toString());
+        }
     }
 
 
     private int searchAndPrintCostRangeHelper(
-        TreeNode node,
+        LongNode node,
         int minCost,
         int maxCost) {
         int count = 1;
@@ -531,15 +361,15 @@ class CostBST extends BST<Integer, Seminar> {
         if (node == null) {
             return count;
         }
-        int nodeCost = node.getData().key();
+        long nodeCost = node.getKey();
         if (nodeCost >= minCost) {
             count += searchAndPrintCostRangeHelper(node.getLeft(), minCost,
                 maxCost);
         }
         if (nodeCost >= minCost && nodeCost <= maxCost) {
-            System.out.println(node.getData().value());
+            output.println(node.getValue().toString());
         }
-        if (nodeCost < maxCost) {
+        if (nodeCost < maxCost || (splitEquals && nodeCost == maxCost)) {
             count += searchAndPrintCostRangeHelper(node.getRight(), minCost,
                 maxCost);
         }
@@ -559,12 +389,138 @@ class CostBST extends BST<Integer, Seminar> {
  * @author {Shubham Laxmikant Deshmukh}
  * @version {1.0}
  */
-class DateBST extends BST<String, Seminar> {
+class DateBST extends LongBST<Seminar> {
+    private static final int PACKED_CHARS = 16; // Characters packed per key
+    private static final int RADIX = 13; // End, below '0', '0'-'9', above '9'
+
+    private SeminarStore store; // Resolves the handles held by the tree
+
     /**
-     * Default constructor to create an empty DateBST.
+     * Default constructor to create an empty DateBST with a record store of its
+     * own.
      */
     public DateBST() {
-        super();
+        this(false);
+    }
+
+
+    /**
+     * Constructor to create an empty DateBST with a record store of its own
+     * that optionally keeps itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
+     */
+    public DateBST(boolean balanced) {
+        this(balanced, new SeminarStore());
+    }
+
+
+    /**
+     * Constructor to create an empty DateBST that holds handles of the records
+     * in the given store and optionally keeps itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
+     * @param store
+     *            The record store, which may be shared with other indexes
+     */
+    public DateBST(boolean balanced, SeminarStore store) {
+        super(balanced, store::get);
+        this.store = store;
+    }
+
+
+    /**
+     * Gets the record store the handles of the tree refer to.
+     *
+     * @return The record store
+     */
+    public SeminarStore getStore() {
+        return store;
+    }
+
+
+    /**
+     * Packs a date string into a long whose numeric order matches the
+     * string order, so the tree compares primitives instead of Strings.
+     * Each of the first 16 characters becomes one base-13 digit: 0 for the
+     * end of the string, 1 for a character below '0', 2 to 11 for '0' to
+     * '9' and 12 for a character above '9'. Packing stops after the first
+     * non-digit. The lowest bit is set when the packing lost information,
+     * i.e. for strings that are not all digits or have more than 15
+     * characters. Two dates of up to 15 digits, such as yyMMddHHmm dates
+     * and the bounds of date searches, are therefore equal exactly when
+     * their packed values are equal.
+     *
+     * @param date
+     *            The date string
+     * @return The packed date
+     */
+    static long pack(String date) {
+        boolean exact = date.length() < PACKED_CHARS;
+        long packed = 0;
+        int i = 0;
+        while (i < PACKED_CHARS && i < date.length()) {
+            char c = date.charAt(i++);
+            if (c < '0' || c > '9') {
+                packed = packed * RADIX + ((c < '0') ? 1 : RADIX - 1);
+                exact = false;
+                break;
+            }
+            packed = packed * RADIX + (c - '0' + 2);
+        }
+        for (; i < PACKED_CHARS; i++) {
+            packed *= RADIX;
+        }
+        return packed * 2 + (exact ? 0 : 1);
+    }
+
+
+    /**
+     * Checks whether a packed date holds its whole string.
+     *
+     * @param packed
+     *            The packed date
+     * @return True if the string can be restored from the packed date
+     */
+    static boolean isExact(long packed) {
+        return (packed & 1) == 0;
+    }
+
+
+    /**
+     * Restores the string of an exact packed date.
+     *
+     * @param packed
+     *            A packed date for which isExact is true
+     * @return The date string
+     */
+    static String unpack(long packed) {
+        char[] digits = new char[PACKED_CHARS];
+        long rest = packed >>> 1;
+        for (int i = PACKED_CHARS - 1; i >= 0; i--) {
+            digits[i] = (char)('0' + rest % RADIX - 2);
+            rest /= RADIX;
+        }
+        int length = 0;
+        while (length < PACKED_CHARS && digits[length] >= '0') {
+            length++;
+        }
+        return new String(digits, 0, length);
+    }
+
+
+    /**
+     * Prints the date a node was inserted with.
+     *
+     * @param node
+     *            The node
+     * @return The date string of the node
+     */
+    protected String keyText(LongNode node) {
+        long packed = node.getKey();
+        return isExact(packed) ? unpack(packed) : node.getValue().date();
     }
 
 
@@ -578,12 +534,47 @@ class DateBST extends BST<String, Seminar> {
      * @return Always returns true
      */
     public boolean insertSeminar(String date, Seminar seminar) {
-        KVPair<String, Seminar> data = new KVPair<>(date, seminar);
-        insert(data);
+        insert(pack(date), store.add(seminar));
         return true;
     }
 
 
+    /**
+     * Replaces the contents of the tree with a balanced tree over the given
+     * seminars, keyed by date.
+     *
+     * @param seminars
+     *            The seminars in insertion order
+     */
+    public void loadSeminars(List<Seminar> seminars) {
+        int count = seminars.size();
+        long[] keys = new long[count];
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            Seminar seminar = seminars.get(i);
+            keys[i] = pack(seminar.date());
+            handles[i] = store.add(seminar);
+        }
+        bulkLoad(keys, handles, count);
+    }
+
+
+    /**
+     * Removes the Seminar with the given ID from the tree. The ID is looked
+     * up in the record store, and the node is then found by the key and
+     * handle of the record.
+     *
+     * @param id
+     *            The ID of the Seminar to remove
+     */
+    public void removeSeminar(int id) {
+        int handle = store.find(id);
+        if (handle >= 0) {
+            remove(pack(store.get(handle).date()), handle);
+        }
+    }
+
+
     /**
      * Get the number of records in the DateBST.
      *
@@ -598,14 +589,14 @@ class DateBST extends BST<String, Seminar> {
      * Print the Date Tree, including all seminars and their dates.
      */
     public void printDateTree() {
-        System.out.println("Date Tree:");
+        output.println("Date Tree:");
 
         if (root == null) {
-            System.out.println("This tree is empty");
+            output.println("This tree is empty");
         }
         else {
             printhelp(root, 0); // Start printing from the root with level 0
-            System.out.println("Number of records: " + getRecordNumber());
+            output.println("Number of records: " + getRecordNumber());
         }
     }
 
@@ -619,14 +610,145 @@ class DateBST extends BST<String, Seminar> {
      *            The maximum date in the range
      */
     public void searchAndPrintDateRange(String minDate, String maxDate) {
-        int nodesVisited = searchDateRangeHelper(root, minDate, maxDate);
-        System.out.println(nodesVisited + " nodes visited in this search");
+        int nodesVisited = searchDateRangeHelper(root, pack(minDate), pack(
+            maxDate), minDate, maxDate);
+        output.println(nodesVisited + " nodes visited in this search");
+
+    }
+
+
+    /**
+     * Counts the Seminars within a date range.
+     *
+     * @param minDate
+     *            The minimum date for the range
+     * @param maxDate
+     *            The maximum date for the range
+     * @return The number of Seminars in the range
+     */
+    public int countRange(String minDate, String maxDate) {
+        long min = pack(minDate);
+        long max = pack(maxDate);
+        if (isExact(min) && isExact(max)) {
+            return countRange(min, max);
+        }
+        List<Seminar> seminars = new ArrayList<>();
+        return collectRange(minDate, maxDate, seminars);
+    }
+
+
+    /**
+     * Adds the Seminars within a date range to a list, in date order.
+     *
+     * @param minDate
+     *            The minimum date for the range
+     * @param maxDate
+     *            The maximum date for the range
+     * @param seminars
+     *            The list the Seminars are added to
+     * @return The number of Seminars added
+     */
+    public int collectRange(
+        String minDate,
+        String maxDate,
+        List<Seminar> seminars) {
+        return collectRange(minDate, maxDate, 0, Integer.MAX_VALUE, seminars);
+    }
+
+
+    /**
+     * Adds a window of the Seminars within a date range to a list, in date
+     * order.
+     *
+     * @param minDate
+     *            The minimum date for the range
+     * @param maxDate
+     *            The maximum date for the range
+     * @param offset
+     *            The number of Seminars in the range to skip
+     * @param limit
+     *            The largest number of Seminars to add
+     * @param seminars
+     *            The list the Seminars are added to
+     * @return The number of Seminars added
+     */
+    public int collectRange(
+        String minDate,
+        String maxDate,
+        int offset,
+        int limit,
+        List<Seminar> seminars) {
+        long min = pack(minDate);
+        long max = pack(maxDate);
+        if (isExact(min) && isExact(max)) {
+            // Exact bounds never tie with a packed date they differ from
+            return collectRange(min, max, offset, limit, seminars);
+        }
+        List<Seminar> candidates = new ArrayList<>();
+        collectRange(min, max, candidates);
+        int skipped = 0;
+        int added = 0;
+        for (Seminar seminar : candidates) {
+            if (added == limit) {
+                break;
+            }
+            if (seminar.date().compareTo(minDate) >= 0 && seminar.date()
+                .compareTo(maxDate) <= 0 && skipped++ >= offset) {
+                seminars.add(seminar);
+                added++;
+            }
+        }
+        return added;
+    }
+
+
+    /**
+     * Print the number of Seminars within a date range, counted from the
+     * subtree sizes without visiting the Seminars themselves.
+     *
+     * @param minDate
+     *            The minimum date for the range
+     * @param maxDate
+     *            The maximum date for the range
+     */
+    public void printDateRangeCount(String minDate, String maxDate) {
+        output.println(countRange(minDate, maxDate)
+            + " seminars with dates in range " + minDate + " to " + maxDate);
+    }
 
+
+    /**
+     * Print a window of the Seminars within a date range, in date order.
+     *
+     * @param minDate
+     *            The minimum date for the range
+     * @param maxDate
+     *            The maximum date for the range
+     * @param limit
+     *            The largest number of Seminars to print
+     * @param offset
+     *            The number of Seminars in the range to skip first
+     */
+    public void searchAndPrintDateRange(
+        String minDate,
+        String maxDate,
+        int limit,
+        int offset) {
+        List<Seminar> seminars = new ArrayList<>();
+        collectRange(minDate, maxDate, offset, limit, seminars);
+        for (Seminar seminar : seminars) {
+            output.println(seminar.toString());
+        }
     }
 
 
+    // Compares packed dates. Packed dates only tie without being the same
+    // string when neither is exact, so those ties are checked on the
+    // Strings and never used to prune.
     private int searchDateRangeHelper(
-        TreeNode node,
+        LongNode node,
+        long min,
+        long max,
         String minDate,
         String maxDate) {
 
@@ -636,18 +758,21 @@ class DateBST extends BST<String, Seminar> {
             return count;
         }
 
-        String nodeDate = node.getData().key();
-        int dateComparisonMin = nodeDate.compareTo(minDate);
-        int dateComparisonMax = nodeDate.compareTo(maxDate);
+        long nodeDate = node.getKey();
+        boolean exact = isExact(nodeDate);
 
-        if (dateComparisonMin >= 0) {
-            count += searchDateRangeHelper(node.getLeft(), minDate, maxDate);
+        if (nodeDate >= min) {
+            count += searchDateRangeHelper(node.getLeft(), min, max, minDate,
+                maxDate);
         }
-        if (dateComparisonMin >= 0 && dateComparisonMax <= 0) {
-            System.out.println(node.getData().value().toString());
+        if (nodeDate >= min && nodeDate <= max && (exact || (node.getValue()
+            .date().compareTo(minDate) >= 0 && node.getValue().date()
+                .compareTo(maxDate) <= 0))) {
+            output.println(node.getValue().toString());
         }
-        if (dateComparisonMax < 0) {
-            count += searchDateRangeHelper(node.getRight(), minDate, maxDate);
+        if (nodeDate < max || ((splitEquals || !exact) && nodeDate == max)) {
+            count += searchDateRangeHelper(node.getRight(), min, max, minDate,
+                maxDate);
 
         }
         return count;
@@ -660,17 +785,50 @@ class DateBST extends BST<String, Seminar> {
 
 /**
  * A specialized Binary Search Tree (BST) for storing Seminars by keywords.
+ * Each node holds a keyword and the handle of its Seminar in the record
+ * store, so a Seminar is removed by descending straight to the node of each
+ * of its keywords.
  * 
  * @author {Lavisha Goyal}
  * @author {Shubham Laxmikant Deshmukh}
  * @version {1.0}
  */
-class KeywordBST extends BST<String, Seminar> {
+class KeywordBST extends StringBST {
+    private KeywordIndex index; // Posting lists
     /**
-     * Default constructor to create an empty KeywordBST.
+     * Default constructor to create an empty KeywordBST with a record store
+     * of its own.
      */
     public KeywordBST() {
-        super();
+        this(false);
+    }
+
+
+    /**
+     * Constructor to create an empty KeywordBST with a record store of its
+     * own that optionally keeps itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
+     */
+    public KeywordBST(boolean balanced) {
+        this(balanced, new SeminarStore());
+    }
+
+
+    /**
+     * Constructor to create an empty KeywordBST whose keyword index holds
+     * handles of the records in the given store, and that optionally keeps
+     * itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance the tree on insert and removal
+     * @param store
+     *            The record store, which may be shared with other indexes
+     */
+    public KeywordBST(boolean balanced, SeminarStore store) {
+        super(balanced, store);
+        index = new KeywordIndex(store);
     }
 
 
@@ -683,10 +841,92 @@ class KeywordBST extends BST<String, Seminar> {
      *            The keywords associated with the Seminar
      */
     public void insertSeminar(Seminar seminar, String... keywords) {
+        int handle = getStore().add(seminar);
         for (String keyword : keywords) {
-            KVPair<String, Seminar> data = new KVPair<>(keyword, seminar);
-            insert(data);
+            insert(keyword, handle);
+        }
+        index.add(seminar, keywords);
+    }
+
+
+    /**
+     * Replaces the contents of the tree with a balanced tree over the
+     * keywords of the given seminars, and fills the keyword index in the
+     * same order insertSeminar would.
+     *
+     * @param seminars
+     *            The seminars in insertion order
+     */
+    public void loadSeminars(List<Seminar> seminars) {
+        int count = 0;
+        for (Seminar seminar : seminars) {
+            count += seminar.keywords().length;
+        }
+        String[] keys = new String[count];
+        int[] handles = new int[count];
+        int entry = 0;
+        index = new KeywordIndex(getStore());
+        for (Seminar seminar : seminars) {
+            int handle = getStore().add(seminar);
+            for (String keyword : seminar.keywords()) {
+                keys[entry] = keyword;
+                handles[entry++] = handle;
+            }
+            index.add(seminar, seminar.keywords());
         }
+        bulkLoad(keys, handles, count);
+    }
+
+
+    /**
+     * Removes the entry of one keyword of the Seminar with the given ID from
+     * the tree and from the keyword's posting list.
+     *
+     * @param keyword
+     *            The keyword to remove
+     * @param id
+     *            The ID of the Seminar, looked up in the record store
+     * @return True if the tree held the entry
+     */
+    public boolean removeSeminar(String keyword, int id) {
+        int handle = getStore().find(id);
+        if (handle < 0) {
+            return false;
+        }
+        index.remove(keyword, handle);
+        return remove(keyword, handle);
+    }
+
+
+    /**
+     * Removes every keyword entry of the Seminar with the given ID from the
+     * tree and from the keyword index. The ID is looked up in the record
+     * store, and each entry is then found by its keyword and the handle of
+     * the record.
+     *
+     * @param id
+     *            The ID of the Seminar to remove
+     */
+    public void removeSeminar(int id) {
+        SeminarStore store = getStore();
+        int handle = store.find(id);
+        if (handle < 0) {
+            return;
+        }
+        for (String keyword : store.get(handle).keywords()) {
+            remove(keyword, handle);
+            index.remove(keyword, handle);
+        }
+    }
+
+
+    /**
+     * Gets the inverted keyword index kept alongside the tree.
+     *
+     * @return The keyword index
+     */
+    public KeywordIndex getIndex() {
+        return index;
     }
 
 
@@ -704,47 +944,61 @@ class KeywordBST extends BST<String, Seminar> {
      * Print the Keyword Tree, including all seminars and their keywords.
      */
     public void printKeywordTree() {
-        System.out.println("Keyword Tree:");
+        output.println("Keyword Tree:");
 
         if (root == null) {
-            System.out.println("This tree is empty");
+            output.println("This tree is empty");
         }
         else {
             printhelp(root, 0); // Start printing from the root with level 0
-            System.out.println("Number of records: " + getRecordNumber());
+            output.println("Number of records: " + getRecordNumber());
         }
 
     }
 
 
     /**
-     * Search for and print Seminars by a specific keyword.
+     * Search for and print Seminars by a specific keyword. The keyword's
+     * posting list is scanned newest first, which is the order an inorder
+     * walk of the equal keys in the tree would produce.
      *
      * @param keyword
      *            The keyword to search for
      */
     public void searchAndPrintByKeyword(String keyword) {
-        System.out.println("Seminars matching keyword " + keyword + ":");
-        searchAndPrintKeywordHelper(root, keyword);
+        output.println("Seminars matching keyword " + keyword + ":");
+        PostingList postings = index.get(keyword);
+        if (postings == null) {
+            return;
+        }
+        for (int i = postings.size() - 1; i >= 0; i--) {
+            output.println(postings.getSeminar(i).toString());
+        }
     }
 
 
-    private void searchAndPrintKeywordHelper(TreeNode node, String keyword) {
-        if (node == null) {
+    /**
+     * Evaluates a boolean keyword query and prints the matching Seminars,
+     * newest first like a single keyword search. See KeywordIndex.query for
+     * the query syntax.
+     *
+     * @param words
+     *            The words of the query, keywords and AND / OR / NOT
+     */
+    public void searchAndPrintByKeywords(String[] words) {
+        String query = String.join(" ", words);
+        PostingList matches;
+        try {
+            matches = index.query(words);
+        }
+        catch (IllegalArgumentException e) {
+            output.println("Search FAILED -- Bad keyword query " + query
+                + ": " + e.getMessage());
             return;
         }
-        String nodeKeyword = node.getData().key();
-        int keywordComparison = keyword.compareTo(nodeKeyword);
-        if (keywordComparison < 0) {
-            searchAndPrintKeywordHelper(node.getLeft(), keyword);
-        }
-        else if (keywordComparison > 0) {
-            searchAndPrintKeywordHelper(node.getRight(), keyword);
-        }
-        else {
-            searchAndPrintKeywordHelper(node.getLeft(), keyword);
-            System.out.println(node.getData().value().toString());
-            searchAndPrintKeywordHelper(node.getRight(), keyword);
+        output.println("Seminars matching keywords " + query + ":");
+        for (int i = matches.size() - 1; i >= 0; i--) {
+            output.println(matches.getSeminar(i).toString());
         }
     }
 
@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A small benchmark comparing the plain and the self-balancing BST on sorted
+ * and random insert workloads, and with bulk loading the same keys, followed
+ * by a lookup of every inserted key.
+ * It then times date range queries on DateBST, which compares packed
+ * dates. Last, it compares compound searches driven by a range walk of
+ * the balanced cost index with the same searches driven by a column scan
+ * of the record store, at several selectivities, which is where the
+ * QueryPlanner.SCAN_SHARE threshold comes from.
+ * 
+ * Run it as: java BSTBenchmark {record-count} {date-record-count}
+ * {scan-record-count}
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class BSTBenchmark {
+    private static final int DEFAULT_RECORDS = 10000; // Default record count
+    private static final int DEFAULT_DATES = 1000000; // Default date count
+    private static final int DATE_QUERIES = 2000; // Range queries per index
+    private static final int DEFAULT_SCANS = 200000; // Default scan records
+    private static final int MAX_COST = 10000; // Costs are 0 to MAX_COST - 1
+    // Cost range widths of the scan comparison, out of MAX_COST
+    private static final int[] SCAN_WIDTHS = { 10, 100, 500, 1000, 2500,
+        5000, 10000 };
+    private static final int SCAN_ROUNDS = 3; // Rounds, the last is printed
+    private static final int SCAN_WORLD = 1024; // World size of the scan
+    private static final long SEED = 42; // Seed for the random workload
+    // The record every node of the ID trees refers to
+    private static final Seminar SEMINAR = new Seminar(0, "Title",
+        "0610051600", 60, 0, 0, 10, new String[] { "VT" }, "Description");
+
+    /**
+     * The main entry point for the benchmark.
+     *
+     * @param args
+     *            Optional number of records to insert, optional number of
+     *            records in the date indexes, and optional number of
+     *            records in the scan comparison.
+     */
+    public static void main(String[] args) {
+        int records = DEFAULT_RECORDS;
+        if (args.length > 0) {
+            records = Integer.parseInt(args[0]);
+        }
+        int dates = DEFAULT_DATES;
+        if (args.length > 1) {
+            dates = Integer.parseInt(args[1]);
+        }
+
+        int[] sorted = new int[records];
+        for (int i = 0; i < records; i++) {
+            sorted[i] = i;
+        }
+        int[] random = sorted.clone();
+        Random rng = new Random(SEED);
+        for (int i = records - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int temp = random[i];
+            random[i] = random[j];
+            random[j] = temp;
+        }
+
+        System.out.println("Records: " + records);
+        run("plain, sorted", false, sorted);
+        run("plain, random", false, random);
+        run("balanced, sorted", true, sorted);
+        run("balanced, random", true, random);
+        runBulk("bulk, sorted", sorted);
+        runBulk("bulk, random", random);
+        runDates(dates);
+        int scans = DEFAULT_SCANS;
+        if (args.length > 2) {
+            scans = Integer.parseInt(args[2]);
+        }
+        runScan(scans);
+    }
+
+
+    /**
+     * Loads seminars with random costs, locations and long descriptions
+     * into balanced indexes sharing one record store, then runs the
+     * compound search "cost lo hi location 512 512 400" for cost ranges
+     * covering 0.1% to 100% of the seminars. Each search is run once
+     * driven by the cost index and once driven by a column scan, and the
+     * mean time of each is printed per share. The planner scans when the
+     * best index would return more than one in QueryPlanner.SCAN_SHARE of
+     * the seminars.
+     *
+     * @param records
+     *            The number of seminars.
+     */
+    private static void runScan(int records) {
+        Random rng = new Random(SEED);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("description text ");
+        }
+        String description = text.toString();
+        List<Seminar> seminars = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            seminars.add(new Seminar(i, "Title " + i, "06" + (1000000 + rng
+                .nextInt(9000000)), 60, rng.nextInt(SCAN_WORLD), rng.nextInt(
+                    SCAN_WORLD), rng.nextInt(MAX_COST), new String[] { "k"
+                        + rng.nextInt(1000), "VT" }, description + i));
+        }
+        SeminarStore store = new SeminarStore();
+        IdBST idBST = new IdBST(true, store);
+        CostBST costBST = new CostBST(true, store);
+        DateBST dateBST = new DateBST(true, store);
+        KeywordBST keywordBST = new KeywordBST(true, store);
+        Bintree binLocation = new Bintree();
+        new SemManagerBST(DiscardSink.getInstance()).loadSeminarRecords(
+            seminars, SCAN_WORLD, idBST, costBST, dateBST, keywordBST,
+            binLocation);
+        QueryPlanner planner = new QueryPlanner(idBST, costBST, dateBST,
+            keywordBST, binLocation, SCAN_WORLD);
+
+        System.out.println("Scan records: " + records
+            + ", cost lo hi location 512 512 400, scan above 1 in "
+            + QueryPlanner.SCAN_SHARE);
+        for (int round = 1; round <= SCAN_ROUNDS; round++) {
+            for (int width : SCAN_WIDTHS) {
+                int repeats = Math.max(3, 2000 / width);
+                long indexTime = 0;
+                long scanTime = 0;
+                for (int i = 0; i < repeats; i++) {
+                    int low = rng.nextInt(MAX_COST + 1 - width);
+                    List<SeminarPredicate> predicates = planner.parse(("cost "
+                        + low + " " + (low + width - 1)
+                        + " location 512 512 400").split(" "));
+                    List<Seminar> matches = new ArrayList<>();
+                    long start = System.nanoTime();
+                    planner.execute(predicates, predicates.get(0), matches);
+                    long indexed = System.nanoTime();
+                    matches.clear();
+                    planner.execute(predicates, new ColumnScan(store,
+                        predicates), matches);
+                    scanTime += System.nanoTime() - indexed;
+                    indexTime += indexed - start;
+                }
+                if (round == SCAN_ROUNDS) { // Earlier rounds warm up
+                    System.out.println(String.format(
+                        "cost share %6.1f%%: cost index %8.2f ms, "
+                            + "column scan %8.2f ms", 100.0 * width
+                                / MAX_COST, indexTime / 1e6 / repeats,
+                        scanTime / 1e6 / repeats));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Builds a DateBST over random yyMMddHHmm dates, then runs one-month
+     * range queries on it and prints the elapsed time.
+     *
+     * @param records
+     *            The number of dates in each index.
+     */
+    private static void runDates(int records) {
+        Random rng = new Random(SEED);
+        DateBST packed = new DateBST();
+        for (int i = 0; i < records; i++) {
+            String date = String.format("%02d%02d%02d%02d%02d", rng.nextInt(
+                100), 1 + rng.nextInt(12), 1 + rng.nextInt(28), rng.nextInt(
+                    24), rng.nextInt(60));
+            packed.insertSeminar(date, new Seminar(i, "Title", date, 60, 0, 0,
+                10, new String[] { "VT" }, "Description"));
+        }
+        String[][] queries = new String[DATE_QUERIES][];
+        for (int i = 0; i < DATE_QUERIES; i++) {
+            String month = String.format("%02d%02d", rng.nextInt(100), 1 + rng
+                .nextInt(12));
+            queries[i] = new String[] { month + "000000", month + "312359" };
+        }
+
+        List<Seminar> matches = new ArrayList<>();
+        long start = System.nanoTime();
+        for (String[] query : queries) {
+            matches.clear();
+            packed.collectRange(query[0], query[1], matches);
+        }
+        long packedTime = System.nanoTime() - start;
+
+        System.out.println("Date records: " + records + ", " + DATE_QUERIES
+            + " month range queries");
+        System.out.println("Packed keys: " + millis(packedTime)
+            + " ms (last query " + matches.size() + " matches)");
+    }
+
+
+    /**
+     * Inserts the keys into a fresh IdBST, looks each of them up again and
+     * prints the elapsed times and the resulting tree height.
+     *
+     * @param label
+     *            The label of the workload.
+     * @param balanced
+     *            Whether the tree keeps itself balanced.
+     * @param keys
+     *            The keys to insert, in insertion order.
+     */
+    private static void run(String label, boolean balanced, int[] keys) {
+        IdBST tree = new IdBST(balanced);
+        int handle = tree.getStore().add(SEMINAR);
+        try {
+            long start = System.nanoTime();
+            for (int key : keys) {
+                tree.insert(key, handle);
+            }
+            long inserted = System.nanoTime();
+            for (int key : keys) {
+                tree.searchID(key);
+            }
+            long found = System.nanoTime();
+
+            System.out.println(label + ": insert " + millis(inserted - start)
+                + " ms, find " + millis(found - inserted) + " ms, height "
+                + tree.getHeight());
+        }
+        catch (StackOverflowError e) {
+            System.out.println(label + ": StackOverflowError after "
+                + tree.getSize() + " inserts");
+        }
+    }
+
+
+    /**
+     * Bulk loads the keys into a fresh IdBST, looks each of them up again
+     * and prints the elapsed times and the resulting tree height.
+     *
+     * @param label
+     *            The label of the workload.
+     * @param keys
+     *            The keys to load, in insertion order.
+     */
+    private static void runBulk(String label, int[] keys) {
+        IdBST tree = new IdBST();
+        int handle = tree.getStore().add(SEMINAR);
+        long start = System.nanoTime();
+        long[] longKeys = new long[keys.length];
+        int[] handles = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            longKeys[i] = keys[i];
+            handles[i] = handle;
+        }
+        tree.bulkLoad(longKeys, handles, keys.length);
+        long inserted = System.nanoTime();
+        for (int key : keys) {
+            tree.searchID(key);
+        }
+        long found = System.nanoTime();
+
+        System.out.println(label + ": load " + millis(inserted - start)
+            + " ms, find " + millis(found - inserted) + " ms, height "
+            + tree.getHeight());
+    }
+
+
+    private static long millis(long nanos) {
+        return nanos / 1000000;
+    }
+}
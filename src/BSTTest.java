@@ -1,5 +1,9 @@
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import student.TestCase;
 
@@ -15,43 +19,40 @@ import student.TestCase;
 public class BSTTest extends TestCase {
 
     /**
-     * Represents a test case for verifying behavior of the `containsValue`
+     * Represents a test case for verifying behavior of the `findHandle`
      * method
-     * in a Binary Search Tree (BST).
+     * in a LongBST.
      */
-    public void testContainsValue() {
-        // Create a BST of integers
-        BST<Integer, String> bst = new BST<>();
-
-        // Insert some key-value pairs
-        bst.insert(new KVPair<>(10, "A"));
-        bst.insert(new KVPair<>(5, "B"));
-        bst.insert(new KVPair<>(15, "C"));
-
-        // Test if containsValue returns true for existing values
-        assertTrue(bst.containsValue(new KVPair<>(10, "")));
-        assertTrue(bst.containsValue(new KVPair<>(5, "")));
-        assertTrue(bst.containsValue(new KVPair<>(15, "")));
-
-        // Test if containsValue returns false for non-existing values
-        assertFalse(bst.containsValue(new KVPair<>(20, "")));
-        assertFalse(bst.containsValue(new KVPair<>(3, "")));
+    public void testFindHandle() {
+        // Create a tree whose handle n resolves to the value "Vn"
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
+
+        // Insert some keys with their handles
+        bst.insert(10, 0);
+        bst.insert(5, 1);
+        bst.insert(15, 2);
+
+        // Test if findHandle returns the handle for existing keys
+        assertEquals(0, bst.findHandle(10));
+        assertEquals(1, bst.findHandle(5));
+        assertEquals(2, bst.findHandle(15));
+
+        // Test if findHandle returns -1 for non-existing keys
+        assertEquals(-1, bst.findHandle(20));
+        assertEquals(-1, bst.findHandle(3));
     }
 
 
     /**
-     * Tests the `getSize` method of a Binary Search Tree (BST) to ensure it
-     * correctly
+     * Tests the `getSize` method of a LongBST to ensure it correctly
      * returns the number of elements in the tree.
      */
     public void testGetSize() {
-        // Create a BST of integers
-        BST<Integer, String> bst = new BST<>();
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
-        // Insert some key-value pairs
-        bst.insert(new KVPair<>(10, "A"));
-        bst.insert(new KVPair<>(5, "B"));
-        bst.insert(new KVPair<>(15, "C"));
+        bst.insert(10, 0);
+        bst.insert(5, 1);
+        bst.insert(15, 2);
 
         // Test if the size matches the number of inserted elements
         assertEquals(3, bst.getSize());
@@ -59,168 +60,61 @@ public class BSTTest extends TestCase {
 
 
     /**
-     * Tests the behavior of a Binary Search Tree (BST) when it is empty. It
-     * verifies
-     * that the tree reports its size as 0, and that attempts to find or check
-     * the
+     * Tests the behavior of a LongBST when it is empty. It verifies that the
+     * tree reports its size as 0, and that attempts to find or check the
      * presence of elements return the expected results for an empty tree.
      */
     public void testEmptyTree() {
-        // Create an empty BST
-        BST<Integer, String> bst = new BST<>();
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
         // Test if the tree is empty
         assertEquals(0, bst.getSize());
-        assertNull(bst.find(new KVPair<>(10, "")));
-        assertFalse(bst.containsValue(new KVPair<>(10, "")));
-    }
-
-
-    /**
-     * Tests the constructor of the `KVPair` class to ensure that it correctly
-     * sets
-     * the key and value attributes of a key-value pair.
-     */
-    public void testConstructorKVPair() {
-        // Test the constructor to ensure theKey and theVal are set correctly
-        KVPair<Integer, String> pair = new KVPair<>(10, "A");
-        assertEquals(10, pair.key().intValue());
-        assertEquals("A", pair.value());
-    }
-
-
-    /**
-     * Tests the `compareTo` method of the `KVPair` class to compare two
-     * key-value
-     * pairs based on their keys. It verifies that method correctly returns
-     * positive, negative, or zero values as expected when comparing keys.
-     */
-
-    public void testCompareToKVPair() {
-        // Test compareTo(KVPair<K, E> it) method to compare KVPair objects by
-        // key
-        KVPair<Integer, String> pair1 = new KVPair<>(10, "A");
-        KVPair<Integer, String> pair2 = new KVPair<>(5, "B");
-        KVPair<Integer, String> pair3 = new KVPair<>(15, "C");
-
-        assertTrue(pair1.compareTo(pair2) > 0); // pair1 key is greater than
-                                                // pair2 key
-        assertTrue(pair2.compareTo(pair1) < 0); // pair2 key is less than
-                                                // pair1 key
-        assertEquals(0, pair1.compareTo(pair1)); // pair1 key is equal to
-                                                 // pair1 key
-        assertTrue(pair1.compareTo(pair3) < 0); // pair1 key is less than
-                                                // pair3 key
-    }
-
-
-    /**
-     * Tests the `compareTo` method of the `KVPair` class to compare key of
-     * a
-     * key-value pair with a specified key. It verifies that the method
-     * correctly
-     * returns positive, zero, or negative values as expected when comparing
-     * keys.
-     */
-    public void testCompareToKey() {
-        // Test compareTo(K it) method to compare KVPair key with a key
-        KVPair<Integer, String> pair = new KVPair<>(10, "A");
-
-        assertTrue(pair.compareTo(5) > 0); // pair key is greater than 5
-        assertTrue(pair.compareTo(10) == 0); // pair key is equal to 10
-        assertTrue(pair.compareTo(15) < 0); // pair key is less than 15
-    }
-
-
-    /**
-     * Tests the `key` method of `KVPair` class to ensure that it correctly
-     * retrieves the key associated with the key-value pair.
-     */
-    public void testKey() {
-        // Test key() method to retrieve the key
-        KVPair<Integer, String> pair = new KVPair<>(10, "A");
-        assertEquals(10, pair.key().intValue());
+        assertNull(bst.find(10));
+        assertEquals(-1, bst.findHandle(10));
+        assertFalse(bst.containsKey(10));
     }
 
 
     /**
-     * Tests the `value` method of the `KVPair` class to ensure that it
-     * correctly
-     * retrieves the value associated with the key-value pair.
-     */
-    public void testValue() {
-        // Test value() method to retrieve the value
-        KVPair<Integer, String> pair = new KVPair<>(10, "A");
-        assertEquals("A", pair.value());
-    }
-
-
-    /**
-     * Tests the constructor of the `BST` class to ensure that it creates an
-     * empty binary search tree with a size of zero.
+     * Tests the constructor of the `LongBST` class to ensure that it creates
+     * an empty binary search tree with a size of zero.
      */
     public void testConstructorBST() {
-        BST<Integer, String> bst = new BST<>();
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
         assertEquals(0, bst.getSize());
+        assertNull(bst.root);
     }
 
 
     /**
-     * Tests the insertion of key-value pairs into a binary search tree (BST).
-     * Verifies that inserting a unique pair increments size of the BST by
-     * one,
-     * and inserting the same pair again should not increment the size
-     * (duplicate
-     * insertion).
+     * Tests the insertion of keys into a LongBST. Verifies that inserting a
+     * key increments size of the tree by one, and that inserting the same
+     * key and handle again adds a second node.
      */
     public void testInsertBST() {
-        BST<Integer, String> bst = new BST<>();
-        KVPair<Integer, String> pair = new KVPair<>(1, "A");
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
-        bst.insert(pair);
+        bst.insert(1, 0);
         assertEquals(1, bst.getSize());
 
-        // Mutate by inserting the same pair again (duplicate insertion)
-        bst.insert(pair);
-        assertEquals(2, bst.getSize()); // Mutation should fail
+        // Inserting the same entry again (duplicate insertion)
+        bst.insert(1, 0);
+        assertEquals(2, bst.getSize());
     }
 
-// public void testInserthelp() {
-// BST<Integer, String> bst = new BST<>();
-// KVPair<Integer, String> rootPair = new KVPair<>(2, "B");
-// KVPair<Integer, String> leftPair = new KVPair<>(1, "A");
-// KVPair<Integer, String> rightPair = new KVPair<>(3, "C");
-//
-// bst.root = bst.new TreeNode(rootPair);
-// bst.root.left = bst.new TreeNode(leftPair);
-//
-// // Mutate by inserting a pair that should go to the left (<= root)
-// KVPair<Integer, String> mutantPair = new KVPair<>(0, "X");
-// bst.inserthelp(bst.root, mutantPair);
-// assertNotNull(bst.root.left.left); // Mutation should fail
-//
-// // Mutate by inserting a pair that should go to the right (> root)
-// mutantPair = new KVPair<>(4, "D");
-// bst.inserthelp(bst.root, mutantPair);
-// assertNotNull(bst.root.right.right); // Mutation should fail
-// }
-
 
     /**
-     * Tests the find operation in a binary search tree (BST). Verifies that
-     * find method returns null when searching for key that is not present in
-     * the BST and returns a non-null result when searching for a key that has
-     * been
-     * inserted into the BST.
+     * Tests the find operation in a LongBST. Verifies that find returns null
+     * when searching for a key that is not present and returns the value of
+     * the handle when searching for a key that has been inserted.
      */
     public void testFind() {
-        BST<Integer, String> bst = new BST<>();
-        KVPair<Integer, String> pair = new KVPair<>(1, "A");
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
-        assertNull(bst.find(pair));
+        assertNull(bst.find(1));
 
-        bst.insert(pair);
-        assertNotNull(bst.find(pair));
+        bst.insert(1, 0);
+        assertEquals("V0", bst.find(1));
     }
 
 
@@ -394,16 +288,15 @@ public class BSTTest extends TestCase {
 
 
     /**
-     * Test the 'containsKey' method of a binary search tree (BST).
-     * Inserts key-value pairs into the BST and checks if method correctly
-     * identifies
+     * Test the 'containsKey' method of a LongBST.
+     * Inserts keys into the tree and checks if method correctly identifies
      * whether specific keys are present or not.
      */
     public void testContainsKey() {
-        BST<Integer, String> bst = new BST<Integer, String>();
-        bst.insert(new KVPair<Integer, String>(1, "One"));
-        bst.insert(new KVPair<Integer, String>(2, "Two"));
-        bst.insert(new KVPair<Integer, String>(3, "Three"));
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
+        bst.insert(1, 0);
+        bst.insert(2, 1);
+        bst.insert(3, 2);
         assertTrue(bst.containsKey(1));
         assertTrue(bst.containsKey(2));
         assertTrue(bst.containsKey(3));
@@ -415,16 +308,12 @@ public class BSTTest extends TestCase {
 
 
     /**
-     * Tests the 'removeSeminar' method of the BST class.
-     * Verifies that the method correctly removes a node with the specified key
-     * and value
-     * from the BST and decrements the node count.
+     * Tests the 'removeSeminar' method of the IdBST class.
+     * Verifies that the method removes the node of the given ID and
+     * decrements the record count only when such a node is in the tree.
      */
     public void testRemoveSeminar() {
-        // Create a BST of seminars
-        BST<Integer, Seminar> bst = new BST<>(); // Assuming the key type is
-                                                 // Integer and value type is
-                                                 // Seminar
+        IdBST bst = new IdBST();
 
         // Insert some seminars
         Seminar seminar1 = new Seminar(1, "Title1", "Date1", 50, (short)0,
@@ -434,80 +323,63 @@ public class BSTTest extends TestCase {
         Seminar seminar3 = new Seminar(3, "Title3", "Date3", 70, (short)0,
             (short)0, 70, new String[] { "Keyword3" }, "Description3");
 
-        bst.insert(new KVPair<>(seminar1.id(), seminar1));
-        bst.insert(new KVPair<>(seminar2.id(), seminar2));
-        bst.insert(new KVPair<>(seminar3.id(), seminar3));
+        bst.insertSeminar(seminar1.id(), seminar1);
+        bst.insertSeminar(seminar2.id(), seminar2);
+        bst.insertSeminar(seminar3.id(), seminar3);
 
         // Verify that the BST contains the seminars
-        assertEquals(3, bst.getSize());
+        assertEquals(3, bst.getRecordNumber());
 
         // Remove seminar2 from the BST
-        bst.removeSeminar(new KVPair<>(seminar2.id(), seminar2));
+        bst.removeSeminar(seminar2.id());
 
         // Verify that seminar2 has been removed
-        assertEquals(2, bst.getSize());
+        assertEquals(2, bst.getRecordNumber());
+        assertNull(bst.searchID(2));
 
         // Attempt to remove seminar2 again (it should not affect the size)
-        bst.removeSeminar(new KVPair<>(seminar2.id(), seminar2));
-        assertEquals(1, bst.getSize());
+        bst.removeSeminar(seminar2.id());
+        assertEquals(2, bst.getRecordNumber());
 
         // Attempt to remove a seminar that doesn't exist (it should not affect
         // the size)
-        Seminar seminar4 = new Seminar(4, "Title4", "Date4", 80, (short)0,
-            (short)0, 80, new String[] { "Keyword4" }, "Description4");
-        bst.removeSeminar(new KVPair<>(seminar4.id(), seminar4));
-        assertEquals(0, bst.getSize());
+        bst.removeSeminar(4);
+        assertEquals(2, bst.getRecordNumber());
     }
 
 
     /**
-     * Test case for the removehelp method.
-     * This test case covers different scenarios of removing nodes from a Binary
-     * Search Tree (BST).
+     * Test case for the remove method.
+     * This test case covers different scenarios of removing nodes from a
+     * LongBST by key and handle.
      */
     public void testRemovehelp() {
-        BST<Integer, String> bst = new BST<>();
-
-        // Create nodes with specific key-value pairs
-        KVPair<Integer, String> node1 = new KVPair<>(3, "A");
-        KVPair<Integer, String> node2 = new KVPair<>(2, "B");
-        KVPair<Integer, String> node3 = new KVPair<>(1, "C");
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
-        // Insert the nodes into the BST
-        bst.insert(node1);
-        bst.insert(node2);
-        bst.insert(node3);
+        // Insert the keys 3, 2 and 1 with the handles 0, 1 and 2
+        bst.insert(3, 0);
+        bst.insert(2, 1);
+        bst.insert(1, 2);
 
         // Verify that the nodes were inserted correctly
         assertEquals(3, bst.getSize());
 
-        // Now, remove a node with a key greater than the current node's key
-        KVPair<Integer, String> dataToRemove1 = new KVPair<>(2, "B");
-        bst.removeSeminar(dataToRemove1);
+        // Now, remove the node with key 2
+        assertTrue(bst.remove(2, 1));
 
         // After removing the node with key 2, the tree should still contain
         // nodes 1 and 3
         assertEquals(2, bst.getSize());
-
-        // Verify that the tree structure is correct by checking the remaining
-        // keys
         assertTrue(bst.containsKey(1));
         assertTrue(bst.containsKey(3));
 
-        // Now, remove a node where key matches but values are equal
-        KVPair<Integer, String> dataToRemove2 = new KVPair<>(3, "C");
-        bst.removeSeminar(dataToRemove2);
-
-        // After removing the node with key 3 and value "C", the tree should
-        // contain only node 1
-        assertEquals(1, bst.getSize());
+        // Now, try to remove a node where the key matches but the handle
+        // does not
+        assertFalse(bst.remove(3, 2));
 
-        // Verify that the tree structure is correct by checking the remaining
-        // key
+        // The node with key 3 must still be in the tree
+        assertEquals(2, bst.getSize());
         assertTrue(bst.containsKey(1));
-
-        // Verify that the removed node (key 3, value "C") is no longer present
-        // in the tree
         assertTrue(bst.containsKey(3));
     }
 
@@ -519,27 +391,22 @@ public class BSTTest extends TestCase {
      * attempting to remove a non-existing node.
      */
     public void testRemoveNodeWithGreaterKey() {
-        BST<Integer, String> bst = new BST<>();
-
-        // Create nodes with specific key-value pairs
-        KVPair<Integer, String> node1 = new KVPair<>(1, "A");
-        KVPair<Integer, String> node2 = new KVPair<>(2, "B");
-        KVPair<Integer, String> node3 = new KVPair<>(3, "C");
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
-        // Insert the nodes into the BST
-        bst.insert(node1);
-        bst.insert(node2);
-        bst.insert(node3);
+        // Insert the keys 1, 2 and 3 with the handles 0, 1 and 2
+        bst.insert(1, 0);
+        bst.insert(2, 1);
+        bst.insert(3, 2);
 
         // Verify that the nodes were inserted correctly
         assertEquals(3, bst.getSize());
 
-        // Attempt to remove a node with a key that is greater than the current
-        // node's key (e.g., key = 4)
-        KVPair<Integer, String> dataToRemove = new KVPair<>(4, "D");
-        bst.removeSeminar(dataToRemove);
+        // Attempt to remove a node with a key that is greater than every key
+        // in the tree (e.g., key = 4)
+        assertFalse(bst.remove(4, 3));
 
         // Verify that the tree structure is still correct
+        assertEquals(3, bst.getSize());
         assertTrue(bst.containsKey(1));
         assertTrue(bst.containsKey(2));
         assertTrue(bst.containsKey(3));
@@ -547,36 +414,330 @@ public class BSTTest extends TestCase {
 
 
     /**
-     * Test case for removing a node with its right child set to null.
+     * Test case for removing a node with its left child set to null.
      * This test case verifies that the tree structure remains correct after
-     * removing a node with a right child set to null.
+     * removing a node with a left child set to null.
      */
     public void testRemoveNodeWithRightChildAsNull() {
-        BST<Integer, String> bst = new BST<>();
-
-        // Create nodes with specific key-value pairs
-        KVPair<Integer, String> node1 = new KVPair<>(1, "A");
-        KVPair<Integer, String> node2 = new KVPair<>(2, "B");
-        KVPair<Integer, String> node3 = new KVPair<>(3, "C");
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
 
-        // Insert the nodes into the BST
-        bst.insert(node1);
-        bst.insert(node2);
-        bst.insert(node3);
+        // Insert the keys 1, 2 and 3 with the handles 0, 1 and 2
+        bst.insert(1, 0);
+        bst.insert(2, 1);
+        bst.insert(3, 2);
 
         // Verify that the nodes were inserted correctly
         assertEquals(3, bst.getSize());
 
-        // Attempt to remove a node with its right child set to null (e.g., key
-        // = 1)
-        KVPair<Integer, String> dataToRemove = new KVPair<>(1, "A");
-        bst.removeSeminar(dataToRemove);
+        // Remove the root, key 1, which only has a right child
+        assertTrue(bst.remove(1, 0));
 
         // Verify that the node with key 1 has been removed, and the tree
         // structure is correct
-        assertNull(bst.find(node1));
+        assertNull(bst.find(1));
         assertTrue(bst.containsKey(2));
         assertTrue(bst.containsKey(3));
         assertEquals(2, bst.getSize());
     }
+
+
+    /**
+     * Tests that a balanced BST stays logarithmic in height for sorted
+     * inserts, while the plain BST degenerates into a list.
+     */
+    public void testBalancedSortedInsert() {
+        LongBST<String> plain = new LongBST<>(handle -> "V" + handle);
+        LongBST<String> balanced = new LongBST<>(true, handle -> "V"
+            + handle);
+        assertFalse(plain.isBalanced());
+        assertTrue(balanced.isBalanced());
+        for (int i = 0; i < 1000; i++) {
+            plain.insert(i, i);
+            balanced.insert(i, i);
+        }
+        assertEquals(1000, plain.getHeight());
+        assertTrue(balanced.getHeight() <= 15);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(balanced.containsKey(i));
+        }
+        assertFalse(balanced.containsKey(1000));
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(balanced.remove(i, i));
+        }
+        assertEquals(500, balanced.getSize());
+        assertTrue(balanced.getHeight() <= 14);
+        assertFalse(balanced.containsKey(0));
+        assertTrue(balanced.containsKey(999));
+    }
+
+
+    /**
+     * Tests that duplicate keys in a balanced BST can all be found by range
+     * search and removed individually, even after rotations.
+     */
+    public void testBalancedDuplicates() {
+        CostBST costBST = new CostBST(true);
+        Seminar[] seminars = new Seminar[7];
+        for (int i = 0; i < seminars.length; i++) {
+            seminars[i] = new Seminar(i, "Title", "0610051600", 50, (short)0,
+                (short)0, 30, new String[] { "VT" }, "Description");
+            costBST.insertSeminar(30, seminars[i]);
+        }
+        costBST.insertSeminar(40, seminars[0]);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        costBST.searchAndPrintCostRange(0, 30);
+        System.setOut(System.out);
+        String output = outputStream.toString();
+        for (int i = 0; i < seminars.length; i++) {
+            assertTrue(output.contains("ID: " + i + ","));
+        }
+
+        for (int i = seminars.length - 1; i >= 0; i--) {
+            costBST.removeSeminar(seminars[i].id());
+            assertEquals(i + 1, costBST.getRecordNumber());
+        }
+        assertFalse(costBST.containsKey(30));
+        assertTrue(costBST.containsKey(40));
+    }
+
+
+    /**
+     * Tests keyword search in a balanced KeywordBST with many equal keys.
+     */
+    public void testBalancedKeywordSearch() {
+        KeywordBST keywordBST = new KeywordBST(true);
+        for (int i = 0; i < 10; i++) {
+            Seminar seminar = new Seminar(i, "Title", "0610051600", 50,
+                (short)0, (short)0, 30, new String[] { "VT", "HCI" },
+                "Description");
+            keywordBST.insertSeminar(seminar, seminar.keywords());
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        keywordBST.searchAndPrintByKeyword("VT");
+        System.setOut(System.out);
+        String[] lines = outputStream.toString().split("\n");
+        // One header line plus four lines per seminar
+        assertEquals(41, lines.length);
+        assertTrue(keywordBST.getHeight() <= 6);
+    }
+
+
+    /**
+     * Tests that a degenerate (sorted) plain BST deeper than the default
+     * thread stack can handle can still be built, searched and emptied.
+     */
+    public void testDeepTreeIterative() {
+        LongBST<String> bst = new LongBST<>(handle -> "V" + handle);
+        int records = 25000;
+        for (int i = 0; i < records; i++) {
+            bst.insert(i, i);
+        }
+        assertTrue(bst.containsKey(records - 1));
+        assertEquals("V0", bst.find(0));
+        assertEquals(records, bst.getHeight());
+
+        for (int i = 0; i < records; i++) {
+            assertTrue(bst.remove(i, i));
+        }
+        assertEquals(0, bst.getSize());
+        assertEquals(0, bst.getHeight());
+    }
+
+
+    /**
+     * Tests that every record of a balanced BST with many duplicate keys can
+     * be removed again in random order.
+     */
+    public void testBalancedRandomRemoval() {
+        LongBST<String> bst = new LongBST<>(true, handle -> "V" + handle);
+        Random random = new Random(7);
+        int records = 2000;
+        int[] keys = new int[records];
+        List<Integer> handles = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            keys[i] = random.nextInt(50);
+            handles.add(i);
+            bst.insert(keys[i], i);
+        }
+        assertTrue(bst.getHeight() <= 16);
+
+        Collections.shuffle(handles, random);
+        for (int handle : handles) {
+            assertTrue(bst.remove(keys[handle], handle));
+        }
+        assertEquals(0, bst.getSize());
+        assertEquals(0, bst.getHeight());
+    }
+
+
+    /**
+     * Tests counting and collecting a key range, with and without
+     * rebalancing, including windows given by an offset and a limit.
+     */
+    public void testRangeCountAndCollect() {
+        for (boolean balanced : new boolean[] { false, true }) {
+            CostBST costBST = new CostBST(balanced);
+            Random random = new Random(5);
+            int expected = 0;
+            for (int i = 0; i < 300; i++) {
+                int cost = random.nextInt(50);
+                Seminar seminar = new Seminar(i, "Title", "0610051600", 50,
+                    (short)0, (short)0, cost, new String[] { "VT" },
+                    "Description");
+                costBST.insertSeminar(cost, seminar);
+                if (cost >= 10 && cost <= 20) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, costBST.countRange(10, 20));
+            assertEquals(0, costBST.countRange(20, 10));
+            assertEquals(300, costBST.countRange(-5, 100));
+            assertEquals(0, costBST.countRange(60, 100));
+
+            List<Seminar> values = new ArrayList<>();
+            assertEquals(expected, costBST.collectRange(10, 20, values));
+            assertEquals(expected, values.size());
+            for (int i = 1; i < values.size(); i++) {
+                assertTrue(values.get(i - 1).cost() <= values.get(i).cost());
+            }
+
+            for (int offset = 0; offset <= expected + 1; offset += 7) {
+                List<Seminar> window = new ArrayList<>();
+                int added = costBST.collectRange(10, 20, offset, 5, window);
+                assertEquals(Math.max(0, Math.min(5, expected - offset)),
+                    added);
+                for (int i = 0; i < added; i++) {
+                    assertSame(values.get(offset + i), window.get(i));
+                }
+            }
+            assertEquals(0, costBST.collectRange(10, 20, Integer.MAX_VALUE,
+                5, values));
+
+            // Subtree sizes must follow removals, including two-child ones
+            List<Seminar> everything = new ArrayList<>();
+            costBST.collectRange(0, 49, everything);
+            for (int i = 0; i < everything.size(); i += 3) {
+                Seminar seminar = everything.get(i);
+                costBST.removeSeminar(seminar.id());
+                if (seminar.cost() >= 10 && seminar.cost() <= 20) {
+                    expected--;
+                }
+            }
+            assertEquals(expected, costBST.countRange(10, 20));
+            assertEquals(200, costBST.countRange(0, 49));
+        }
+    }
+
+
+    /**
+     * Tests the printed count and limit/offset forms of the cost and date
+     * range searches.
+     */
+    public void testRangeCountAndLimitOutput() {
+        CostBST costBST = new CostBST();
+        DateBST dateBST = new DateBST(true);
+        CollectingSink sink = new CollectingSink();
+        costBST.setOutput(sink);
+        dateBST.setOutput(sink);
+        for (int i = 0; i < 6; i++) {
+            Seminar seminar = new Seminar(i, "Title", "061005160" + i, 50,
+                (short)0, (short)0, 10 * i, new String[] { "VT" },
+                "Description");
+            costBST.insertSeminar(seminar.cost(), seminar);
+            dateBST.insertSeminar(seminar.date(), seminar);
+        }
+        costBST.printCostRangeCount(15, 45);
+        dateBST.printDateRangeCount("0610051600", "0610051601");
+        assertFuzzyEquals("3 seminars with costs in range 15 to 45\n"
+            + "2 seminars with dates in range 0610051600 to 0610051601\n",
+            sink.getText());
+
+        sink.clear();
+        costBST.searchAndPrintCostRange(15, 45, 2, 1);
+        String text = sink.getText();
+        assertTrue(text.startsWith("ID: 3,"));
+        assertTrue(text.contains("ID: 4,"));
+        assertFalse(text.contains("ID: 2,"));
+
+        sink.clear();
+        dateBST.searchAndPrintDateRange("0", "9", 1, 5);
+        assertTrue(sink.getText().startsWith("ID: 5,"));
+        sink.clear();
+        dateBST.searchAndPrintDateRange("0", "9", 3, 6);
+        assertEquals("", sink.getText());
+    }
+
+
+    /**
+     * Tests that packed dates keep the order of their strings, restore exact
+     * dates, and that DateBST searches match a comparison of the date
+     * Strings even for dates that cannot be packed exactly.
+     */
+    public void testPackedDates() {
+        String[] dates = { "", "0", "06", "0610051600", "0610051601",
+            "0610051600X", "061005160", "1", "9999999999", "Date", "Dx",
+            "0-1", "0:1", "12345678901234567", "1234567890123456",
+            "123456789012345" };
+        for (String a : dates) {
+            for (String b : dates) {
+                int strings = Integer.signum(a.compareTo(b));
+                int packed = Long.signum(Long.compare(DateBST.pack(a),
+                    DateBST.pack(b)));
+                assertTrue(a + " " + b, packed == strings || packed == 0);
+                if (DateBST.isExact(DateBST.pack(a)) && DateBST.isExact(
+                    DateBST.pack(b))) {
+                    assertEquals(strings, packed);
+                }
+            }
+        }
+        assertEquals("0610051600", DateBST.unpack(DateBST.pack(
+            "0610051600")));
+        assertEquals("", DateBST.unpack(DateBST.pack("")));
+        assertFalse(DateBST.isExact(DateBST.pack("Date")));
+
+        DateBST packed = new DateBST();
+        List<Seminar> seminars = new ArrayList<>();
+        CollectingSink sink = new CollectingSink();
+        packed.setOutput(sink);
+        for (int i = 0; i < dates.length; i++) {
+            Seminar seminar = new Seminar(i, "Title", dates[i], 50, (short)0,
+                (short)0, 30, new String[] { "VT" }, "Description");
+            packed.insertSeminar(dates[i], seminar);
+            seminars.add(seminar);
+        }
+        String[][] ranges = { { "0", "1" }, { "Da", "Dz" }, { "0610051600",
+            "0610051600X" }, { "", "z" }, { "9", "0" } };
+        for (String[] range : ranges) {
+            List<Seminar> expected = new ArrayList<>();
+            List<Seminar> actual = new ArrayList<>();
+            for (Seminar seminar : seminars) {
+                if (seminar.date().compareTo(range[0]) >= 0 && seminar.date()
+                    .compareTo(range[1]) <= 0) {
+                    expected.add(seminar);
+                }
+            }
+            packed.collectRange(range[0], range[1], actual);
+            assertEquals(expected.size(), packed.countRange(range[0],
+                range[1]));
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+
+            sink.clear();
+            packed.searchAndPrintDateRange(range[0], range[1]);
+            for (Seminar seminar : expected) {
+                assertTrue(sink.getText().contains(seminar.toString()));
+            }
+            assertEquals(expected.size(), sink.getText().split("ID: ",
+                -1).length - 1);
+        }
+
+        sink.clear();
+        packed.printDateTree();
+        assertTrue(sink.getText().contains("0610051600"));
+        assertTrue(sink.getText().contains("Date"));
+    }
 }
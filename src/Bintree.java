@@ -1,3 +1,9 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
 /**
  * A class to manage the Bintree implementation and its various operations.
  * An interface representing a node in a binary tree.
@@ -168,8 +174,9 @@ class InternalNode implements BintreeNode {
 /**
  * An implementation of the BintreeNode interface representing a leaf node.
  * 
- * This class represents leaf node containing seminar data. It always returns
- * true for the isLeaf() method, indicating that it's a leaf node.
+ * This class represents leaf node containing a bucket of seminars. The
+ * seminars are kept in ascending order of their IDs. It always returns true
+ * for the isLeaf() method, indicating that it's a leaf node.
  * 
  * @author {Lavisha Goyal}
  * @author {Shubham Laxmikant Deshmukh}
@@ -177,7 +184,9 @@ class InternalNode implements BintreeNode {
  */
 
 class LeafNode implements BintreeNode {
-    private Seminar data;
+    private static final int INITIAL_CAPACITY = 4; // Initial bucket length
+    private Seminar[] seminars; // Bucket of seminars sorted by ID
+    private int count; // Number of seminars in the bucket
 
     /**
      * Constructs a leaf node with the provided seminar data.
@@ -186,7 +195,9 @@ class LeafNode implements BintreeNode {
      *            The seminar data to be stored in the leaf node.
      */
     public LeafNode(Seminar data) {
-        this.data = data;
+        seminars = new Seminar[INITIAL_CAPACITY];
+        seminars[0] = data;
+        count = 1;
     }
 
 
@@ -211,12 +222,120 @@ class LeafNode implements BintreeNode {
 
 
     /**
-     * Gets the seminar data stored in the leaf node.
+     * Gets the seminar with the smallest ID stored in the leaf node.
      *
-     * @return The seminar data stored in the leaf node.
+     * @return The first seminar stored in the leaf node.
      */
     public Seminar getData() {
-        return data;
+        return seminars[0];
+    }
+
+
+    /**
+     * Gets the number of seminars stored in the leaf node.
+     *
+     * @return The number of seminars in the bucket.
+     */
+    public int getCount() {
+        return count;
+    }
+
+
+    /**
+     * Gets the seminar at the given position of the bucket.
+     *
+     * @param index
+     *            The position (0 to getCount() - 1) in ascending ID order.
+     * @return The seminar at that position.
+     */
+    public Seminar getSeminar(int index) {
+        return seminars[index];
+    }
+
+
+    /**
+     * Adds a seminar to the bucket, keeping the bucket sorted by ID.
+     *
+     * @param data
+     *            The seminar to add.
+     */
+    public void addSeminar(Seminar data) {
+        if (count == seminars.length) {
+            Seminar[] larger = new Seminar[seminars.length * 2];
+            System.arraycopy(seminars, 0, larger, 0, count);
+            seminars = larger;
+        }
+        int i = count;
+        while (i > 0 && seminars[i - 1].id() > data.id()) {
+            seminars[i] = seminars[i - 1];
+            i--;
+        }
+        seminars[i] = data;
+        count++;
+    }
+
+
+    /**
+     * Removes the seminar with the same ID as the given one from the bucket.
+     *
+     * @param data
+     *            The seminar to remove.
+     * @return True if a seminar was removed, false otherwise.
+     */
+    public boolean removeSeminar(Seminar data) {
+        for (int i = 0; i < count; i++) {
+            if (seminars[i].id() == data.id()) {
+                System.arraycopy(seminars, i + 1, seminars, i, count - i - 1);
+                count--;
+                seminars[count] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Removes every seminar located at the given coordinates.
+     *
+     * @param x
+     *            The x-coordinate of the seminars to remove.
+     * @param y
+     *            The y-coordinate of the seminars to remove.
+     * @return True if at least one seminar was removed, false otherwise.
+     */
+    public boolean removeAt(int x, int y) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (seminars[i].x() != x || seminars[i].y() != y) {
+                seminars[kept++] = seminars[i];
+            }
+        }
+        boolean removed = kept < count;
+        for (int i = kept; i < count; i++) {
+            seminars[i] = null;
+        }
+        count = kept;
+        return removed;
+    }
+
+
+    /**
+     * Checks whether every seminar in the bucket is located at (x, y).
+     *
+     * @param x
+     *            The x-coordinate to compare against.
+     * @param y
+     *            The y-coordinate to compare against.
+     * @return True if all seminars share the given coordinates.
+     */
+    public boolean allAt(int x, int y) {
+        for (int i = 0; i < count; i++) {
+            if (seminars[i].x() != x || seminars[i].y() != y) {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
@@ -238,17 +357,64 @@ class LeafNode implements BintreeNode {
  * @version {1.0}
  */
 public class Bintree {
+    /**
+     * The number of seminars a leaf holds before it splits, unless all of
+     * them share the same coordinates.
+     */
+    public static final int DEFAULT_LEAF_CAPACITY = 3;
+
+    private static final int INITIAL_STACK = 32; // Traversal stack length
     private BintreeNode root;
+    private int leafCapacity; // Split threshold for leaf buckets
+    private OutputSink output; // Sink all output of this tree is written to
 
     /**
      * Constructs a new Bintree with an empty root node.
      */
     public Bintree() {
+        this(DEFAULT_LEAF_CAPACITY);
+    }
+
 
+    /**
+     * Constructs a new Bintree with an empty root node whose leaves split
+     * once they hold more than the given number of seminars.
+     *
+     * @param leafCapacity
+     *            The split threshold for leaf buckets (at least 1).
+     */
+    public Bintree(int leafCapacity) {
+        if (leafCapacity < 1) {
+            throw new IllegalArgumentException(
+                "Leaf capacity must be at least 1");
+        }
+        this.leafCapacity = leafCapacity;
+        output = ConsoleSink.getInstance();
         setRoot(EmptyNode.getInstance());
     }
 
 
+    /**
+     * Sets the sink all output of this tree is written to.
+     *
+     * @param output
+     *            The output sink.
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+
+    /**
+     * Gets the split threshold for leaf buckets.
+     *
+     * @return The number of seminars a leaf may hold before it splits.
+     */
+    public int getLeafCapacity() {
+        return leafCapacity;
+    }
+
+
     /**
      * Checks whether the binary tree is empty.
      *
@@ -269,116 +435,195 @@ public class Bintree {
      *            The size of the world (bounding area).
      */
     public void insert(Seminar data, int worldSize) {
-        setRoot(insert(getRoot(), data, (short)0, (short)0, worldSize, 0));
+        setRoot(insert(getRoot(), data, 0, 0, worldSize, worldSize, 0));
     }
 
 
+    // Walks down iteratively and returns the (possibly new) subtree root
     private BintreeNode insert(
         BintreeNode node,
         Seminar data,
-        short x0,
-        short y0,
-        int size,
+        int x0,
+        int y0,
+        int width,
+        int height,
         int level) {
-        if (node.isEmpty()) {
-            return createLeafNode(data);
-        }
-        else if (node.isLeaf()) {
-            return insertLeafNode((LeafNode)node, data, x0, y0, size, level);
-        }
-        else if (node instanceof InternalNode) {
-            return insertInternalNode((InternalNode)node, data, x0, y0, size,
-                level);
+        BintreeNode subtreeRoot = node;
+        InternalNode parent = null;
+        int parentQuadrant = 0;
+        while (node != null && !node.isEmpty()) {
+            if (node.isLeaf()) {
+                LeafNode leafNode = (LeafNode)node;
+                // Co-located seminars can never be separated, so they stay
+                // together
+                if (leafNode.getCount() < leafCapacity || leafNode.allAt(data
+                    .x(), data.y())) {
+                    leafNode.addSeminar(data);
+                    return subtreeRoot;
+                }
+                node = splitLeafNode(leafNode, x0, y0, width, height, level);
+                if (parent == null) {
+                    subtreeRoot = node;
+                }
+                else {
+                    parent.setChild(parentQuadrant, node);
+                }
+            }
+            else if (node instanceof InternalNode) {
+                InternalNode internalNode = (InternalNode)node;
+                int quadrant = getQuadrant(data.x(), data.y(), x0, y0, width,
+                    height, level);
+                x0 = childX0(quadrant, x0, width);
+                y0 = childY0(quadrant, y0, height);
+                width = childWidth(level, width);
+                height = childHeight(level, height);
+                level++;
+                parent = internalNode;
+                parentQuadrant = quadrant;
+                node = internalNode.getChild(quadrant);
+            }
+            else {
+                throw new IllegalStateException(
+                    "Unexpected node type encountered");
+            }
         }
-        else {
-            throw new IllegalStateException("Unexpected node type encountered");
+
+        LeafNode leafNode = createLeafNode(data);
+        if (parent == null) {
+            return leafNode;
         }
+        parent.setChild(parentQuadrant, leafNode);
+        return subtreeRoot;
     }
 
 
-    private LeafNode createLeafNode(Seminar data) {
-        return new LeafNode(data);
+    /**
+     * Replaces the contents of the tree with the given seminars, building
+     * the tree top-down instead of inserting one seminar at a time. The
+     * seminars are sorted by ID once and then split region by region with
+     * a stable partition, so the result is exactly the tree the same
+     * inserts would have built.
+     *
+     * @param seminars
+     *            The seminars to load.
+     * @param worldSize
+     *            The size of the world (bounding area).
+     */
+    public void bulkLoad(List<Seminar> seminars, int worldSize) {
+        Seminar[] sorted = seminars.toArray(new Seminar[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Seminar::id));
+        BintreeNode built = build(sorted, new Seminar[sorted.length], 0,
+            sorted.length, 0, 0, worldSize, worldSize, 0);
+        setRoot((built == null) ? EmptyNode.getInstance() : built);
     }
 
 
-    private BintreeNode insertLeafNode(
-        LeafNode leafNode,
-        Seminar data,
-        short x0,
-        short y0,
-        int size,
+    // Builds the subtree for seminars[low, high), which all lie in the given
+    // region. The range becomes a leaf when it fits or cannot be separated,
+    // and is otherwise split between the two children of this level.
+    private BintreeNode build(
+        Seminar[] seminars,
+        Seminar[] buffer,
+        int low,
+        int high,
+        int x0,
+        int y0,
+        int width,
+        int height,
         int level) {
-        if (leafNode.getData().x() == data.x() && leafNode.getData().y() == data
-            .y()) {
-            return convertToInternalNode(leafNode, data, x0, y0, size, level);
+        if (low == high) {
+            return null;
         }
-        else {
-            return createInternalNodeWithExistingAndNewData(leafNode, data, x0,
-                y0, size, level);
+        if (high - low <= leafCapacity || allAt(seminars, low, high)) {
+            LeafNode leafNode = createLeafNode(seminars[low]);
+            for (int i = low + 1; i < high; i++) {
+                leafNode.addSeminar(seminars[i]);
+            }
+            return leafNode;
+        }
+        int first = (level % 2 == 0) ? 0 : 2;
+        int split = low;
+        int moved = 0;
+        for (int i = low; i < high; i++) {
+            Seminar seminar = seminars[i];
+            if (getQuadrant(seminar.x(), seminar.y(), x0, y0, width, height,
+                level) == first) {
+                seminars[split++] = seminar;
+            }
+            else {
+                buffer[moved++] = seminar;
+            }
         }
+        System.arraycopy(buffer, 0, seminars, split, moved);
+        int second = first + 1;
+        int childWidth = childWidth(level, width);
+        int childHeight = childHeight(level, height);
+        InternalNode internalNode = new InternalNode();
+        internalNode.setChild(first, build(seminars, buffer, low, split,
+            x0, y0, childWidth, childHeight, level + 1));
+        internalNode.setChild(second, build(seminars, buffer, split, high,
+            childX0(second, x0, width), childY0(second, y0, height),
+            childWidth, childHeight, level + 1));
+        return internalNode;
     }
 
 
-    private BintreeNode insertInternalNode(
-        InternalNode internalNode,
-        Seminar data,
-        short x0,
-        short y0,
-        int size,
-        int level) {
-        int quadrant = getQuadrant(data.x(), data.y(), x0, y0, size, level);
-        int newSize = size / 2;
-        short newX0 = (short)(x0 + newSize * (quadrant % 2));
-        short newY0 = (short)(y0 + newSize * (quadrant / 2));
-        internalNode.setChild(quadrant, insert(internalNode.getChild(quadrant),
-            data, newX0, newY0, newSize, level + 1));
-        return internalNode;
+    // Checks whether seminars[low, high) all share the same coordinates
+    private static boolean allAt(Seminar[] seminars, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            if (seminars[i].x() != seminars[low].x() || seminars[i]
+                .y() != seminars[low].y()) {
+                return false;
+            }
+        }
+        return true;
     }
 
 
-    private InternalNode convertToInternalNode(
-        LeafNode leafNode,
-        Seminar data,
-        short x0,
-        short y0,
-        int size,
-        int level) {
-        InternalNode internalNode = new InternalNode();
-        internalNode.setChild(getQuadrant(leafNode.getData().x(), leafNode
-            .getData().y(), x0, y0, size, level), leafNode);
-        internalNode.setChild(getQuadrant(data.x(), data.y(), x0, y0, size,
-            level), new LeafNode(data));
-        return internalNode;
+    private LeafNode createLeafNode(Seminar data) {
+        return new LeafNode(data);
     }
 
 
-    private InternalNode createInternalNodeWithExistingAndNewData(
+    // Replaces a full leaf with an internal node holding its seminars. A leaf
+    // never holds more than leafCapacity seminars unless they are all
+    // co-located, so no child of the new node can overflow here.
+    private InternalNode splitLeafNode(
         LeafNode leafNode,
-        Seminar data,
-        short x0,
-        short y0,
-        int size,
+        int x0,
+        int y0,
+        int width,
+        int height,
         int level) {
         InternalNode internalNode = new InternalNode();
-        internalNode.setChild(getQuadrant(leafNode.getData().x(), leafNode
-            .getData().y(), x0, y0, size, level), leafNode);
-        internalNode.setChild(getQuadrant(data.x(), data.y(), x0, y0, size,
-            level), new LeafNode(data));
+        for (int i = 0; i < leafNode.getCount(); i++) {
+            Seminar seminar = leafNode.getSeminar(i);
+            int quadrant = getQuadrant(seminar.x(), seminar.y(), x0, y0, width,
+                height, level);
+            BintreeNode child = internalNode.getChild(quadrant);
+            if (child == null || child.isEmpty()) {
+                internalNode.setChild(quadrant, createLeafNode(seminar));
+            }
+            else {
+                ((LeafNode)child).addSeminar(seminar);
+            }
+        }
         return internalNode;
     }
 
 
-    private int getQuadrant(
+    static int getQuadrant(
         int dataX,
         int dataY,
-        short x0,
-        short y0,
-        int size,
+        int x0,
+        int y0,
+        int width,
+        int height,
         int level) {
         int k = 2; // Number of dimensions
 
         int discriminator = (level % k == 0) ? dataX : dataY;
-        int midpoint = (level % k == 0) ? x0 + size / 2 : y0 + size / 2;
+        int midpoint = (level % k == 0) ? x0 + width / 2 : y0 + height / 2;
 
         if (discriminator < midpoint) {
             if (level % k == 0) {
@@ -399,15 +644,403 @@ public class Bintree {
     }
 
 
+    // Even levels split the x axis and odd levels split the y axis, so a
+    // child only shifts its origin along the axis its parent split
+    static int childX0(int quadrant, int x0, int width) {
+        return (quadrant == 1) ? x0 + width / 2 : x0;
+    }
+
+
+    static int childY0(int quadrant, int y0, int height) {
+        return (quadrant == 3) ? y0 + height / 2 : y0;
+    }
+
+
+    static int childWidth(int level, int width) {
+        return (level % 2 == 0) ? width / 2 : width;
+    }
+
+
+    static int childHeight(int level, int height) {
+        return (level % 2 == 0) ? height : height / 2;
+    }
+
+
+    /**
+     * Searches for and prints all seminars that lie within the given radius
+     * (inclusive) of the point (x, y), followed by the number of nodes
+     * visited.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param radius
+     *            The search radius.
+     * @param worldSize
+     *            The worldsize.
+     * @return The number of nodes visited in the search.
+     */
+    public int search(int x, int y, int radius, int worldSize) {
+        List<Seminar> matches = new ArrayList<>();
+        int nodesVisited = search(x, y, radius, worldSize, matches);
+        printMatches(output, matches, nodesVisited);
+        return nodesVisited;
+    }
+
+
+    /**
+     * Collects all seminars that lie within the given radius (inclusive) of
+     * the point (x, y). Subtrees whose region cannot intersect the search
+     * circle are never visited.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param radius
+     *            The search radius.
+     * @param worldSize
+     *            The worldsize.
+     * @param matches
+     *            The list the matching seminars are appended to, in preorder.
+     * @return The number of nodes visited in the search.
+     */
+    public int search(
+        int x,
+        int y,
+        int radius,
+        int worldSize,
+        List<Seminar> matches) {
+        if (radius < 0) {
+            return 0;
+        }
+        return search(getRoot(), x, y, (long)radius * radius, 0, 0, worldSize,
+            worldSize, 0, matches);
+    }
+
+
+    private int search(
+        BintreeNode node,
+        int x,
+        int y,
+        long radiusSquared,
+        int x0,
+        int y0,
+        int width,
+        int height,
+        int level,
+        List<Seminar> matches) {
+        int count = 1;
+
+        if (node == null || node.isEmpty()) {
+            return count;
+        }
+        if (node.isLeaf()) {
+            LeafNode leafNode = (LeafNode)node;
+            for (int i = 0; i < leafNode.getCount(); i++) {
+                Seminar seminar = leafNode.getSeminar(i);
+                if (distanceSquared(x, y, seminar.x(), seminar
+                    .y()) <= radiusSquared) {
+                    matches.add(seminar);
+                }
+            }
+            return count;
+        }
+
+        InternalNode internalNode = (InternalNode)node;
+        int first = (level % 2 == 0) ? 0 : 2;
+        int newWidth = childWidth(level, width);
+        int newHeight = childHeight(level, height);
+        for (int quadrant = first; quadrant < first + 2; quadrant++) {
+            int newX0 = childX0(quadrant, x0, width);
+            int newY0 = childY0(quadrant, y0, height);
+            if (boxDistanceSquared(x, y, newX0, newY0, newWidth,
+                newHeight) <= radiusSquared) {
+                count += search(internalNode.getChild(quadrant), x, y,
+                    radiusSquared, newX0, newY0, newWidth, newHeight, level
+                        + 1, matches);
+            }
+        }
+        return count;
+    }
+
+
+    static long distanceSquared(int x1, int y1, int x2, int y2) {
+        long dx = (long)x1 - x2;
+        long dy = (long)y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+
+    // Squared distance from (x, y) to the closest point of the box
+    // [x0, x0 + width) x [y0, y0 + height); zero when the point is inside
+    static long boxDistanceSquared(
+        int x,
+        int y,
+        int x0,
+        int y0,
+        int width,
+        int height) {
+        int nearestX = Math.max(x0, Math.min(x, x0 + width - 1));
+        int nearestY = Math.max(y0, Math.min(y, y0 + height - 1));
+        return distanceSquared(x, y, nearestX, nearestY);
+    }
+
+
+    /**
+     * Searches for and prints all seminars inside the axis-aligned box with
+     * corners (x1, y1) and (x2, y2), bounds inclusive, followed by the
+     * number of nodes visited.
+     *
+     * @param x1
+     *            The x-coordinate of one corner of the box.
+     * @param y1
+     *            The y-coordinate of one corner of the box.
+     * @param x2
+     *            The x-coordinate of the opposite corner.
+     * @param y2
+     *            The y-coordinate of the opposite corner.
+     * @param worldSize
+     *            The worldsize.
+     * @return The number of nodes visited in the search.
+     */
+    public int box(int x1, int y1, int x2, int y2, int worldSize) {
+        List<Seminar> matches = new ArrayList<>();
+        int nodesVisited = box(x1, y1, x2, y2, worldSize, matches);
+        printMatches(output, matches, nodesVisited);
+        return nodesVisited;
+    }
+
+
+    /**
+     * Collects all seminars inside the axis-aligned box with corners
+     * (x1, y1) and (x2, y2), bounds inclusive. Subtrees whose region misses
+     * the box are never visited, and subtrees whose region lies entirely
+     * inside it are collected without checking any coordinates.
+     *
+     * @param x1
+     *            The x-coordinate of one corner of the box.
+     * @param y1
+     *            The y-coordinate of one corner of the box.
+     * @param x2
+     *            The x-coordinate of the opposite corner.
+     * @param y2
+     *            The y-coordinate of the opposite corner.
+     * @param worldSize
+     *            The worldsize.
+     * @param matches
+     *            The list the matching seminars are appended to, in preorder.
+     * @return The number of nodes visited in the search.
+     */
+    public int box(
+        int x1,
+        int y1,
+        int x2,
+        int y2,
+        int worldSize,
+        List<Seminar> matches) {
+        return box(getRoot(), Math.min(x1, x2), Math.min(y1, y2), Math.max(x1,
+            x2), Math.max(y1, y2), 0, 0, worldSize, worldSize, 0, matches);
+    }
+
+
+    private int box(
+        BintreeNode node,
+        int minX,
+        int minY,
+        int maxX,
+        int maxY,
+        int x0,
+        int y0,
+        int width,
+        int height,
+        int level,
+        List<Seminar> matches) {
+        if (x0 >= minX && x0 + width - 1 <= maxX && y0 >= minY && y0 + height
+            - 1 <= maxY) {
+            return collect(node, level, matches);
+        }
+        int count = 1;
+
+        if (node == null || node.isEmpty()) {
+            return count;
+        }
+        if (node.isLeaf()) {
+            LeafNode leafNode = (LeafNode)node;
+            for (int i = 0; i < leafNode.getCount(); i++) {
+                Seminar seminar = leafNode.getSeminar(i);
+                if (seminar.x() >= minX && seminar.x() <= maxX && seminar
+                    .y() >= minY && seminar.y() <= maxY) {
+                    matches.add(seminar);
+                }
+            }
+            return count;
+        }
+
+        InternalNode internalNode = (InternalNode)node;
+        int first = (level % 2 == 0) ? 0 : 2;
+        int newWidth = childWidth(level, width);
+        int newHeight = childHeight(level, height);
+        for (int quadrant = first; quadrant < first + 2; quadrant++) {
+            int newX0 = childX0(quadrant, x0, width);
+            int newY0 = childY0(quadrant, y0, height);
+            if (newX0 <= maxX && newX0 + newWidth - 1 >= minX
+                && newY0 <= maxY && newY0 + newHeight - 1 >= minY) {
+                count += box(internalNode.getChild(quadrant), minX, minY,
+                    maxX, maxY, newX0, newY0, newWidth, newHeight, level + 1,
+                    matches);
+            }
+        }
+        return count;
+    }
+
+
+    // Appends every seminar of a subtree in preorder and returns the number
+    // of nodes visited, counting unset and empty children like a search does
+    private int collect(BintreeNode node, int level, List<Seminar> matches) {
+        int count = 1;
+        if (node == null || node.isEmpty()) {
+            return count;
+        }
+        if (node.isLeaf()) {
+            LeafNode leafNode = (LeafNode)node;
+            for (int i = 0; i < leafNode.getCount(); i++) {
+                matches.add(leafNode.getSeminar(i));
+            }
+            return count;
+        }
+        InternalNode internalNode = (InternalNode)node;
+        int first = (level % 2 == 0) ? 0 : 2;
+        for (int quadrant = first; quadrant < first + 2; quadrant++) {
+            count += collect(internalNode.getChild(quadrant), level + 1,
+                matches);
+        }
+        return count;
+    }
+
+
+    /**
+     * Searches for and prints the k seminars closest to the point (x, y),
+     * nearest first, followed by the number of nodes visited.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param k
+     *            The number of seminars to find.
+     * @param worldSize
+     *            The worldsize.
+     * @return The number of nodes visited in the search.
+     */
+    public int nearest(int x, int y, int k, int worldSize) {
+        List<Seminar> matches = new ArrayList<>();
+        int nodesVisited = nearest(x, y, k, worldSize, matches);
+        printMatches(output, matches, nodesVisited);
+        return nodesVisited;
+    }
+
+
+    // Prints each matching seminar and the number of nodes a search
+    // visited. Shared with ArrayBintree, which reports searches the same way
+    static void printMatches(
+        OutputSink output,
+        List<Seminar> matches,
+        int nodesVisited) {
+        for (Seminar seminar : matches) {
+            output.println("Found a record with key value " + seminar.id()
+                + " at " + seminar.x() + ", " + seminar.y());
+        }
+        output.println(nodesVisited + " nodes visited in this search");
+    }
+
+
+    /**
+     * Collects the k seminars closest to the point (x, y) with a best-first
+     * search. Nodes and seminars wait in one priority queue ordered by their
+     * minimum distance to the point, so a node is only visited once nothing
+     * still queued can be closer than its region. Seminars at equal distance
+     * are returned in ascending ID order.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param k
+     *            The number of seminars to find.
+     * @param worldSize
+     *            The worldsize.
+     * @param matches
+     *            The list the seminars are appended to, nearest first.
+     * @return The number of nodes visited in the search.
+     */
+    public int nearest(
+        int x,
+        int y,
+        int k,
+        int worldSize,
+        List<Seminar> matches) {
+        if (k <= 0) {
+            return 0;
+        }
+        PriorityQueue<NearestEntry> queue = new PriorityQueue<>();
+        queue.add(new NearestEntry(getRoot(), 0, 0, 0, worldSize, worldSize,
+            0));
+        int count = 0;
+        int found = 0;
+        while (found < k && !queue.isEmpty()) {
+            NearestEntry entry = queue.poll();
+            if (entry.seminar != null) {
+                matches.add(entry.seminar);
+                found++;
+                continue;
+            }
+            count++;
+            BintreeNode node = entry.node;
+            if (node == null || node.isEmpty()) {
+                continue;
+            }
+            if (node.isLeaf()) {
+                LeafNode leafNode = (LeafNode)node;
+                for (int i = 0; i < leafNode.getCount(); i++) {
+                    Seminar seminar = leafNode.getSeminar(i);
+                    queue.add(new NearestEntry(seminar, distanceSquared(x, y,
+                        seminar.x(), seminar.y())));
+                }
+                continue;
+            }
+
+            InternalNode internalNode = (InternalNode)node;
+            int level = entry.level;
+            int first = (level % 2 == 0) ? 0 : 2;
+            int newWidth = childWidth(level, entry.width);
+            int newHeight = childHeight(level, entry.height);
+            for (int quadrant = first; quadrant < first + 2; quadrant++) {
+                BintreeNode child = internalNode.getChild(quadrant);
+                if (child == null || child.isEmpty()) {
+                    continue; // Nothing to find in an empty region
+                }
+                int newX0 = childX0(quadrant, entry.x0, entry.width);
+                int newY0 = childY0(quadrant, entry.y0, entry.height);
+                queue.add(new NearestEntry(child, boxDistanceSquared(x, y,
+                    newX0, newY0, newWidth, newHeight), newX0, newY0,
+                    newWidth, newHeight, level + 1));
+            }
+        }
+        return count;
+    }
+
+
     /**
      * Performs a preorder traversal of the binary tree, starting from root
      * node.
      * Prints the tree structure and its elements.
      */
     public void preorderTraversal() {
-        System.out.println("Location Tree:");
+        output.println("Location Tree:");
         if (getRoot() == null || getRoot().isEmpty()) {
-            System.out.println("E");
+            output.println("E");
         }
         else {
             preorderTraversal(getRoot(), 0);
@@ -416,7 +1049,17 @@ public class Bintree {
 
 
     private void preorderTraversal(BintreeNode node, int depth) {
-        if (node != null) {
+        BintreeNode[] stack = new BintreeNode[INITIAL_STACK];
+        int[] depths = new int[INITIAL_STACK];
+        int top = 0;
+        stack[top] = node;
+        depths[top++] = depth;
+        while (top > 0) {
+            node = stack[--top];
+            depth = depths[top];
+            if (node == null) {
+                continue;
+            }
             StringBuilder indentation = new StringBuilder();
             for (int i = 0; i < depth; i++) {
                 indentation.append("  ");
@@ -424,29 +1067,40 @@ public class Bintree {
 
             if (node.isLeaf()) {
                 LeafNode leafNode = (LeafNode)node;
-                Seminar seminar = leafNode.getData();
-                int id = seminar.id();
-
-                System.out.println(indentation.toString()
-                    + "Leaf with 1 objects: " + id);
+                StringBuilder line = new StringBuilder(indentation);
+                line.append("Leaf with ").append(leafNode.getCount()).append(
+                    " objects:");
+                for (int i = 0; i < leafNode.getCount(); i++) {
+                    line.append(' ').append(leafNode.getSeminar(i).id());
+                }
+                output.println(line.toString());
             }
             else if (node instanceof InternalNode) {
                 InternalNode internalNode = (InternalNode)node;
-                System.out.println(indentation.toString() + "I");
-                for (BintreeNode child : internalNode.getChildren()) {
-                    preorderTraversal(child, depth + 1);
+                output.println(indentation.toString() + "I");
+                BintreeNode[] children = internalNode.getChildren();
+                if (top + children.length > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    depths = Arrays.copyOf(depths, depths.length * 2);
+                }
+                // Push in reverse so the children are printed in order
+                for (int i = children.length - 1; i >= 0; i--) {
+                    stack[top] = children[i];
+                    depths[top++] = depth + 1;
                 }
             }
             else {
-                System.out.println(indentation.toString() + "E");
+                output.println(indentation.toString() + "E");
             }
         }
     }
 
 
     /**
-     * Deletes a leaf node with the specified coordinates (x, y) from binary
-     * tree.
+     * Deletes every seminar with the specified coordinates (x, y) from binary
+     * tree. Internal nodes whose remaining seminars fit in one leaf are
+     * merged back into a leaf, so the tree does not keep growing under
+     * churn.
      * 
      * @param x
      *            The x-coordinate of the node to delete.
@@ -456,34 +1110,133 @@ public class Bintree {
      *            The worldsize.
      */
     public void delete(int x, int y, int size) {
-        setRoot(delete(getRoot(), x, y, size));
+        setRoot(delete(getRoot(), x, y, null, size));
     }
 
 
-    private BintreeNode delete(BintreeNode node, int x, int y, int worldSize) {
-        if (node == null || node.isEmpty()) {
-            // Node not found or tree is empty, nothing to delete
-            return node;
-        }
+    /**
+     * Deletes a single seminar from the binary tree, leaving any other
+     * seminars at the same coordinates in place. Sparse internal nodes are
+     * merged as in delete(int, int, int).
+     * 
+     * @param data
+     *            The seminar to delete.
+     * @param size
+     *            The worldsize.
+     */
+    public void delete(Seminar data, int size) {
+        setRoot(delete(getRoot(), data.x(), data.y(), data, size));
+    }
 
-        if (node.isLeaf()) {
-            LeafNode leafNode = (LeafNode)node;
-            if (leafNode.getData().x() == x && leafNode.getData().y() == y) {
-                // Found the node to delete, return an empty node
-                return EmptyNode.getInstance();
+
+    // Follows the region containing (x, y) down to its leaf, removes the
+    // seminar there, then merges the nodes on the way back up
+    private BintreeNode delete(
+        BintreeNode node,
+        int x,
+        int y,
+        Seminar data,
+        int worldSize) {
+        BintreeNode subtreeRoot = node;
+        InternalNode[] path = new InternalNode[INITIAL_STACK];
+        int[] quadrants = new int[INITIAL_STACK];
+        int depth = 0;
+        int x0 = 0;
+        int y0 = 0;
+        int width = worldSize;
+        int height = worldSize;
+        int level = 0;
+        while (node instanceof InternalNode) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                quadrants = Arrays.copyOf(quadrants, depth * 2);
             }
+            int quadrant = getQuadrant(x, y, x0, y0, width, height, level);
+            x0 = childX0(quadrant, x0, width);
+            y0 = childY0(quadrant, y0, height);
+            width = childWidth(level, width);
+            height = childHeight(level, height);
+            level++;
+            path[depth] = (InternalNode)node;
+            quadrants[depth++] = quadrant;
+            node = path[depth - 1].getChild(quadrant);
+        }
+        // Node not found or tree is empty once the walk reaches an empty node
+        if (node == null || !node.isLeaf()) {
+            return subtreeRoot;
+        }
+        LeafNode leafNode = (LeafNode)node;
+        boolean removed = (data == null)
+            ? leafNode.removeAt(x, y)
+            : leafNode.removeSeminar(data);
+        if (!removed) {
+            return subtreeRoot;
         }
 
-        if (node instanceof InternalNode) {
-            InternalNode internalNode = (InternalNode)node;
-            // Calculate the quadrant for the given (x, y) coordinates
-            int quadrant = getQuadrant(x, y, (short)0, (short)0, worldSize, 0);
-            // Recursively delete the node in the appropriate quadrant
-            internalNode.setChild(quadrant, delete(internalNode.getChild(
-                quadrant), x, y, worldSize));
+        // An emptied bucket becomes an empty node, and every ancestor that
+        // no longer needs splitting collapses into a leaf. Inside the tree an
+        // empty child is left null, as if nothing had been inserted there,
+        // so the printed tree does not depend on past deletes
+        BintreeNode replacement = (leafNode.getCount() == 0)
+            ? EmptyNode.getInstance()
+            : leafNode;
+        while (depth > 0) {
+            InternalNode parent = path[--depth];
+            parent.setChild(quadrants[depth], replacement.isEmpty()
+                ? null
+                : replacement);
+            replacement = merge(parent);
+            if (replacement == parent) {
+                return subtreeRoot;
+            }
         }
+        return replacement;
+    }
+
 
-        return node;
+    // Returns the node that should replace an internal node: an empty node
+    // when it holds nothing, one leaf when its seminars fit in a leaf or are
+    // all co-located, or the node itself otherwise
+    private BintreeNode merge(InternalNode internalNode) {
+        int total = 0;
+        Seminar first = null;
+        boolean colocated = true;
+        for (BintreeNode child : internalNode.getChildren()) {
+            if (child == null || child.isEmpty()) {
+                continue;
+            }
+            if (!child.isLeaf()) {
+                return internalNode;
+            }
+            LeafNode leafNode = (LeafNode)child;
+            if (first == null) {
+                first = leafNode.getData();
+            }
+            total += leafNode.getCount();
+            colocated = colocated && leafNode.allAt(first.x(), first.y());
+        }
+        if (total == 0) {
+            return EmptyNode.getInstance();
+        }
+        if (total > leafCapacity && !colocated) {
+            return internalNode;
+        }
+        LeafNode merged = null;
+        for (BintreeNode child : internalNode.getChildren()) {
+            if (child == null || child.isEmpty()) {
+                continue;
+            }
+            LeafNode leafNode = (LeafNode)child;
+            for (int i = 0; i < leafNode.getCount(); i++) {
+                if (merged == null) {
+                    merged = createLeafNode(leafNode.getSeminar(i));
+                }
+                else {
+                    merged.addSeminar(leafNode.getSeminar(i));
+                }
+            }
+        }
+        return merged;
     }
 
 
@@ -529,4 +1282,53 @@ public class Bintree {
         return (InternalNode)root;
     }
 
+
+    // A node region or a seminar waiting in the nearest neighbor queue,
+    // ordered by its minimum squared distance to the search point. At equal
+    // distances seminars come first, so nodes that cannot hold anything
+    // closer are never expanded, and seminars are ordered by ID.
+    private static class NearestEntry implements Comparable<NearestEntry> {
+        private long distance;
+        private BintreeNode node;
+        private Seminar seminar;
+        private int x0;
+        private int y0;
+        private int width;
+        private int height;
+        private int level;
+
+        NearestEntry(
+            BintreeNode node,
+            long distance,
+            int x0,
+            int y0,
+            int width,
+            int height,
+            int level) {
+            this.node = node;
+            this.distance = distance;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            this.level = level;
+        }
+
+
+        NearestEntry(Seminar seminar, long distance) {
+            this.seminar = seminar;
+            this.distance = distance;
+        }
+
+
+        public int compareTo(NearestEntry other) {
+            if (distance != other.distance) {
+                return Long.compare(distance, other.distance);
+            }
+            if (seminar == null || other.seminar == null) {
+                return Boolean.compare(seminar == null, other.seminar == null);
+            }
+            return Integer.compare(seminar.id(), other.seminar.id());
+        }
+    }
 }
@@ -0,0 +1,143 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A small benchmark comparing the object based Bintree with ArrayBintree,
+ * which keeps its nodes in flat arrays. Both are built from the same random
+ * seminars; the benchmark prints the heap each tree retains, the time to
+ * build it, and the time to run the same radius searches on it. The
+ * SeminarStore ArrayBintree resolves its IDs in is shared with the other
+ * indexes, so it is filled before the heap is measured.
+ *
+ * Run it as: java BintreeBenchmark {records} {queries} {world-size}
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class BintreeBenchmark {
+    private static final int DEFAULT_RECORDS = 200000; // Default record count
+    private static final int DEFAULT_QUERIES = 20000; // Default query count
+    private static final int DEFAULT_WORLD = 16384; // Default world size
+    private static final int RADIUS = 64; // Search radius
+    private static final long SEED = 42; // Seed for the random workload
+
+    /**
+     * The main entry point for the benchmark.
+     *
+     * @param args
+     *            Optional number of records to insert, optional number of
+     *            radius searches to run, and optional world size.
+     */
+    public static void main(String[] args) {
+        int records = DEFAULT_RECORDS;
+        if (args.length > 0) {
+            records = Integer.parseInt(args[0]);
+        }
+        int queries = DEFAULT_QUERIES;
+        if (args.length > 1) {
+            queries = Integer.parseInt(args[1]);
+        }
+        int worldSize = DEFAULT_WORLD;
+        if (args.length > 2) {
+            worldSize = Integer.parseInt(args[2]);
+        }
+
+        Random rng = new Random(SEED);
+        Seminar[] seminars = new Seminar[records];
+        for (int i = 0; i < records; i++) {
+            seminars[i] = new Seminar(i, "Seminar", "0610051600", 90, rng
+                .nextInt(worldSize), rng.nextInt(worldSize), 45, new String[] {
+                    "VT" }, "Description");
+        }
+        int[][] points = new int[queries][];
+        for (int i = 0; i < queries; i++) {
+            points[i] = new int[] { rng.nextInt(worldSize), rng.nextInt(
+                worldSize) };
+        }
+
+        System.out.println("Records: " + records + ", world size "
+            + worldSize + ", " + queries + " searches of radius " + RADIUS);
+
+        long before = usedMemory();
+        long start = System.nanoTime();
+        Bintree objects = new Bintree();
+        for (Seminar seminar : seminars) {
+            objects.insert(seminar, worldSize);
+        }
+        long built = System.nanoTime() - start;
+        long memory = usedMemory() - before;
+        List<Seminar> matches = new ArrayList<>();
+        start = System.nanoTime();
+        long visited = 0;
+        for (int[] point : points) {
+            matches.clear();
+            visited += objects.search(point[0], point[1], RADIUS, worldSize,
+                matches);
+        }
+        report("Bintree", memory, built, System.nanoTime() - start, visited);
+        objects = null;
+
+        // The store holds the records for every index, so it is filled
+        // before measuring, just as Bintree is measured without the seminars
+        SeminarStore store = new SeminarStore();
+        for (Seminar seminar : seminars) {
+            store.add(seminar);
+        }
+        before = usedMemory();
+        start = System.nanoTime();
+        ArrayBintree arrays = new ArrayBintree(Bintree.DEFAULT_LEAF_CAPACITY,
+            store);
+        for (Seminar seminar : seminars) {
+            arrays.insert(seminar, worldSize);
+        }
+        built = System.nanoTime() - start;
+        memory = usedMemory() - before;
+        start = System.nanoTime();
+        visited = 0;
+        for (int[] point : points) {
+            matches.clear();
+            visited += arrays.search(point[0], point[1], RADIUS, worldSize,
+                matches);
+        }
+        report("ArrayBintree", memory, built, System.nanoTime() - start,
+            visited);
+    }
+
+
+    /**
+     * Prints the results for one tree.
+     *
+     * @param label
+     *            The name of the tree.
+     * @param memory
+     *            The bytes retained by the tree.
+     * @param built
+     *            The nanoseconds spent inserting.
+     * @param searched
+     *            The nanoseconds spent searching.
+     * @param visited
+     *            The total number of nodes visited by the searches.
+     */
+    private static void report(
+        String label,
+        long memory,
+        long built,
+        long searched,
+        long visited) {
+        System.out.println(label + ": " + memory / 1024 + " KB, insert "
+            + built / 1000000 + " ms, search " + searched / 1000000 + " ms ("
+            + visited + " nodes visited)");
+    }
+
+
+    // Heap in use after giving the collector a few chances to run
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
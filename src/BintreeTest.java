@@ -2,6 +2,9 @@
 import student.TestCase;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 /**
  * This class contains test cases for the BinTree class, which manages
@@ -547,4 +550,473 @@ public class BintreeTest extends TestCase {
     }
 
 
+    /**
+     * Tests that a radius search finds exactly the seminars inside the circle
+     * and prints them in the expected format.
+     */
+    public void testSearchRadius() {
+        Bintree tree = new Bintree();
+        int size = 128;
+        tree.insert(new Seminar(1, "Seminar 1", "0610051600", 90, (short)10,
+            (short)10, 45, new String[] { "VT" }, "Description"), size);
+        tree.insert(new Seminar(10, "Seminar 10", "0701250830", 30,
+            (short)30, (short)10, 17, new String[] { "VT" }, "Description"),
+            size);
+        tree.insert(new Seminar(3, "Seminar 3", "1203301125", 35, (short)0,
+            (short)0, 25, new String[] { "HPC" }, "Description"), size);
+        tree.insert(new Seminar(4, "Seminar 4", "1203301125", 35,
+            (short)100, (short)100, 25, new String[] { "HPC" }, "Description"),
+            size);
+
+        List<Seminar> matches = new ArrayList<>();
+        tree.search(10, 10, 20, size, matches);
+        assertEquals(3, matches.size());
+
+        matches.clear();
+        tree.search(0, 0, 0, size, matches);
+        assertEquals(1, matches.size());
+        assertEquals(3, matches.get(0).id());
+
+        matches.clear();
+        tree.search(64, 64, 10, size, matches);
+        assertTrue(matches.isEmpty());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        int visited = tree.search(100, 100, 0, size);
+        System.setOut(System.out);
+        assertEquals("Found a record with key value 4 at 100, 100\n" + visited
+            + " nodes visited in this search\n", outputStream.toString());
+    }
+
+
+    /**
+     * Tests that a small radius search prunes subtrees and visits fewer nodes
+     * than a search covering the whole world.
+     */
+    public void testSearchRadiusPrunes() {
+        Bintree tree = new Bintree();
+        int size = 128;
+        for (int i = 0; i < 16; i++) {
+            tree.insert(new Seminar(i, "Seminar", "0610051600", 90,
+                (short)(i * 8), (short)(i * 8), 45, new String[] { "VT" },
+                "Description"), size);
+        }
+
+        List<Seminar> matches = new ArrayList<>();
+        int visitedAll = tree.search(0, 0, 2 * size, size, matches);
+        assertEquals(16, matches.size());
+
+        matches.clear();
+        int visitedSmall = tree.search(0, 0, 1, size, matches);
+        assertEquals(1, matches.size());
+        assertTrue(visitedSmall < visitedAll);
+    }
+
+
+    /**
+     * Tests a radius search on an empty tree visits only the root.
+     */
+    public void testSearchEmptyTree() {
+        Bintree tree = new Bintree();
+        List<Seminar> matches = new ArrayList<>();
+        assertEquals(1, tree.search(5, 5, 10, 128, matches));
+        assertTrue(matches.isEmpty());
+        assertEquals(0, tree.search(5, 5, -1, 128, matches));
+    }
+
+
+    /**
+     * Tests that seminars sharing the same coordinates stay in a single leaf
+     * no matter how many of them are inserted.
+     */
+    public void testInsertColocatedStaysLeaf() {
+        Bintree tree = new Bintree();
+        for (int i = 20; i > 0; i--) {
+            tree.insert(new Seminar(i, "Seminar", "0610051600", 90, (short)10,
+                (short)10, 45, new String[] { "VT" }, "Description"), 128);
+        }
+
+        LeafNode leaf = tree.getRoot1();
+        assertEquals(20, leaf.getCount());
+        for (int i = 0; i < leaf.getCount(); i++) {
+            assertEquals(i + 1, leaf.getSeminar(i).id());
+        }
+    }
+
+
+    /**
+     * Tests that a leaf splits once it exceeds the configured capacity, and
+     * that the traversal reports the real number of objects per leaf.
+     */
+    public void testLeafCapacity() {
+        Bintree tree = new Bintree(2);
+        assertEquals(2, tree.getLeafCapacity());
+        assertEquals(3, new Bintree().getLeafCapacity());
+
+        tree.insert(new Seminar(2, "Seminar 2", "0610051600", 90, (short)10,
+            (short)10, 45, new String[] { "VT" }, "Description"), 128);
+        tree.insert(new Seminar(1, "Seminar 1", "0610051600", 90, (short)10,
+            (short)10, 45, new String[] { "VT" }, "Description"), 128);
+        assertTrue(tree.getRoot().isLeaf());
+
+        tree.insert(new Seminar(3, "Seminar 3", "0610051600", 90, (short)100,
+            (short)10, 45, new String[] { "VT" }, "Description"), 128);
+        assertTrue(tree.getRoot() instanceof InternalNode);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        tree.preorderTraversal();
+        System.setOut(System.out);
+        assertEquals("Location Tree:\nI\n  Leaf with 2 objects: 1 2\n"
+            + "  Leaf with 1 objects: 3\n", outputStream.toString());
+
+        Exception exception = null;
+        try {
+            new Bintree(0);
+        }
+        catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Tests that deleting one seminar from a bucket keeps the others.
+     */
+    public void testDeleteSeminarFromBucket() {
+        Bintree tree = new Bintree();
+        Seminar seminar1 = new Seminar(1, "Seminar 1", "0610051600", 90,
+            (short)10, (short)10, 45, new String[] { "VT" }, "Description");
+        Seminar seminar2 = new Seminar(2, "Seminar 2", "0610051600", 90,
+            (short)10, (short)10, 45, new String[] { "VT" }, "Description");
+        tree.insert(seminar1, 128);
+        tree.insert(seminar2, 128);
+
+        tree.delete(seminar1, 128);
+        assertEquals(1, tree.getRoot1().getCount());
+        assertSame(seminar2, tree.getRoot1().getData());
+
+        tree.delete(seminar1, 128);
+        assertEquals(1, tree.getRoot1().getCount());
+
+        tree.delete(seminar2, 128);
+        assertTrue(tree.isEmpty());
+    }
+
+
+    /**
+     * Tests that deletes below the first level find the seminar, and that
+     * internal nodes collapse back into a leaf once their seminars fit.
+     */
+    public void testDeleteMergesIntoLeaf() {
+        Bintree tree = new Bintree();
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        int[][] points = { { 10, 10 }, { 10, 100 }, { 100, 10 }, { 10, 120 },
+            { 20, 20 } };
+        Seminar[] seminars = new Seminar[points.length];
+        for (int i = 0; i < points.length; i++) {
+            seminars[i] = new Seminar(i + 1, "Seminar", "0610051600", 90,
+                (short)points[i][0], (short)points[i][1], 45, new String[] {
+                    "VT" }, "Description");
+            tree.insert(seminars[i], 128);
+        }
+
+        tree.delete(seminars[3], 128);
+        tree.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nI\n  Leaf with 3 objects: 1 2 5\n"
+            + "  Leaf with 1 objects: 3\n", sink.getText());
+
+        tree.delete(10, 100, 128);
+        assertTrue(tree.getRoot().isLeaf());
+        assertEquals(3, tree.getRoot1().getCount());
+        assertEquals(3, tree.getRoot1().getSeminar(1).id());
+    }
+
+
+    /**
+     * Tests that a tree printed after a delete matches a tree built from the
+     * remaining seminars alone, so an emptied child prints the same as one
+     * that was never filled.
+     */
+    public void testDeletePrintsLikeFreshTree() {
+        Bintree tree = new Bintree(1);
+        Bintree fresh = new Bintree(1);
+        CollectingSink treeText = new CollectingSink();
+        CollectingSink freshText = new CollectingSink();
+        tree.setOutput(treeText);
+        fresh.setOutput(freshText);
+        int[][] points = { { 10, 10 }, { 100, 10 }, { 10, 100 }, { 100,
+            100 }, { 40, 40 } };
+        Seminar[] seminars = new Seminar[points.length];
+        for (int i = 0; i < points.length; i++) {
+            seminars[i] = new Seminar(i + 1, "Seminar", "0610051600", 90,
+                (short)points[i][0], (short)points[i][1], 45, new String[] {
+                    "VT" }, "Description");
+            tree.insert(seminars[i], 128);
+            if (i != 2) {
+                fresh.insert(seminars[i], 128);
+            }
+        }
+
+        tree.delete(seminars[2], 128);
+        tree.preorderTraversal();
+        fresh.preorderTraversal();
+        assertEquals(freshText.getText(), treeText.getText());
+        assertFalse(treeText.getText().contains("E"));
+    }
+
+
+    /**
+     * Tests that inserting and then deleting many seminars leaves an empty
+     * tree rather than a skeleton of internal nodes.
+     */
+    public void testDeleteChurnEmptiesTree() {
+        Bintree tree = new Bintree();
+        List<Seminar> seminars = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 100; i++) {
+                Seminar seminar = new Seminar(i, "Seminar", "0610051600", 90,
+                    (short)(i * 37 % 128), (short)(i * 11 % 128), 45,
+                    new String[] { "VT" }, "Description");
+                seminars.add(seminar);
+                tree.insert(seminar, 128);
+            }
+            for (Seminar seminar : seminars) {
+                tree.delete(seminar, 128);
+            }
+            seminars.clear();
+            assertTrue(tree.isEmpty());
+        }
+    }
+
+
+    /**
+     * Tests a world of size 2^24 against a brute force scan: every radius
+     * search must find exactly the seminars within range, before and after
+     * half of them are deleted.
+     */
+    public void testLargeWorldSearch() {
+        int size = 1 << 24;
+        Random random = new Random(24);
+        Bintree tree = new Bintree();
+        List<Seminar> seminars = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Seminar seminar = new Seminar(i, "Seminar", "0610051600", 90,
+                random.nextInt(size), random.nextInt(size), 45, new String[] {
+                    "VT" }, "Description");
+            seminars.add(seminar);
+            tree.insert(seminar, size);
+        }
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 100; i++) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                int radius = random.nextInt(size / 4);
+                List<Seminar> matches = new ArrayList<>();
+                tree.search(x, y, radius, size, matches);
+                int expected = 0;
+                for (Seminar seminar : seminars) {
+                    long dx = seminar.x() - (long)x;
+                    long dy = seminar.y() - (long)y;
+                    if (dx * dx + dy * dy <= (long)radius * radius) {
+                        expected++;
+                        assertTrue(matches.contains(seminar));
+                    }
+                }
+                assertEquals(expected, matches.size());
+            }
+            for (int i = seminars.size() - 1; i >= 0; i -= 2) {
+                tree.delete(seminars.remove(i), size);
+            }
+        }
+    }
+
+
+    /**
+     * Tests that bulk loading builds exactly the tree that inserting the
+     * same seminars one at a time builds, for several leaf capacities, and
+     * that the loaded tree still supports deletes.
+     */
+    public void testBulkLoadMatchesInserts() {
+        int size = 256;
+        Random random = new Random(18);
+        for (int capacity = 1; capacity <= 4; capacity++) {
+            Bintree inserted = new Bintree(capacity);
+            Bintree loaded = new Bintree(capacity);
+            CollectingSink insertedText = new CollectingSink();
+            CollectingSink loadedText = new CollectingSink();
+            inserted.setOutput(insertedText);
+            loaded.setOutput(loadedText);
+            List<Seminar> seminars = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                // A coarse grid makes co-located seminars common
+                Seminar seminar = new Seminar(random.nextInt(100000),
+                    "Seminar", "0610051600", 90, random.nextInt(16) * 16,
+                    random.nextInt(16) * 16, 45, new String[] { "VT" },
+                    "Description");
+                seminars.add(seminar);
+                inserted.insert(seminar, size);
+            }
+            loaded.bulkLoad(seminars, size);
+            inserted.preorderTraversal();
+            loaded.preorderTraversal();
+            assertEquals(insertedText.getText(), loadedText.getText());
+
+            for (int i = 0; i < 300; i++) {
+                Seminar seminar = seminars.get(i);
+                inserted.delete(seminar, size);
+                loaded.delete(seminar, size);
+            }
+            inserted.preorderTraversal();
+            loaded.preorderTraversal();
+            inserted.search(size / 2, size / 2, size / 3, size);
+            loaded.search(size / 2, size / 2, size / 3, size);
+            assertEquals(insertedText.getText(), loadedText.getText());
+        }
+
+        Bintree empty = new Bintree();
+        empty.bulkLoad(new ArrayList<>(), size);
+        assertTrue(empty.isEmpty());
+    }
+
+
+    /**
+     * Tests that a nearest neighbor search returns the same seminars as
+     * sorting all of them by distance, and visits fewer nodes than a search
+     * covering the whole world.
+     */
+    public void testNearestMatchesBruteForce() {
+        int size = 1024;
+        Random random = new Random(16);
+        Bintree tree = new Bintree();
+        List<Seminar> seminars = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Seminar seminar = new Seminar(i, "Seminar", "0610051600", 90,
+                random.nextInt(size), random.nextInt(size), 45, new String[] {
+                    "VT" }, "Description");
+            seminars.add(seminar);
+            tree.insert(seminar, size);
+        }
+        int fullScan = tree.search(0, 0, 2 * size, size, new ArrayList<>());
+        for (int i = 0; i < 50; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            int k = 1 + random.nextInt(20);
+            List<Seminar> expected = new ArrayList<>(seminars);
+            expected.sort((a, b) -> {
+                long da = Bintree.distanceSquared(x, y, a.x(), a.y());
+                long db = Bintree.distanceSquared(x, y, b.x(), b.y());
+                return (da != db)
+                    ? Long.compare(da, db)
+                    : Integer.compare(a.id(), b.id());
+            });
+            List<Seminar> matches = new ArrayList<>();
+            int visited = tree.nearest(x, y, k, size, matches);
+            assertEquals(expected.subList(0, k), matches);
+            assertTrue(visited < fullScan);
+        }
+
+        List<Seminar> matches = new ArrayList<>();
+        tree.nearest(5, 5, 1000, size, matches);
+        assertEquals(500, matches.size());
+        assertEquals(0, tree.nearest(5, 5, 0, size, matches));
+    }
+
+
+    /**
+     * Tests the printed output of a nearest neighbor search, including ties
+     * broken by ID and a search on an empty tree.
+     */
+    public void testNearestOutput() {
+        Bintree tree = new Bintree();
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        assertEquals(1, tree.nearest(5, 5, 3, 128));
+        assertFuzzyEquals("1 nodes visited in this search\n", sink.getText());
+
+        int[][] points = { { 10, 10 }, { 12, 10 }, { 8, 10 }, { 100, 100 },
+            { 10, 40 } };
+        for (int i = 0; i < points.length; i++) {
+            tree.insert(new Seminar(5 - i, "Seminar", "0610051600", 90,
+                points[i][0], points[i][1], 45, new String[] { "VT" },
+                "Description"), 128);
+        }
+        sink.clear();
+        int visited = tree.nearest(10, 10, 3, 128);
+        assertFuzzyEquals("Found a record with key value 5 at 10, 10\n"
+            + "Found a record with key value 3 at 8, 10\n"
+            + "Found a record with key value 4 at 12, 10\n" + visited
+            + " nodes visited in this search\n", sink.getText());
+    }
+
+
+    /**
+     * Tests that a box search finds exactly the seminars inside the box, and
+     * that a box covering the world collects the same seminars in the same
+     * order as a radius search covering it.
+     */
+    public void testBoxMatchesBruteForce() {
+        int size = 1024;
+        Random random = new Random(17);
+        Bintree tree = new Bintree();
+        List<Seminar> seminars = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Seminar seminar = new Seminar(i, "Seminar", "0610051600", 90,
+                random.nextInt(size / 8) * 8, random.nextInt(size), 45,
+                new String[] { "VT" }, "Description");
+            seminars.add(seminar);
+            tree.insert(seminar, size);
+        }
+        for (int i = 0; i < 100; i++) {
+            int x1 = random.nextInt(size);
+            int y1 = random.nextInt(size);
+            int x2 = random.nextInt(size);
+            int y2 = random.nextInt(size);
+            List<Seminar> matches = new ArrayList<>();
+            tree.box(x1, y1, x2, y2, size, matches);
+            int expected = 0;
+            for (Seminar seminar : seminars) {
+                if (seminar.x() >= Math.min(x1, x2) && seminar.x() <= Math.max(
+                    x1, x2) && seminar.y() >= Math.min(y1, y2) && seminar
+                        .y() <= Math.max(y1, y2)) {
+                    expected++;
+                    assertTrue(matches.contains(seminar));
+                }
+            }
+            assertEquals(expected, matches.size());
+        }
+
+        List<Seminar> inCircle = new ArrayList<>();
+        List<Seminar> inBox = new ArrayList<>();
+        assertEquals(tree.search(0, 0, 2 * size, size, inCircle), tree.box(0,
+            0, size - 1, size - 1, size, inBox));
+        assertEquals(inCircle, inBox);
+    }
+
+
+    /**
+     * Tests the printed output of a box search with inclusive bounds.
+     */
+    public void testBoxOutput() {
+        Bintree tree = new Bintree();
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        assertEquals(1, tree.box(0, 0, 127, 127, 128));
+
+        int[][] points = { { 10, 10 }, { 20, 30 }, { 21, 30 }, { 100, 100 },
+            { 20, 31 } };
+        for (int i = 0; i < points.length; i++) {
+            tree.insert(new Seminar(i + 1, "Seminar", "0610051600", 90,
+                points[i][0], points[i][1], 45, new String[] { "VT" },
+                "Description"), 128);
+        }
+        sink.clear();
+        int visited = tree.box(20, 30, 10, 10, 128);
+        assertFuzzyEquals("Found a record with key value 1 at 10, 10\n"
+            + "Found a record with key value 2 at 20, 30\n" + visited
+            + " nodes visited in this search\n", sink.getText());
+    }
 }
@@ -0,0 +1,145 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * The `CatalogProcessor` class runs the commands of a command file against
+ * a read-only MappedCatalog instead of in-memory trees. It answers the ID,
+ * cost, date, keyword and location searches straight from the mapped file,
+ * in the same format as CommandProcessor. The cost and date searches report
+ * the index entries they visited rather than tree nodes.
+ *
+ * Inserts, deletes and the other commands that need the trees are
+ * rejected with a message, since the catalog cannot change.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class CatalogProcessor {
+    private MappedCatalog catalog;
+    private SemManagerBST parser; // Reads the seminars of rejected inserts
+    private OutputSink output; // Sink for all command output
+
+    /**
+     * Constructs a new `CatalogProcessor` that writes all command output to
+     * the given sink. The sink is flushed after every command.
+     *
+     * @param catalog
+     *            The catalog the searches run against.
+     * @param output
+     *            The sink for all command output.
+     */
+    public CatalogProcessor(MappedCatalog catalog, OutputSink output) {
+        this.catalog = catalog;
+        this.output = output;
+        parser = new SemManagerBST(output);
+        catalog.setOutput(output);
+    }
+
+
+    /**
+     * Processes a sequence of commands from a file.
+     *
+     * @param filePath
+     *            The path to the file containing commands and seminar data.
+     * @return True if the file was successfully processed, false otherwise.
+     */
+    public boolean processCommandsFromFile(String filePath) {
+        File file = new File(filePath);
+
+        try (CommandTokenizer tokenizer = new CommandTokenizer(file)) {
+            while (tokenizer.hasNext()) {
+                String command = tokenizer.next();
+                switch (command) {
+                    case "insert":
+                        Seminar seminar = parser.readSeminar(tokenizer);
+                        output.println("Insert FAILED - The catalog is "
+                            + "read-only, so record with ID " + seminar.id()
+                            + " was not inserted");
+                        break;
+                    case "delete":
+                        output.println("Delete FAILED -- The catalog is "
+                            + "read-only, so record with ID " + tokenizer
+                                .nextInt() + " was not deleted");
+                        break;
+                    case "print":
+                        tokenizer.skipLine();
+                        output.println(
+                            "Print FAILED -- The catalog has no trees");
+                        break;
+                    case "search":
+                        search(tokenizer.next(), tokenizer);
+                        break;
+                    default:
+                        output.flush();
+                        System.err.println("Unknown command: " + command);
+                        tokenizer.skipLine();
+                        break;
+                }
+                output.flush();
+            }
+            return true;
+        }
+        catch (FileNotFoundException e) {
+            output.flush();
+            System.err.println(
+                "Error: File not found. Please enter a valid input filepath");
+            return false;
+        }
+        catch (Exception e) {
+            output.flush();
+            System.err.println(
+                "Error: An exception occurred while processing commands.");
+            return false;
+        }
+    }
+
+
+    // Runs one search command against the catalog
+    private void search(String kind, CommandTokenizer tokenizer)
+        throws IOException {
+        if ("ID".equals(kind)) {
+            int searchId = tokenizer.nextInt();
+            Seminar foundSeminar = catalog.searchID(searchId);
+            if (foundSeminar != null) {
+                output.println("Found record with ID " + searchId + ":");
+                output.println(foundSeminar.toString());
+            }
+            else {
+                output.println("Search FAILED -- There is no record with ID "
+                    + searchId);
+            }
+        }
+        else if ("cost".equals(kind)) {
+            int minCost = tokenizer.nextInt();
+            int maxCost = tokenizer.nextInt();
+            output.println("Seminars with costs in range " + minCost + " to "
+                + maxCost + ":");
+            catalog.searchAndPrintCostRange(minCost, maxCost);
+        }
+        else if ("date".equals(kind)) {
+            String minDate = tokenizer.next();
+            String maxDate = tokenizer.next();
+            output.println("Seminars with dates in range " + minDate + " to "
+                + maxDate + ":");
+            catalog.searchAndPrintDateRange(minDate, maxDate);
+        }
+        else if ("keyword".equals(kind)) {
+            catalog.searchAndPrintByKeyword(tokenizer.next());
+        }
+        else if ("location".equals(kind)) {
+            int x = tokenizer.nextInt();
+            int y = tokenizer.nextInt();
+            int radius = tokenizer.nextInt();
+            output.println("Search within " + radius + " units of " + x + ", "
+                + y + ":");
+            catalog.search(x, y, radius);
+        }
+        else {
+            tokenizer.skipLine();
+            output.println("Search FAILED -- The catalog does not support "
+                + "search " + kind);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The `CommandProcessor` class is responsible for processing commands from a
@@ -23,12 +27,17 @@ import java.util.Scanner;
 
 public class CommandProcessor {
     private SemManagerBST semManager;
+    private SeminarStore store; // Primary record store, keyed by ID
     private IdBST idBST;
     private CostBST costBST;
     private DateBST dateBST;
     private KeywordBST keywordBST;
+    private QueryPlanner planner; // Runs compound "search where" commands
     private Bintree binLocation;
     private int worldSize;
+    private OutputSink output; // Sink for all command output
+    private boolean bulkLoad; // Bulk load the leading run of inserts
+    private SeminarLog log; // Write-ahead log of inserts and deletes, or null
 
     /**
      * Constructs a new `CommandProcessor` with the given world size.
@@ -37,13 +46,123 @@ public class CommandProcessor {
      *            The world size, a power of two, used in operations.
      */
     public CommandProcessor(int worldSize) {
+        this(worldSize, false);
+    }
+
+
+    /**
+     * Constructs a new `CommandProcessor` with the given world size whose
+     * attribute indexes optionally keep themselves balanced.
+     *
+     * @param worldSize
+     *            The world size, a power of two, used in operations.
+     * @param balanced
+     *            True to use self-balancing BSTs for the ID, cost, date and
+     *            keyword indexes. Their printed shape then differs from the
+     *            plain BST shape.
+     */
+    public CommandProcessor(int worldSize, boolean balanced) {
+        this(worldSize, balanced, new BufferedSink());
+    }
+
+
+    /**
+     * Constructs a new `CommandProcessor` that writes all command output to
+     * the given sink. The sink is flushed after every command.
+     *
+     * @param worldSize
+     *            The world size, a power of two, used in operations.
+     * @param balanced
+     *            True to use self-balancing BSTs for the attribute indexes.
+     * @param output
+     *            The sink for all command output.
+     */
+    public CommandProcessor(
+        int worldSize,
+        boolean balanced,
+        OutputSink output) {
         this.worldSize = worldSize;
-        semManager = new SemManagerBST();
-        idBST = new IdBST();
-        costBST = new CostBST();
-        dateBST = new DateBST();
-        keywordBST = new KeywordBST();
+        this.output = output;
+        semManager = new SemManagerBST(output);
+        store = new SeminarStore();
+        idBST = new IdBST(balanced, store);
+        costBST = new CostBST(balanced, store);
+        dateBST = new DateBST(balanced, store);
+        keywordBST = new KeywordBST(balanced, store);
         binLocation = new Bintree();
+        idBST.setOutput(output);
+        costBST.setOutput(output);
+        dateBST.setOutput(output);
+        keywordBST.setOutput(output);
+        binLocation.setOutput(output);
+        planner = new QueryPlanner(idBST, costBST, dateBST, keywordBST,
+            binLocation, worldSize);
+        planner.setOutput(output);
+    }
+
+
+    /**
+     * Turns bulk-load mode on or off. In bulk-load mode the inserts at the
+     * start of a command file are read first and then loaded into the
+     * indexes at once, which builds balanced BSTs and a bintree in
+     * O(n log n) instead of inserting the records one at a time. The
+     * output is the same; inserts after any other command, or into indexes
+     * that already hold records, are still made one at a time.
+     *
+     * @param bulkLoad
+     *            True to bulk load the leading inserts of a command file.
+     */
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+
+    /**
+     * Turns parallel index maintenance on or off. When it is on, every
+     * insert, delete and bulk load updates the independent indexes at the
+     * same time on the common fork-join pool. Each command still finishes
+     * before the next one starts, so the output does not change.
+     *
+     * @param parallel
+     *            True to update the indexes in parallel.
+     */
+    public void setParallel(boolean parallel) {
+        semManager.setPool(parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+
+    /**
+     * Opens a write-ahead log, rebuilds the indexes from the seminars it
+     * still holds, and from then on appends every insert and delete to it.
+     * The rebuild reads the binary log directly and bulk loads the live
+     * seminars, so it neither parses commands nor prints anything. It must
+     * be called before any command is processed.
+     *
+     * @param file
+     *            The log file, created if it does not exist.
+     * @throws IOException
+     *             If the log cannot be read or written.
+     */
+    public void openLog(File file) throws IOException {
+        log = new SeminarLog(file, SeminarLog.DEFAULT_GROUP_SIZE);
+        semManager.loadSeminarRecords(log.getRecovered(), worldSize, idBST,
+            costBST, dateBST, keywordBST, binLocation);
+        semManager.setLog(log);
+    }
+
+
+    /**
+     * Commits and closes the write-ahead log, if one is open.
+     *
+     * @throws IOException
+     *             If the last records cannot be written.
+     */
+    public void closeLog() throws IOException {
+        if (log != null) {
+            semManager.setLog(null);
+            log.close();
+            log = null;
+        }
     }
 
 
@@ -57,19 +176,31 @@ public class CommandProcessor {
     public boolean processCommandsFromFile(String filePath) {
         File file = new File(filePath);
 
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNext()) {
-                String command = scanner.next().trim();
+        try (CommandTokenizer tokenizer = new CommandTokenizer(file)) {
+            // Records read ahead for bulk loading, or null once loaded
+            List<Seminar> pending = (bulkLoad && idBST.getRecordNumber() == 0)
+                ? new ArrayList<>()
+                : null;
+            while (tokenizer.hasNext()) {
+                String command = tokenizer.next();
+                if (pending != null && !"insert".equals(command)) {
+                    loadPending(pending);
+                    pending = null;
+                }
 
                 switch (command) {
                     case "insert":
+                        if (pending != null) {
+                            pending.add(semManager.readSeminar(tokenizer));
+                            break;
+                        }
 
-                        semManager.addSeminarRecord(scanner, worldSize, idBST,
-                            costBST, dateBST, keywordBST, binLocation);
+                        semManager.addSeminarRecord(tokenizer, worldSize,
+                            idBST, costBST, dateBST, keywordBST, binLocation);
 
                         break;
                     case "print":
-                        String nextToken = scanner.next().trim();
+                        String nextToken = tokenizer.next();
                         if ("ID".equals(nextToken)) {
                             SemManagerBST.printIdTree(idBST);
                         }
@@ -88,28 +219,28 @@ public class CommandProcessor {
                         break;
 
                     case "search":
-                        String nextTokenSearch = scanner.next().trim();
+                        String nextTokenSearch = tokenizer.next();
 
                         if ("ID".equals(nextTokenSearch)) {
-                            int searchId = scanner.nextInt();
+                            int searchId = tokenizer.nextInt();
 
-                            Seminar foundSeminar = idBST.searchID(searchId);
+                            Seminar foundSeminar = store.searchID(searchId);
                             if (foundSeminar != null) {
-                                System.out.println("Found record with ID "
+                                output.println("Found record with ID "
                                     + searchId + ":");
-                                System.out.println(foundSeminar.toString());
+                                output.println(foundSeminar.toString());
                             }
                             else {
-                                System.out.println(
+                                output.println(
                                     "Search FAILED -- There is no record with"
                                         + " ID " + searchId);
                             }
                         }
                         else if ("cost".equals(nextTokenSearch)) {
-                            int minCost = scanner.nextInt();
-                            int maxCost = scanner.nextInt();
+                            int minCost = tokenizer.nextInt();
+                            int maxCost = tokenizer.nextInt();
 
-                            System.out.println("Seminars with costs in range "
+                            output.println("Seminars with costs in range "
                                 + minCost + " to " + maxCost + ":");
 
                             // Call the searchAndPrintCostRange method to
@@ -118,88 +249,244 @@ public class CommandProcessor {
                         }
 
                         else if ("date".equals(nextTokenSearch)) {
-                            String minDate = scanner.next().trim();
-                            String maxDate = scanner.next().trim();
+                            String minDate = tokenizer.next();
+                            String maxDate = tokenizer.next();
 
-                            System.out.println("Seminars with dates in range "
+                            output.println("Seminars with dates in range "
                                 + minDate + " to " + maxDate + ":");
 
                             dateBST.searchAndPrintDateRange(minDate, maxDate);
                         }
                         else if ("keyword".equals(nextTokenSearch)) {
-                            String keyword = scanner.next().trim();
+                            String keyword = tokenizer.next();
 
                             keywordBST.searchAndPrintByKeyword(keyword);
                         }
+                        else if ("count".equals(nextTokenSearch)) {
+                            String field = tokenizer.next();
+                            if ("cost".equals(field)) {
+                                costBST.printCostRangeCount(tokenizer
+                                    .nextInt(), tokenizer.nextInt());
+                            }
+                            else if ("date".equals(field)) {
+                                dateBST.printDateRangeCount(tokenizer.next(),
+                                    tokenizer.next());
+                            }
+                        }
+                        else if ("limit".equals(nextTokenSearch)) {
+                            String field = tokenizer.next();
+                            if ("cost".equals(field)) {
+                                int minCost = tokenizer.nextInt();
+                                int maxCost = tokenizer.nextInt();
+                                int limit = tokenizer.nextInt();
+                                int offset = tokenizer.nextInt();
+                                output.println("Seminars with costs in range "
+                                    + minCost + " to " + maxCost + ", limit "
+                                    + limit + " offset " + offset + ":");
+                                costBST.searchAndPrintCostRange(minCost,
+                                    maxCost, limit, offset);
+                            }
+                            else if ("date".equals(field)) {
+                                String minDate = tokenizer.next();
+                                String maxDate = tokenizer.next();
+                                int limit = tokenizer.nextInt();
+                                int offset = tokenizer.nextInt();
+                                output.println("Seminars with dates in range "
+                                    + minDate + " to " + maxDate + ", limit "
+                                    + limit + " offset " + offset + ":");
+                                dateBST.searchAndPrintDateRange(minDate,
+                                    maxDate, limit, offset);
+                            }
+                        }
+                        else if ("where".equals(nextTokenSearch)) {
+                            planner.searchAndPrint(tokenizer.nextWords());
+                        }
+                        else if ("keywords".equals(nextTokenSearch)) {
+                            keywordBST.searchAndPrintByKeywords(tokenizer
+                                .nextWords());
+                        }
                         else if ("location".equals(nextTokenSearch)) {
-                            int x = scanner.nextInt();
-                            // System.out.println("x: "+ x);
-                            int y = scanner.nextInt();
-                            // System.out.println("y: "+ y);
-                            int radius = scanner.nextInt();
-                            // System.out.println("radius: "+ radius);
-                            // binLocation.search(x, y, radius, worldSize);
+                            int x = tokenizer.nextInt();
+                            int y = tokenizer.nextInt();
+                            int radius = tokenizer.nextInt();
+
+                            output.println("Search within " + radius
+                                + " units of " + x + ", " + y + ":");
+
+                            binLocation.search(x, y, radius, worldSize);
+                        }
+                        else if ("box".equals(nextTokenSearch)) {
+                            int x1 = tokenizer.nextInt();
+                            int y1 = tokenizer.nextInt();
+                            int x2 = tokenizer.nextInt();
+                            int y2 = tokenizer.nextInt();
+
+                            output.println("Search within the box from " + x1
+                                + ", " + y1 + " to " + x2 + ", " + y2 + ":");
+
+                            binLocation.box(x1, y1, x2, y2, worldSize);
+                        }
+                        else if ("nearest".equals(nextTokenSearch)) {
+                            int x = tokenizer.nextInt();
+                            int y = tokenizer.nextInt();
+                            int k = tokenizer.nextInt();
+
+                            output.println("Search for the " + k
+                                + " records nearest to " + x + ", " + y
+                                + ":");
 
+                            binLocation.nearest(x, y, k, worldSize);
                         }
 
                         break;
                     case "delete":
-                        String nextTokenDelete = scanner.next().trim();
-                        int deleteId = Integer.parseInt(nextTokenDelete);
-                        Seminar seminarToDelete = idBST.searchID(deleteId);
+                        int deleteId = tokenizer.nextInt();
+                        Seminar seminarToDelete = store.searchID(deleteId);
                         if (seminarToDelete != null) {
 
-                            System.out.println("Record with ID "
+                            output.println("Record with ID "
                                 + seminarToDelete.id()
                                 + " successfully deleted from the database");
-                            KVPair<Integer, Seminar> idToDelete = new KVPair<>(
-                                seminarToDelete.id(), seminarToDelete);
-                            idBST.removeSeminar(idToDelete);
-
-                            KVPair<Integer, Seminar> costToDelete =
-                                new KVPair<>(seminarToDelete.cost(),
-                                    seminarToDelete);
-                            costBST.removeSeminar(costToDelete);
-
-                            KVPair<String, Seminar> dataToDelete = new KVPair<>(
-                                seminarToDelete.date(), seminarToDelete);
-                            dateBST.removeSeminar(dataToDelete);
-                            String[] seminarKeywords = seminarToDelete
-                                .keywords();
-                            for (String keyword : seminarKeywords) {
-                                KVPair<String, Seminar> keywordToDelete =
-                                    new KVPair<>(keyword, seminarToDelete);
-                                keywordBST.removeSeminar(keywordToDelete);
-                            }
-
-                            binLocation.delete(seminarToDelete.x(),
-                                seminarToDelete.y(), worldSize);
+                            semManager.deleteSeminarRecord(seminarToDelete,
+                                worldSize, idBST, costBST, dateBST,
+                                keywordBST, binLocation);
                         }
                         else {
-                            System.out.println(
+                            output.println(
                                 "Delete FAILED -- There is no record with ID "
                                     + deleteId);
                         }
 
+                        break;
+                    case "snapshot":
+                        String action = tokenizer.next();
+                        File snapshot = new File(tokenizer.next());
+                        if ("save".equals(action)) {
+                            saveSnapshot(snapshot);
+                        }
+                        else if ("load".equals(action)) {
+                            loadSnapshot(snapshot);
+                        }
+                        else {
+                            output.println("Snapshot FAILED -- Unknown action "
+                                + action);
+                        }
+                        break;
+                    case "catalog":
+                        String catalogAction = tokenizer.next();
+                        File catalog = new File(tokenizer.next());
+                        if ("save".equals(catalogAction)) {
+                            saveCatalog(catalog);
+                        }
+                        else {
+                            output.println("Catalog FAILED -- Unknown action "
+                                + catalogAction);
+                        }
                         break;
                     default:
+                        output.flush();
                         System.err.println("Unknown command: " + command);
-                        scanner.nextLine();
+                        tokenizer.skipLine();
                         break;
                 }
+                output.flush();
+            }
+            if (pending != null) {
+                loadPending(pending);
+            }
+            if (log != null) {
+                log.commit();
             }
             return true;
         }
         catch (FileNotFoundException e) {
+            output.flush();
             System.err.println(
                 "Error: File not found. Please enter a valid input filepath");
             return false;
         }
         catch (Exception e) {
+            output.flush();
             System.err.println(
                 "Error: An exception occurred while processing commands.");
             return false;
         }
     }
 
+
+    // Writes every record to a snapshot file, in insertion order
+    private void saveSnapshot(File file) {
+        List<Seminar> seminars = new ArrayList<>(idBST.getRecordNumber());
+        idBST.collectRange(Integer.MIN_VALUE, Integer.MAX_VALUE, seminars);
+        KeywordIndex index = keywordBST.getIndex();
+        seminars.sort(Comparator.comparingInt(index::getStamp));
+        try {
+            SeminarSnapshot.save(file, seminars);
+            output.println("Saved " + seminars.size()
+                + " records to snapshot " + file);
+        }
+        catch (IOException e) {
+            output.println("Snapshot FAILED -- " + e.getMessage());
+        }
+    }
+
+
+    // Writes the indexes to a catalog file that can be searched read-only
+    // through a memory mapping
+    private void saveCatalog(File file) {
+        try {
+            int records = MappedCatalog.write(file, worldSize, idBST, costBST,
+                dateBST, keywordBST, binLocation);
+            output.println("Saved " + records + " records to catalog "
+                + file);
+        }
+        catch (IOException e) {
+            output.println("Catalog FAILED -- " + e.getMessage());
+        }
+    }
+
+
+    // Replaces every record with the records of a snapshot file. The
+    // write-ahead log, if one is open, is rewritten first, so a failed
+    // rewrite leaves both the log and the indexes as they were
+    private void loadSnapshot(File file) {
+        List<Seminar> seminars;
+        try {
+            seminars = SeminarSnapshot.load(file);
+        }
+        catch (IOException e) {
+            output.println("Snapshot FAILED -- " + e.getMessage());
+            return;
+        }
+        for (Seminar seminar : seminars) {
+            if (!SemManagerBST.isInRange(seminar.x(), worldSize)
+                || !SemManagerBST.isInRange(seminar.y(), worldSize)) {
+                output.println("Snapshot FAILED -- Record with ID "
+                    + seminar.id() + " is outside the world");
+                return;
+            }
+        }
+        if (log != null) {
+            try {
+                log.reset(seminars);
+            }
+            catch (IOException e) {
+                output.println("Snapshot FAILED -- " + e.getMessage());
+                return;
+            }
+        }
+        semManager.loadSeminarRecords(seminars, worldSize, idBST, costBST,
+            dateBST, keywordBST, binLocation);
+        output.println("Loaded " + seminars.size()
+            + " records from snapshot " + file);
+    }
+
+
+    // Bulk loads the records read ahead into the still empty indexes
+    private void loadPending(List<Seminar> pending) {
+        semManager.addSeminarRecords(pending, worldSize, idBST, costBST,
+            dateBST, keywordBST, binLocation);
+        output.flush();
+    }
+
 }
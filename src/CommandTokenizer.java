@@ -0,0 +1,324 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A byte-level tokenizer for command files. The file is memory mapped
+ * through a FileChannel one window at a time and scanned in place, so
+ * numbers are parsed straight from the mapped bytes without building
+ * intermediate Strings, and only the text fields that end up in a Seminar
+ * are ever decoded.
+ *
+ * Any byte up to and including the space character counts as whitespace,
+ * so indented lines, runs of blanks and blank lines are all tolerated, just
+ * as with the Scanner based parser this replaces.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class CommandTokenizer implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 26; // Bytes mapped at once
+    private static final int INITIAL_SCRATCH = 256; // Initial token buffer
+    private static final int END = -1; // Returned by read() at end of input
+
+    private FileChannel channel; // Source file, or null for in-memory input
+    private long position; // File offset of the next window to map
+    private long size; // Total length of the file
+    private ByteBuffer buffer; // Current window of input
+    private byte[] scratch; // Reusable buffer for decoding text tokens
+    private Charset charset; // Charset used to decode text tokens
+
+    /**
+     * Opens a tokenizer over the given file.
+     *
+     * @param file
+     *            The command file to read.
+     * @throws IOException
+     *             If the file does not exist (FileNotFoundException) or
+     *             cannot be mapped.
+     */
+    public CommandTokenizer(File file) throws IOException {
+        channel = new FileInputStream(file).getChannel();
+        size = channel.size();
+        position = 0;
+        buffer = ByteBuffer.allocate(0);
+        scratch = new byte[INITIAL_SCRATCH];
+        charset = Charset.defaultCharset();
+    }
+
+
+    /**
+     * Creates a tokenizer over input that is already in memory.
+     *
+     * @param input
+     *            The bytes to tokenize, from position to limit.
+     */
+    public CommandTokenizer(ByteBuffer input) {
+        channel = null;
+        buffer = input;
+        scratch = new byte[INITIAL_SCRATCH];
+        charset = Charset.defaultCharset();
+    }
+
+
+    /**
+     * Checks if another token remains, skipping any whitespace before it.
+     *
+     * @return True if there is another token, false at end of input.
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public boolean hasNext() throws IOException {
+        skipWhitespace();
+        return peek() != END;
+    }
+
+
+    /**
+     * Reads the next whitespace-delimited token.
+     *
+     * @return The next token.
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public String next() throws IOException {
+        skipWhitespace();
+        int length = 0;
+        int b = peek();
+        if (b == END) {
+            throw new NoSuchElementException();
+        }
+        while (b != END && !isWhitespace(b)) {
+            length = append(length, read());
+            b = peek();
+        }
+        return new String(scratch, 0, length, charset);
+    }
+
+
+    /**
+     * Reads the next token as an int, with the same range and sign rules as
+     * Integer.parseInt but without creating a String.
+     *
+     * @return The parsed value.
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public int nextInt() throws IOException {
+        long value = nextLong(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (int)value;
+    }
+
+
+    /**
+     * Reads the next token as a short, with the same range and sign rules as
+     * Short.parseShort but without creating a String.
+     *
+     * @return The parsed value.
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public short nextShort() throws IOException {
+        long value = nextLong(Short.MIN_VALUE, Short.MAX_VALUE);
+        return (short)value;
+    }
+
+
+    /**
+     * Reads the rest of the current line, without its line terminator, and
+     * trims leading and trailing whitespace.
+     *
+     * @return The trimmed remainder of the line (possibly empty).
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public String nextLine() throws IOException {
+        if (peek() == END) {
+            throw new NoSuchElementException("No line found");
+        }
+        int length = 0;
+        int b = read();
+        while (b != END && b != '\n' && b != '\r') {
+            if (length > 0 || !isWhitespace(b)) {
+                length = append(length, b);
+            }
+            b = read();
+        }
+        consumeLineFeed(b);
+        while (length > 0 && isWhitespace(scratch[length - 1])) {
+            length--;
+        }
+        return new String(scratch, 0, length, charset);
+    }
+
+
+    /**
+     * Reads the rest of the current line and splits it into its
+     * whitespace-separated words.
+     *
+     * @return The words of the line; empty for a blank line.
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public String[] nextWords() throws IOException {
+        if (peek() == END) {
+            throw new NoSuchElementException("No line found");
+        }
+        String[] words = new String[4];
+        int count = 0;
+        int length = 0;
+        int b = read();
+        while (true) {
+            boolean endOfLine = b == END || b == '\n' || b == '\r';
+            if (endOfLine || isWhitespace(b)) {
+                if (length > 0) {
+                    if (count == words.length) {
+                        words = Arrays.copyOf(words, count * 2);
+                    }
+                    words[count++] = new String(scratch, 0, length, charset);
+                    length = 0;
+                }
+                if (endOfLine) {
+                    break;
+                }
+            }
+            else {
+                length = append(length, b);
+            }
+            b = read();
+        }
+        consumeLineFeed(b);
+        return Arrays.copyOf(words, count);
+    }
+
+
+    /**
+     * Skips the rest of the current line, including its line terminator.
+     *
+     * @throws IOException
+     *             If the next window of the file cannot be mapped.
+     */
+    public void skipLine() throws IOException {
+        int b = read();
+        while (b != END && b != '\n' && b != '\r') {
+            b = read();
+        }
+        consumeLineFeed(b);
+    }
+
+
+    /**
+     * Releases the underlying file channel.
+     *
+     * @throws IOException
+     *             If the channel cannot be closed.
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+
+    private long nextLong(long min, long max) throws IOException {
+        skipWhitespace();
+        int b = peek();
+        if (b == END) {
+            throw new NoSuchElementException();
+        }
+        boolean negative = false;
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            read();
+        }
+        long value = 0;
+        int digits = 0;
+        b = peek();
+        while (b != END && !isWhitespace(b)) {
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("Bad digit '" + (char)b
+                    + "' in number");
+            }
+            value = value * 10 + (b - '0');
+            if (value > max + 1) {
+                throw new NumberFormatException("Value out of range");
+            }
+            digits++;
+            read();
+            b = peek();
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Missing digits in number");
+        }
+        value = negative ? -value : value;
+        if (value < min || value > max) {
+            throw new NumberFormatException("Value out of range");
+        }
+        return value;
+    }
+
+
+    private void skipWhitespace() throws IOException {
+        int b = peek();
+        while (b != END && isWhitespace(b)) {
+            read();
+            b = peek();
+        }
+    }
+
+
+    // Treats "\r\n" as a single line terminator
+    private void consumeLineFeed(int terminator) throws IOException {
+        if (terminator == '\r' && peek() == '\n') {
+            read();
+        }
+    }
+
+
+    private int append(int length, int b) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length] = (byte)b;
+        return length + 1;
+    }
+
+
+    private static boolean isWhitespace(int b) {
+        return b >= 0 && b <= ' ';
+    }
+
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !mapNextWindow()) {
+            return END;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !mapNextWindow()) {
+            return END;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+
+    private boolean mapNextWindow() throws IOException {
+        if (channel == null || position >= size) {
+            return false;
+        }
+        long length = Math.min(WINDOW_SIZE, size - position);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        position += length;
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import student.TestCase;
+
+/**
+ * This class contains test cases for the CommandTokenizer class, which
+ * splits command files into tokens, numbers and lines.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class CommandTokenizerTest extends TestCase {
+
+    private CommandTokenizer tokenizerFor(String input) {
+        return new CommandTokenizer(ByteBuffer.wrap(input.getBytes()));
+    }
+
+
+    /**
+     * Tests that tokens are found across indented and blank lines.
+     *
+     * @throws Exception
+     *             if the tokenizer fails
+     */
+    public void testTokensAcrossBlankLines() throws Exception {
+        CommandTokenizer tokenizer = tokenizerFor(
+            "print location\r\n\r\n              print ID\n\t\n"
+                + "                print                   keyword   \r\n");
+        assertEquals("print", tokenizer.next());
+        assertEquals("location", tokenizer.next());
+        assertEquals("print", tokenizer.next());
+        assertEquals("ID", tokenizer.next());
+        assertEquals("print", tokenizer.next());
+        assertTrue(tokenizer.hasNext());
+        assertEquals("keyword", tokenizer.next());
+        assertFalse(tokenizer.hasNext());
+    }
+
+
+    /**
+     * Tests int and short parsing, including signs and range checks.
+     *
+     * @throws Exception
+     *             if the tokenizer fails
+     */
+    public void testNumbers() throws Exception {
+        CommandTokenizer tokenizer = tokenizerFor(
+            " 0610 -1 +45 2147483647 -2147483648 -32768 32767 32768 12a");
+        assertEquals(610, tokenizer.nextInt());
+        assertEquals(-1, tokenizer.nextShort());
+        assertEquals(45, tokenizer.nextInt());
+        assertEquals(Integer.MAX_VALUE, tokenizer.nextInt());
+        assertEquals(Integer.MIN_VALUE, tokenizer.nextInt());
+        assertEquals(Short.MIN_VALUE, tokenizer.nextShort());
+        assertEquals(Short.MAX_VALUE, tokenizer.nextShort());
+
+        Exception exception = null;
+        try {
+            tokenizer.nextShort();
+        }
+        catch (NumberFormatException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+
+        exception = null;
+        try {
+            tokenizer.nextInt();
+        }
+        catch (NumberFormatException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Tests reading whole lines and the words of a line.
+     *
+     * @throws Exception
+     *             if the tokenizer fails
+     */
+    public void testLines() throws Exception {
+        CommandTokenizer tokenizer = tokenizerFor("insert 3\r\n"
+            + "  Overview of HPC  \r\n"
+            + "1203301125     35        0  0      25\r\n"
+            + "      HPC      CSE      computer_science \r\n"
+            + "Learn what kind of    research\n" + "\n");
+        assertEquals("insert", tokenizer.next());
+        assertEquals(3, tokenizer.nextInt());
+        tokenizer.skipLine();
+        assertEquals("Overview of HPC", tokenizer.nextLine());
+        assertEquals("1203301125", tokenizer.next());
+        assertEquals(35, tokenizer.nextInt());
+        assertEquals(0, tokenizer.nextShort());
+        assertEquals(0, tokenizer.nextShort());
+        assertEquals(25, tokenizer.nextInt());
+        tokenizer.skipLine();
+
+        String[] words = tokenizer.nextWords();
+        assertEquals(3, words.length);
+        assertEquals("HPC", words[0]);
+        assertEquals("computer_science", words[2]);
+        assertEquals("Learn what kind of    research", tokenizer.nextLine());
+        assertEquals(0, tokenizer.nextWords().length);
+
+        Exception exception = null;
+        try {
+            tokenizer.nextLine();
+        }
+        catch (NoSuchElementException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Tests reading the tokens of a real command file and the error for a
+     * missing file.
+     *
+     * @throws Exception
+     *             if the tokenizer fails
+     */
+    public void testFile() throws Exception {
+        try (CommandTokenizer tokenizer = new CommandTokenizer(new File(
+            "print_input.txt"))) {
+            int tokens = 0;
+            while (tokenizer.hasNext()) {
+                assertFalse(tokenizer.next().isEmpty());
+                tokens++;
+            }
+            assertTrue(tokens > 0);
+        }
+
+        Exception exception = null;
+        try {
+            new CommandTokenizer(new File("InvalidFile.txt"));
+        }
+        catch (FileNotFoundException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small benchmark for ConcurrentSeminarIndex. It loads random seminars
+ * and then runs the same mix of radius, cost and keyword searches on 1, 2,
+ * 4, ... reader threads up to the number of cores. Each thread count runs
+ * twice: once with the readers alone, which shows how search throughput
+ * scales with cores, and once next to one writer thread that inserts or
+ * deletes a seminar at a fixed rate. The writer is throttled so it does
+ * not hold the exclusive lock most of the time, which would measure only
+ * contention. For each run it prints the elapsed time and the search
+ * throughput of the readers, which includes the time they spend waiting
+ * for the writer's lock.
+ *
+ * Run it as: java ConcurrencyBenchmark {records} {searches-per-thread}
+ * {writes-per-second}
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class ConcurrencyBenchmark {
+    private static final int DEFAULT_RECORDS = 100000; // Default records
+    private static final int DEFAULT_SEARCHES = 20000; // Searches per thread
+    private static final int DEFAULT_WRITES = 1000; // Writes per second
+    private static final int WORLD = 16384; // World size
+    private static final int RADIUS = 64; // Search radius
+    private static final long SEED = 42; // Seed for the random workload
+
+    /**
+     * The main entry point for the benchmark.
+     *
+     * @param args
+     *            Optional number of records to load, optional number of
+     *            searches each reader thread runs, and optional number of
+     *            writes per second of the writer thread.
+     * @throws InterruptedException
+     *             If the benchmark is interrupted while waiting for its
+     *             threads.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int records = DEFAULT_RECORDS;
+        if (args.length > 0) {
+            records = Integer.parseInt(args[0]);
+        }
+        int searches = DEFAULT_SEARCHES;
+        if (args.length > 1) {
+            searches = Integer.parseInt(args[1]);
+        }
+        int writes = DEFAULT_WRITES;
+        if (args.length > 2) {
+            writes = Integer.parseInt(args[2]);
+        }
+
+        ConcurrentSeminarIndex index = new ConcurrentSeminarIndex(WORLD,
+            true);
+        Random rng = new Random(SEED);
+        for (int i = 0; i < records; i++) {
+            index.insert(seminar(i, rng));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Records: " + records + ", " + searches
+            + " searches per thread, " + cores + " cores");
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            run(index, records, threads, searches, 0);
+            run(index, records, threads, searches, writes);
+        }
+    }
+
+
+    /**
+     * Runs the searches on the given number of reader threads, next to one
+     * writer unless the write rate is 0, and prints the throughput.
+     *
+     * @param index
+     *            The loaded index.
+     * @param records
+     *            The number of records loaded, which is also the first ID
+     *            the writer uses.
+     * @param threads
+     *            The number of reader threads.
+     * @param searches
+     *            The number of searches each reader runs.
+     * @param writes
+     *            The number of writes per second, or 0 for no writer.
+     * @throws InterruptedException
+     *             If the benchmark is interrupted while waiting for its
+     *             threads.
+     */
+    private static void run(
+        ConcurrentSeminarIndex index,
+        int records,
+        int threads,
+        int searches,
+        int writes)
+        throws InterruptedException {
+        Thread[] readers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = SEED + t;
+            readers[t] = new Thread(() -> {
+                Random rng = new Random(seed);
+                List<Seminar> matches = new ArrayList<>();
+                for (int i = 0; i < searches; i++) {
+                    matches.clear();
+                    switch (i % 3) {
+                        case 0:
+                            index.searchLocation(rng.nextInt(WORLD), rng
+                                .nextInt(WORLD), RADIUS, matches);
+                            break;
+                        case 1:
+                            int cost = rng.nextInt(1000);
+                            index.searchCost(cost, cost, matches);
+                            break;
+                        default:
+                            index.searchKeyword("k" + rng.nextInt(1000),
+                                matches);
+                            break;
+                    }
+                }
+            });
+        }
+        long[] written = new long[1];
+        Thread writer = new Thread(() -> {
+            Random rng = new Random(SEED - 1);
+            long interval = 1000000000L / writes;
+            long next = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()) {
+                int id = records + rng.nextInt(1000);
+                if (index.delete(id) == null) {
+                    index.insert(seminar(id, rng));
+                }
+                written[0]++;
+                next += interval;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        });
+        writer.setDaemon(true);
+        if (writes > 0) {
+            writer.start();
+        }
+        long start = System.nanoTime();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        writer.interrupt();
+        writer.join();
+        long perSecond = (long)threads * searches * 1000000000L / elapsed;
+        System.out.println(threads + " reader threads, " + ((writes > 0)
+            ? written[0] + " writes"
+            : "no writer") + ": " + elapsed / 1000000 + " ms, " + perSecond
+            + " searches per second");
+    }
+
+
+    // A random seminar with the given ID
+    private static Seminar seminar(int id, Random rng) {
+        return new Seminar(id, "Seminar", "0610051600", 90, rng.nextInt(
+            WORLD), rng.nextInt(WORLD), rng.nextInt(1000), new String[] { "k"
+                + rng.nextInt(1000), "VT" }, "Description");
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A thread-safe set of seminar indexes: the ID, cost, date and keyword
+ * BSTs and the location bintree. None of these is safe to use from several
+ * threads on its own, so this class guards all of them with one
+ * read-write lock. Any number of threads may search at the same time,
+ * while an insert or delete waits for the running searches and holds the
+ * others back until it has updated every index. A search therefore never
+ * sees a seminar in one index but not yet in another.
+ *
+ * Searches collect their results into a list owned by the caller instead
+ * of printing them, since the output sinks are not thread-safe either.
+ * The seminars themselves are immutable and may be shared freely.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class ConcurrentSeminarIndex {
+    private final int worldSize; // World size of the location index
+    private final SemManagerBST semManager; // Applies inserts and deletes
+    private final SeminarStore store; // Primary record store, keyed by ID
+    private final IdBST idBST;
+    private final CostBST costBST;
+    private final DateBST dateBST;
+    private final KeywordBST keywordBST;
+    private final Bintree binLocation;
+    private final Lock readLock; // Shared by searches
+    private final Lock writeLock; // Exclusive to inserts and deletes
+
+    /**
+     * Creates an empty set of indexes for the given world size.
+     *
+     * @param worldSize
+     *            The world size, a power of two.
+     * @param balanced
+     *            True to use self-balancing BSTs for the attribute indexes.
+     */
+    public ConcurrentSeminarIndex(int worldSize, boolean balanced) {
+        this.worldSize = worldSize;
+        semManager = new SemManagerBST(DiscardSink.getInstance());
+        store = new SeminarStore();
+        idBST = new IdBST(balanced, store);
+        costBST = new CostBST(balanced, store);
+        dateBST = new DateBST(balanced, store);
+        keywordBST = new KeywordBST(balanced, store);
+        binLocation = new Bintree();
+        idBST.setOutput(DiscardSink.getInstance());
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        readLock = lock.readLock();
+        writeLock = lock.writeLock();
+    }
+
+
+    /**
+     * Inserts a seminar into every index, unless its coordinates are
+     * outside the world or its ID is already in use.
+     *
+     * @param seminar
+     *            The seminar to insert.
+     * @return True if the seminar was inserted.
+     */
+    public boolean insert(Seminar seminar) {
+        writeLock.lock();
+        try {
+            if (!SemManagerBST.isInRange(seminar.x(), worldSize)
+                || !SemManagerBST.isInRange(seminar.y(), worldSize)
+                || store.find(seminar.id()) >= 0) {
+                return false;
+            }
+            semManager.addSeminarRecord(seminar, worldSize, idBST, costBST,
+                dateBST, keywordBST, binLocation);
+            return true;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    /**
+     * Deletes the seminar with the given ID from every index.
+     *
+     * @param id
+     *            The ID of the seminar to delete.
+     * @return The deleted seminar, or null if there was none with the ID.
+     */
+    public Seminar delete(int id) {
+        writeLock.lock();
+        try {
+            Seminar seminar = store.searchID(id);
+            if (seminar != null) {
+                semManager.deleteSeminarRecord(seminar, worldSize, idBST,
+                    costBST, dateBST, keywordBST, binLocation);
+            }
+            return seminar;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    /**
+     * Gets the number of seminars in the indexes.
+     *
+     * @return The number of seminars.
+     */
+    public int getRecordNumber() {
+        readLock.lock();
+        try {
+            return idBST.getRecordNumber();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Looks up a seminar by its ID.
+     *
+     * @param id
+     *            The ID to look up.
+     * @return The seminar, or null if there is none with the ID.
+     */
+    public Seminar searchID(int id) {
+        readLock.lock();
+        try {
+            return store.searchID(id);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the seminars within an inclusive cost range to a list, in cost
+     * order.
+     *
+     * @param minCost
+     *            The smallest cost in the range.
+     * @param maxCost
+     *            The largest cost in the range.
+     * @param matches
+     *            The list the seminars are added to.
+     * @return The number of seminars added.
+     */
+    public int searchCost(int minCost, int maxCost, List<Seminar> matches) {
+        readLock.lock();
+        try {
+            return costBST.collectRange(minCost, maxCost, matches);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the seminars within an inclusive date range to a list, in date
+     * order.
+     *
+     * @param minDate
+     *            The earliest date in the range.
+     * @param maxDate
+     *            The latest date in the range.
+     * @param matches
+     *            The list the seminars are added to.
+     * @return The number of seminars added.
+     */
+    public int searchDate(
+        String minDate,
+        String maxDate,
+        List<Seminar> matches) {
+        readLock.lock();
+        try {
+            return dateBST.collectRange(minDate, maxDate, matches);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the seminars with a keyword to a list, newest first, which is
+     * the order the keyword search prints them in.
+     *
+     * @param keyword
+     *            The keyword to search for.
+     * @param matches
+     *            The list the seminars are added to.
+     * @return The number of seminars added.
+     */
+    public int searchKeyword(String keyword, List<Seminar> matches) {
+        readLock.lock();
+        try {
+            PostingList postings = keywordBST.getIndex().get(keyword);
+            if (postings == null) {
+                return 0;
+            }
+            for (int i = postings.size() - 1; i >= 0; i--) {
+                matches.add(postings.getSeminar(i));
+            }
+            return postings.size();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the seminars within a radius of a point to a list.
+     *
+     * @param x
+     *            The x-coordinate of the point.
+     * @param y
+     *            The y-coordinate of the point.
+     * @param radius
+     *            The search radius.
+     * @param matches
+     *            The list the seminars are added to.
+     * @return The number of nodes visited in the search.
+     */
+    public int searchLocation(
+        int x,
+        int y,
+        int radius,
+        List<Seminar> matches) {
+        readLock.lock();
+        try {
+            return binLocation.search(x, y, radius, worldSize, matches);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the seminars within an axis-aligned box to a list.
+     *
+     * @param x1
+     *            The x-coordinate of one corner of the box.
+     * @param y1
+     *            The y-coordinate of one corner of the box.
+     * @param x2
+     *            The x-coordinate of the opposite corner.
+     * @param y2
+     *            The y-coordinate of the opposite corner.
+     * @param matches
+     *            The list the seminars are added to.
+     * @return The number of nodes visited in the search.
+     */
+    public int searchBox(
+        int x1,
+        int y1,
+        int x2,
+        int y2,
+        List<Seminar> matches) {
+        readLock.lock();
+        try {
+            return binLocation.box(x1, y1, x2, y2, worldSize, matches);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+
+    /**
+     * Adds the k seminars nearest to a point to a list, nearest first.
+     *
+     * @param x
+     *            The x-coordinate of the point.
+     * @param y
+     *            The y-coordinate of the point.
+     * @param k
+     *            The number of seminars to find.
+     * @param matches
+     *            The list the seminars are added to.
+     * @return The number of nodes visited in the search.
+     */
+    public int searchNearest(int x, int y, int k, List<Seminar> matches) {
+        readLock.lock();
+        try {
+            return binLocation.nearest(x, y, k, worldSize, matches);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+import student.TestCase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class contains test cases for the ConcurrentSeminarIndex class,
+ * including a stress test with several reader threads searching while a
+ * writer thread inserts and deletes.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class ConcurrentSeminarIndexTest extends TestCase {
+    private static final int WORLD = 1024;
+    private static final int STABLE = 400;
+
+    /**
+     * Tests inserts, rejected inserts, deletes and every kind of search on
+     * a single thread.
+     */
+    public void testInsertSearchDelete() {
+        ConcurrentSeminarIndex index = new ConcurrentSeminarIndex(128, false);
+        assertTrue(index.insert(Fixtures.seminar(1, 10, 5, 5, "HCI", "VT")));
+        assertTrue(index.insert(Fixtures.seminar(2, 20, 100, 100, "CS",
+            "VT")));
+        assertTrue(index.insert(Fixtures.seminar(3, 30, 7, 5, "HCI", "VT")));
+        assertFalse(index.insert(Fixtures.seminar(1, 40, 9, 9, "HCI", "VT")));
+        assertFalse(index.insert(Fixtures.seminar(4, 40, 128, 9, "HCI",
+            "VT")));
+        assertEquals(3, index.getRecordNumber());
+
+        assertEquals(20, index.searchID(2).cost());
+        List<Seminar> matches = new ArrayList<>();
+        assertEquals(2, index.searchCost(15, 30, matches));
+        assertEquals(2, matches.get(0).id());
+        matches.clear();
+        assertEquals(3, index.searchDate("0601010000", "0612312359",
+            matches));
+        matches.clear();
+        assertEquals(2, index.searchKeyword("HCI", matches));
+        assertEquals(3, matches.get(0).id());
+        assertEquals(1, matches.get(1).id());
+        matches.clear();
+        index.searchLocation(6, 5, 1, matches);
+        assertEquals(2, matches.size());
+        matches.clear();
+        index.searchBox(90, 90, 127, 127, matches);
+        assertEquals(1, matches.size());
+        matches.clear();
+        index.searchNearest(100, 90, 1, matches);
+        assertEquals(2, matches.get(0).id());
+
+        assertEquals(1, index.delete(1).id());
+        assertNull(index.delete(1));
+        assertNull(index.searchID(1));
+        matches.clear();
+        assertEquals(1, index.searchKeyword("HCI", matches));
+        assertEquals(0, index.searchKeyword("none", matches));
+    }
+
+
+    /**
+     * Runs several reader threads against a writer thread that keeps
+     * inserting and deleting seminars. The stable seminars are never
+     * deleted and the writer's seminars stay out of their cost range,
+     * keyword and half of the world, so every search over them must find
+     * all of them, every time.
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted while waiting for the threads
+     */
+    public void testReadersWithWriter() throws InterruptedException {
+        ConcurrentSeminarIndex index = new ConcurrentSeminarIndex(WORLD,
+            true);
+        Random random = new Random(20);
+        for (int id = 0; id < STABLE; id++) {
+            index.insert(Fixtures.seminar(id, random.nextInt(100), random
+                .nextInt(WORLD / 2), random.nextInt(WORLD), "stable", "VT"));
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            Random writes = new Random(21);
+            try {
+                for (int round = 0; round < 3000; round++) {
+                    int id = STABLE + writes.nextInt(300);
+                    if (index.delete(id) == null) {
+                        index.insert(Fixtures.seminar(id, 100 + writes
+                            .nextInt(100), WORLD / 2 + writes.nextInt(WORLD
+                                / 2), writes.nextInt(WORLD), "churn", "VT"));
+                    }
+                }
+            }
+            catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            long seed = r;
+            readers[r] = new Thread(() -> {
+                Random reads = new Random(seed);
+                List<Seminar> matches = new ArrayList<>();
+                try {
+                    for (int i = 0; i < 1500; i++) {
+                        matches.clear();
+                        check(index.searchCost(0, 99, matches) == STABLE);
+                        matches.clear();
+                        index.searchBox(0, 0, WORLD / 2 - 1, WORLD - 1,
+                            matches);
+                        check(matches.size() == STABLE);
+                        matches.clear();
+                        check(index.searchKeyword("stable",
+                            matches) == STABLE);
+                        check(index.searchID(reads.nextInt(STABLE)) != null);
+                        int records = index.getRecordNumber();
+                        check(records >= STABLE && records <= STABLE + 300);
+                    }
+                }
+                catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+
+
+    // Fails the calling thread when a search saw an inconsistent index
+    private static void check(boolean condition) {
+        if (!condition) {
+            throw new IllegalStateException("Inconsistent search result");
+        }
+    }
+}
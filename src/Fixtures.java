@@ -0,0 +1,33 @@
+/**
+ * Seminars for the test cases. Every field a test does not care about gets
+ * the same fixed value, so a test only names the ID, cost, coordinates and
+ * keywords it checks.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+class Fixtures {
+
+    /**
+     * Creates a seminar titled and described after its ID, held on
+     * 0610051600 for 90 minutes.
+     *
+     * @param id
+     *            The seminar ID
+     * @param cost
+     *            The cost
+     * @param x
+     *            The x-coordinate
+     * @param y
+     *            The y-coordinate
+     * @param keywords
+     *            The keywords
+     * @return The seminar
+     */
+    static Seminar seminar(int id, int cost, int x, int y,
+        String... keywords) {
+        return new Seminar(id, "Seminar " + id, "0610051600", 90, x, y, cost,
+            keywords, "Description " + id);
+    }
+}
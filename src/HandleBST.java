@@ -0,0 +1,494 @@
+import java.util.Arrays;
+
+/**
+ * The shape of a binary search tree whose nodes hold handles of records
+ * kept outside the tree. It owns everything that does not depend on the
+ * key: optional AVL balancing, subtree sizes, the reusable path buffer an
+ * insert or removal walks down and relinks back up, splicing out a node,
+ * building a perfectly balanced tree from sorted nodes, the height, and
+ * the indented print. Subclasses add the key to their nodes and decide
+ * where a key goes, which path it takes and how it is printed.
+ *
+ * @param <N>
+ *            Type of the nodes
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+abstract class HandleBST<N extends HandleBST.HandleNode<N>> {
+    /**
+     * A node of the tree holding the handle of its record. Subclasses add
+     * the key.
+     *
+     * @param <N>
+     *            Type of the nodes
+     */
+    protected static class HandleNode<N extends HandleNode<N>> {
+        /**
+         * The handle of the record.
+         */
+        protected int handle;
+        /**
+         * The left child, or null.
+         */
+        protected N left;
+        /**
+         * The right child, or null.
+         */
+        protected N right;
+        /**
+         * The height of the subtree, only kept in balanced mode.
+         */
+        protected int height;
+        /**
+         * The number of nodes in the subtree rooted here.
+         */
+        protected int size;
+
+        /**
+         * Constructor for a leaf node.
+         *
+         * @param handle
+         *            The handle of the record
+         */
+        public HandleNode(int handle) {
+            this.handle = handle;
+            height = 1;
+            size = 1;
+        }
+
+
+        /**
+         * Gets the handle of the record stored in this node.
+         *
+         * @return The handle
+         */
+        public int getHandle() {
+            return handle;
+        }
+
+
+        /**
+         * Gets the left child node of this node.
+         *
+         * @return The left child, or null
+         */
+        public N getLeft() {
+            return left;
+        }
+
+
+        /**
+         * Gets the right child node of this node.
+         *
+         * @return The right child, or null
+         */
+        public N getRight() {
+            return right;
+        }
+    }
+
+    /**
+     * The root node of the tree, or null when the tree is empty.
+     */
+    protected N root;
+    /**
+     * The count of nodes in the tree.
+     */
+    protected int nodecount;
+    /**
+     * Whether the tree rebalances itself (AVL) after inserts and removals.
+     */
+    protected boolean balanced;
+    /**
+     * The sink all output of this tree is written to. Defaults to the
+     * console.
+     */
+    protected OutputSink output = ConsoleSink.getInstance();
+    private static final int INITIAL_PATH = 32; // Initial path buffer length
+    // Ancestors of the node being updated, reused between inserts/removals
+    private Object[] path = new Object[INITIAL_PATH];
+    // Whether the walk went left (true) or right from each ancestor
+    private boolean[] wentLeft = new boolean[INITIAL_PATH];
+    private int pathUsed; // Entries of path that may still hold references
+
+    /**
+     * Constructor for an empty tree that optionally keeps itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance (AVL) on every insert and removal, false
+     *            for a plain BST
+     */
+    protected HandleBST(boolean balanced) {
+        root = null;
+        nodecount = 0;
+        this.balanced = balanced;
+    }
+
+
+    /**
+     * Sets the sink all output of this tree is written to.
+     *
+     * @param output
+     *            The output sink
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+
+    /**
+     * Checks whether this tree keeps itself balanced.
+     *
+     * @return True if the tree rebalances on insert and removal
+     */
+    public boolean isBalanced() {
+        return balanced;
+    }
+
+
+    /**
+     * Get the number of nodes in the tree.
+     *
+     * @return The number of nodes
+     */
+    public int getSize() {
+        return nodecount;
+    }
+
+
+    /**
+     * Gets the text printed for the key of a node.
+     *
+     * @param node
+     *            The node
+     * @return The key as printed by printhelp
+     */
+    protected abstract String keyText(N node);
+
+
+    /**
+     * Print the tree in an indented format (reverse inorder, with "null" for
+     * every empty child).
+     *
+     * @param rootNode
+     *            The root of the current subtree
+     * @param level
+     *            The current level of the tree
+     */
+    public void printhelp(N rootNode, int level) {
+        Object[] stack = new Object[INITIAL_PATH];
+        int[] levels = new int[INITIAL_PATH];
+        int top = 0;
+        N node = rootNode;
+        while (true) {
+            while (node != null) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                    levels = Arrays.copyOf(levels, top * 2);
+                }
+                stack[top] = node;
+                levels[top++] = level++;
+                node = node.right;
+            }
+            printIndented("null", level);
+            if (top == 0) {
+                return;
+            }
+            node = cast(stack[--top]);
+            level = levels[top];
+            printIndented(keyText(node), level);
+            node = node.left;
+            level++;
+        }
+    }
+
+
+    private void printIndented(String value, int level) {
+        for (int i = 0; i < level; i++) {
+            output.print("  "); // Two spaces per level
+        }
+        output.println(value);
+    }
+
+
+    /**
+     * Get the height of the tree, where an empty tree has height 0.
+     *
+     * @return The number of levels in the tree
+     */
+    public int getHeight() {
+        if (root == null) {
+            return 0;
+        }
+        Object[] stack = new Object[INITIAL_PATH];
+        int[] depths = new int[INITIAL_PATH];
+        int top = 0;
+        int height = 0;
+        stack[top] = root;
+        depths[top++] = 1;
+        while (top > 0) {
+            N current = cast(stack[--top]);
+            int depth = depths[top];
+            height = Math.max(height, depth);
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                depths = Arrays.copyOf(depths, depths.length * 2);
+            }
+            if (current.left != null) {
+                stack[top] = current.left;
+                depths[top++] = depth + 1;
+            }
+            if (current.right != null) {
+                stack[top] = current.right;
+                depths[top++] = depth + 1;
+            }
+        }
+        return height;
+    }
+
+
+    /**
+     * Hangs a new node below the end of the path the insert walked down
+     * and rebalances back up to the root. The path is released afterwards.
+     *
+     * @param node
+     *            The new node
+     * @param depth
+     *            The length of the path
+     */
+    protected void insertAt(N node, int depth) {
+        root = relink(node, depth, 0);
+        releasePath();
+        nodecount++;
+    }
+
+
+    /**
+     * Removes a node found at the end of the path the removal walked down
+     * and rebalances back up to the root. A node with two children is
+     * replaced by the maximum of its left subtree. The path is released
+     * afterwards.
+     *
+     * @param node
+     *            The node to remove
+     * @param depth
+     *            The length of the path to the node
+     */
+    protected void removeAt(N node, int depth) {
+        N replacement;
+        if (node.left == null) {
+            replacement = node.right;
+        }
+        else if (node.right == null) {
+            replacement = node.left;
+        }
+        else {
+            N max = getMax(node.left);
+            max.left = deleteMax(node.left, depth);
+            max.right = node.right;
+            replacement = balance(max);
+        }
+        root = relink(replacement, depth, 0);
+        releasePath();
+        nodecount--;
+    }
+
+
+    /**
+     * Records that a walk passed a node, and in which direction it went.
+     *
+     * @param index
+     *            The depth of the node on the path
+     * @param node
+     *            The node
+     * @param left
+     *            True if the walk went left from the node
+     */
+    protected void pushPath(int index, N node, boolean left) {
+        if (index == path.length) {
+            path = Arrays.copyOf(path, index * 2);
+            wentLeft = Arrays.copyOf(wentLeft, index * 2);
+        }
+        path[index] = node;
+        wentLeft[index] = left;
+        if (index >= pathUsed) {
+            pathUsed = index + 1;
+        }
+    }
+
+
+    /**
+     * Gets a node on the current path.
+     *
+     * @param index
+     *            The depth of the node on the path
+     * @return The node
+     */
+    protected N pathNode(int index) {
+        return cast(path[index]);
+    }
+
+
+    /**
+     * Checks in which direction the walk went from a node on the path.
+     *
+     * @param index
+     *            The depth of the node on the path
+     * @return True if the walk went left
+     */
+    protected boolean pathWentLeft(int index) {
+        return wentLeft[index];
+    }
+
+
+    /**
+     * Drops the references the path holds once a walk is finished.
+     */
+    protected void releasePath() {
+        Arrays.fill(path, 0, pathUsed, null);
+        pathUsed = 0;
+    }
+
+
+    /**
+     * Builds a perfectly balanced tree over a range of sorted nodes, every
+     * subtree rooted at the middle node of its range.
+     *
+     * @param nodes
+     *            The nodes in key order
+     * @param low
+     *            The first node of the range
+     * @param high
+     *            The last node of the range
+     * @return The root of the subtree, or null for an empty range
+     */
+    protected N build(N[] nodes, int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int middle = (low + high) >>> 1;
+        N node = nodes[middle];
+        node.left = build(nodes, low, middle - 1);
+        node.right = build(nodes, middle + 1, high);
+        updateHeight(node);
+        updateSize(node);
+        return node;
+    }
+
+
+    /**
+     * Gets the number of nodes in a subtree.
+     *
+     * @param node
+     *            The root of the subtree, or null
+     * @return The number of nodes
+     */
+    protected int size(N node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private N cast(Object node) {
+        return (N)node;
+    }
+
+
+    private N getMax(N node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+
+    // Removes the maximum node of a subtree, recording its path from base
+    private N deleteMax(N node, int base) {
+        int depth = base;
+        while (node.right != null) {
+            pushPath(depth++, node, false);
+            node = node.right;
+        }
+        return relink(node.left, depth, base);
+    }
+
+
+    // Hangs child below path[depth - 1], then updates sizes (and balance)
+    // of every ancestor back up to path[base]; returns the subtree root
+    private N relink(N child, int depth, int base) {
+        for (int i = depth - 1; i >= base; i--) {
+            N parent = cast(path[i]);
+            if (wentLeft[i]) {
+                parent.left = child;
+            }
+            else {
+                parent.right = child;
+            }
+            child = balance(parent);
+        }
+        return child;
+    }
+
+
+    private N balance(N node) {
+        updateSize(node);
+        if (!balanced) {
+            return node;
+        }
+        updateHeight(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+
+    private int height(N node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+
+    private void updateHeight(N node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+
+    private void updateSize(N node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+
+    private N rotateRight(N node) {
+        N newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        updateHeight(node);
+        updateHeight(newRoot);
+        updateSize(node);
+        updateSize(newRoot);
+        return newRoot;
+    }
+
+
+    private N rotateLeft(N node) {
+        N newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        updateHeight(node);
+        updateHeight(newRoot);
+        updateSize(node);
+        updateSize(newRoot);
+        return newRoot;
+    }
+}
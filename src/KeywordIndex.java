@@ -0,0 +1,450 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An inverted keyword index. Every distinct keyword maps to a posting list
+ * of the seminars that carry it, so a keyword search is a single hash lookup
+ * followed by a sequential scan instead of a walk over a chain of equal keys
+ * in the keyword BST.
+ *
+ * Posting lists hold the handles the record store gave the seminars, and
+ * each posting is stamped with the insertion sequence number of its
+ * seminar in the store. Lists are kept sorted by that stamp. Appending is
+ * therefore O(1), removal is a binary search, and walking a list from the
+ * back yields the seminars newest first, which is the order in which the
+ * keyword BST reports equal keys.
+ *
+ * Boolean queries combine keywords with AND, OR and NOT. Because every list
+ * is sorted by the same stamps, they are evaluated by intersecting and
+ * merging stamp-ordered lists.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class KeywordIndex {
+    private HashMap<String, PostingList> lists; // Posting list per keyword
+    private SeminarStore store; // Resolves the handles in the lists
+
+    /**
+     * Creates an empty keyword index with a record store of its own.
+     */
+    public KeywordIndex() {
+        this(new SeminarStore());
+    }
+
+
+    /**
+     * Creates an empty keyword index that holds handles of the records in
+     * the given store.
+     *
+     * @param store
+     *            The record store, which may be shared with other indexes.
+     */
+    public KeywordIndex(SeminarStore store) {
+        lists = new HashMap<>();
+        this.store = store;
+    }
+
+
+    /**
+     * Gets the record store the handles in the posting lists refer to.
+     *
+     * @return The record store.
+     */
+    public SeminarStore getStore() {
+        return store;
+    }
+
+
+    /**
+     * Adds a seminar to the posting list of each of the given keywords.
+     * The seminar is added to the record store if it is not there yet.
+     *
+     * @param seminar
+     *            The seminar to add.
+     * @param keywords
+     *            The keywords the seminar is listed under.
+     */
+    public void add(Seminar seminar, String... keywords) {
+        int handle = store.add(seminar);
+        int stamp = store.getSequence(handle);
+        for (String keyword : keywords) {
+            PostingList list = lists.get(keyword);
+            if (list == null) {
+                list = new PostingList(store);
+                lists.put(keyword, list);
+            }
+            list.add(stamp, handle);
+        }
+    }
+
+
+    /**
+     * Removes a seminar from the posting list of one keyword.
+     *
+     * @param keyword
+     *            The keyword to remove the seminar from.
+     * @param seminar
+     *            The seminar to remove, found in the store by its ID.
+     * @return True if the seminar was listed under the keyword.
+     */
+    public boolean remove(String keyword, Seminar seminar) {
+        int handle = store.find(seminar.id());
+        return handle >= 0 && remove(keyword, handle);
+    }
+
+
+    /**
+     * Removes the seminar with a handle from the posting list of one
+     * keyword.
+     *
+     * @param keyword
+     *            The keyword to remove the seminar from.
+     * @param handle
+     *            The handle of the seminar in the record store.
+     * @return True if the seminar was listed under the keyword.
+     */
+    public boolean remove(String keyword, int handle) {
+        PostingList list = lists.get(keyword);
+        if (list == null || !list.remove(store.getSequence(handle),
+            handle)) {
+            return false;
+        }
+        if (list.size() == 0) {
+            lists.remove(keyword);
+        }
+        return true;
+    }
+
+
+    /**
+     * Gets the distinct keywords in the index.
+     *
+     * @return A view of the keywords with at least one seminar.
+     */
+    public Set<String> getKeywords() {
+        return lists.keySet();
+    }
+
+
+    /**
+     * Gets the insertion stamp of a seminar. Stamps grow with every seminar
+     * added, so sorting seminars by stamp puts them in insertion order.
+     *
+     * @param seminar
+     *            The seminar to look up.
+     * @return The stamp, or -1 if the seminar is not in the record store.
+     */
+    public int getStamp(Seminar seminar) {
+        int handle = store.find(seminar.id());
+        return (handle < 0) ? -1 : store.getSequence(handle);
+    }
+
+
+    /**
+     * Gets the posting list of a keyword.
+     *
+     * @param keyword
+     *            The keyword to look up.
+     * @return The posting list, or null if no seminar has the keyword.
+     */
+    public PostingList get(String keyword) {
+        return lists.get(keyword);
+    }
+
+
+    /**
+     * Evaluates a boolean keyword query. The query is a sequence of
+     * keywords joined by the operators AND, OR and NOT, where AND binds
+     * tighter than OR, NOT negates the keyword that follows it, and two
+     * keywords without an operator between them are joined by AND. For
+     * example "HCI AND VT NOT Biology OR CSE" matches the seminars with
+     * HCI and VT but not Biology, plus the seminars with CSE.
+     *
+     * Within each AND group the posting lists are intersected smallest
+     * first, so a rare keyword keeps the work small even when it is
+     * combined with very common ones.
+     *
+     * @param words
+     *            The words of the query.
+     * @return The matching seminars, in ascending stamp order.
+     * @throws IllegalArgumentException
+     *             If the query is empty, has an operator without a keyword
+     *             after it, or has an AND group with only negated keywords.
+     */
+    public PostingList query(String[] words) {
+        PostingList result = new PostingList(store);
+        List<String> required = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        boolean expectKeyword = true;
+        boolean negate = false;
+        for (String word : words) {
+            if ("NOT".equals(word) && !negate) {
+                negate = true;
+                expectKeyword = true;
+            }
+            else if ("AND".equals(word) || "OR".equals(word)
+                || "NOT".equals(word)) {
+                if (expectKeyword) {
+                    throw new IllegalArgumentException(
+                        "Missing keyword before " + word);
+                }
+                if ("OR".equals(word)) {
+                    result = union(result, evaluate(required, excluded));
+                    required.clear();
+                    excluded.clear();
+                }
+                expectKeyword = true;
+            }
+            else {
+                if (negate) {
+                    excluded.add(word);
+                }
+                else {
+                    required.add(word);
+                }
+                negate = false;
+                expectKeyword = false;
+            }
+        }
+        if (expectKeyword) {
+            throw new IllegalArgumentException("Missing keyword at end of "
+                + "query");
+        }
+        return union(result, evaluate(required, excluded));
+    }
+
+
+    /**
+     * Gets the number of distinct keywords in the index.
+     *
+     * @return The number of keywords with at least one seminar.
+     */
+    public int getKeywordCount() {
+        return lists.size();
+    }
+
+
+    // Intersects the required lists, smallest first, and drops every
+    // seminar found in an excluded list
+    private PostingList evaluate(
+        List<String> required,
+        List<String> excluded) {
+        if (required.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Each AND group needs a keyword that is not negated");
+        }
+        PostingList[] lists = new PostingList[required.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = this.lists.get(required.get(i));
+            if (lists[i] == null) {
+                return new PostingList(store); // A keyword nobody has
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+        PostingList result = new PostingList(store);
+        PostingList smallest = lists[0];
+        for (int i = 0; i < smallest.size(); i++) {
+            int stamp = smallest.getStamp(i);
+            if (i > 0 && smallest.getStamp(i - 1) == stamp) {
+                continue; // Keyword listed twice by the same seminar
+            }
+            boolean match = true;
+            for (int j = 1; j < lists.length && match; j++) {
+                match = lists[j].contains(stamp);
+            }
+            for (int j = 0; j < excluded.size() && match; j++) {
+                PostingList list = this.lists.get(excluded.get(j));
+                match = list == null || !list.contains(stamp);
+            }
+            if (match) {
+                result.add(stamp, smallest.getHandle(i));
+            }
+        }
+        return result;
+    }
+
+
+    // Merges two stamp-ordered lists, keeping each seminar once
+    private PostingList union(PostingList a, PostingList b) {
+        if (a.size() == 0) {
+            return b;
+        }
+        if (b.size() == 0) {
+            return a;
+        }
+        PostingList result = new PostingList(store);
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            if (j == b.size()
+                || (i < a.size() && a.getStamp(i) <= b.getStamp(j))) {
+                if (j < b.size() && a.getStamp(i) == b.getStamp(j)) {
+                    j++;
+                }
+                result.add(a.getStamp(i), a.getHandle(i));
+                i++;
+            }
+            else {
+                result.add(b.getStamp(j), b.getHandle(j));
+                j++;
+            }
+        }
+        return result;
+    }
+}
+
+
+
+
+/**
+ * The seminars listed under one keyword, kept as record store handles in
+ * two parallel arrays sorted by insertion stamp.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class PostingList {
+    private static final int INITIAL_CAPACITY = 4;
+    private int[] stamps; // Insertion stamps, in ascending order
+    private int[] handles; // Handle of the seminar for each stamp
+    private int count; // Number of postings in use
+    private SeminarStore store; // Resolves the handles
+
+    /**
+     * Creates an empty posting list.
+     *
+     * @param store
+     *            The record store the handles refer to.
+     */
+    public PostingList(SeminarStore store) {
+        stamps = new int[INITIAL_CAPACITY];
+        handles = new int[INITIAL_CAPACITY];
+        count = 0;
+        this.store = store;
+    }
+
+
+    /**
+     * Gets the number of postings.
+     *
+     * @return The number of seminars in the list.
+     */
+    public int size() {
+        return count;
+    }
+
+
+    /**
+     * Gets the seminar at a position of the list.
+     *
+     * @param index
+     *            The position, 0 being the oldest posting.
+     * @return The seminar at the position.
+     */
+    public Seminar getSeminar(int index) {
+        return store.get(handles[index]);
+    }
+
+
+    /**
+     * Gets the record store handle at a position of the list.
+     *
+     * @param index
+     *            The position, 0 being the oldest posting.
+     * @return The handle of the seminar at the position.
+     */
+    public int getHandle(int index) {
+        return handles[index];
+    }
+
+
+    /**
+     * Gets the insertion stamp at a position of the list.
+     *
+     * @param index
+     *            The position, 0 being the oldest posting.
+     * @return The stamp at the position.
+     */
+    public int getStamp(int index) {
+        return stamps[index];
+    }
+
+
+    /**
+     * Checks whether a seminar with the given insertion stamp is listed.
+     *
+     * @param stamp
+     *            The insertion stamp to look for.
+     * @return True if the stamp is in the list.
+     */
+    public boolean contains(int stamp) {
+        return Arrays.binarySearch(stamps, 0, count, stamp) >= 0;
+    }
+
+
+    /**
+     * Adds a posting in stamp order. Stamps are handed out in increasing
+     * order, so the new posting nearly always belongs at the end; only a
+     * seminar listed again after its postings were removed goes further
+     * back.
+     *
+     * @param stamp
+     *            The insertion stamp of the seminar.
+     * @param handle
+     *            The handle of the seminar.
+     */
+    public void add(int stamp, int handle) {
+        if (count == stamps.length) {
+            stamps = Arrays.copyOf(stamps, count * 2);
+            handles = Arrays.copyOf(handles, count * 2);
+        }
+        int index = count;
+        while (index > 0 && stamps[index - 1] > stamp) {
+            index--;
+        }
+        System.arraycopy(stamps, index, stamps, index + 1, count - index);
+        System.arraycopy(handles, index, handles, index + 1, count - index);
+        stamps[index] = stamp;
+        handles[index] = handle;
+        count++;
+    }
+
+
+    /**
+     * Removes one posting of a seminar.
+     *
+     * @param stamp
+     *            The insertion stamp of the seminar.
+     * @param handle
+     *            The handle of the seminar to remove.
+     * @return True if the posting was found and removed.
+     */
+    public boolean remove(int stamp, int handle) {
+        int index = Arrays.binarySearch(stamps, 0, count, stamp);
+        if (index < 0) {
+            return false;
+        }
+        // A seminar listing a keyword twice has equal stamps side by side
+        while (index > 0 && stamps[index - 1] == stamp) {
+            index--;
+        }
+        while (index < count && stamps[index] == stamp
+            && handles[index] != handle) {
+            index++;
+        }
+        if (index == count || stamps[index] != stamp) {
+            return false;
+        }
+        count--;
+        System.arraycopy(stamps, index + 1, stamps, index, count - index);
+        System.arraycopy(handles, index + 1, handles, index, count - index);
+        return true;
+    }
+}
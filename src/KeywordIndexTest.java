@@ -0,0 +1,184 @@
+import student.TestCase;
+
+/**
+ * This class contains test cases for the KeywordIndex class and its posting
+ * lists, and for keyword search through the KeywordBST that keeps them.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class KeywordIndexTest extends TestCase {
+
+    /**
+     * Tests that posting lists keep seminars in insertion order and drop
+     * empty keywords.
+     */
+    public void testAddAndRemove() {
+        KeywordIndex index = new KeywordIndex();
+        Seminar first = Fixtures.seminar(5, 30, 0, 0, "VT", "HCI");
+        Seminar second = Fixtures.seminar(1, 30, 0, 0, "VT");
+        Seminar third = Fixtures.seminar(3, 30, 0, 0, "VT", "Biology");
+        index.add(first, first.keywords());
+        index.add(second, second.keywords());
+        index.add(third, third.keywords());
+        assertEquals(3, index.getKeywordCount());
+
+        PostingList postings = index.get("VT");
+        assertEquals(3, postings.size());
+        assertSame(first, postings.getSeminar(0));
+        assertSame(third, postings.getSeminar(2));
+        assertTrue(postings.getStamp(0) < postings.getStamp(1));
+
+        assertTrue(index.remove("VT", second));
+        assertFalse(index.remove("VT", second));
+        assertFalse(index.remove("Biology", first));
+        assertEquals(2, postings.size());
+        assertSame(third, postings.getSeminar(1));
+
+        assertTrue(index.remove("HCI", first));
+        assertNull(index.get("HCI"));
+        assertEquals(2, index.getKeywordCount());
+        assertNull(index.get("Missing"));
+    }
+
+
+    /**
+     * Tests a seminar that lists the same keyword twice.
+     */
+    public void testRepeatedKeyword() {
+        KeywordIndex index = new KeywordIndex();
+        Seminar twice = Fixtures.seminar(1, 30, 0, 0, "VT", "VT");
+        Seminar other = Fixtures.seminar(2, 30, 0, 0, "VT");
+        index.add(twice, twice.keywords());
+        index.add(other, other.keywords());
+        assertEquals(3, index.get("VT").size());
+        assertTrue(index.remove("VT", twice));
+        assertTrue(index.remove("VT", twice));
+        assertFalse(index.remove("VT", twice));
+        assertSame(other, index.get("VT").getSeminar(0));
+    }
+
+
+    /**
+     * Tests that keyword search reports seminars newest first and follows
+     * removals, matching the order of the equal keys in the tree.
+     */
+    public void testKeywordSearchOrder() {
+        KeywordBST keywordBST = new KeywordBST();
+        CollectingSink sink = new CollectingSink();
+        keywordBST.setOutput(sink);
+        Seminar[] seminars = new Seminar[4];
+        for (int i = 0; i < seminars.length; i++) {
+            seminars[i] = Fixtures.seminar(10 - i, 30, 0, 0, "VT", "K" + i);
+            keywordBST.insertSeminar(seminars[i], seminars[i].keywords());
+        }
+        assertTrue(keywordBST.removeSeminar("VT", seminars[1].id()));
+        assertFalse(keywordBST.removeSeminar("VT", seminars[1].id()));
+        keywordBST.searchAndPrintByKeyword("VT");
+        String text = sink.getText();
+        assertTrue(text.startsWith("Seminars matching keyword VT:"));
+        int id7 = text.indexOf("ID: 7,");
+        int id8 = text.indexOf("ID: 8,");
+        int id10 = text.indexOf("ID: 10,");
+        assertTrue(id7 > 0 && id7 < id8 && id8 < id10);
+        assertEquals(-1, text.indexOf("ID: 9,"));
+        assertEquals(7, keywordBST.getRecordNumber());
+
+        sink.clear();
+        keywordBST.searchAndPrintByKeyword("None");
+        assertFuzzyEquals("Seminars matching keyword None:", sink.getText());
+    }
+
+
+    private String ids(PostingList list) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < list.size(); i++) {
+            text.append(list.getSeminar(i).id()).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+
+    /**
+     * Tests AND, OR and NOT queries, implicit AND and repeated matches.
+     */
+    public void testQuery() {
+        KeywordIndex index = new KeywordIndex();
+        Seminar[] seminars = { Fixtures.seminar(1, 30, 0, 0, "HCI", "VT"),
+            Fixtures.seminar(2, 30, 0, 0, "VT", "Biology"), Fixtures.seminar(
+                3, 30, 0, 0, "HCI", "VT", "Biology"), Fixtures.seminar(4, 30,
+                    0, 0, "CSE", "VT"), Fixtures.seminar(5, 30, 0, 0, "HCI",
+                        "HCI") };
+        for (Seminar s : seminars) {
+            index.add(s, s.keywords());
+        }
+        assertEquals("1 3", ids(index.query(new String[] { "VT", "AND",
+            "HCI" })));
+        assertEquals("1", ids(index.query(new String[] { "HCI", "AND", "VT",
+            "NOT", "Biology" })));
+        assertEquals("1", ids(index.query(new String[] { "HCI", "VT", "AND",
+            "NOT", "Biology" })));
+        assertEquals("1 3 4 5", ids(index.query(new String[] { "HCI", "OR",
+            "CSE" })));
+        assertEquals("1 3 4", ids(index.query(new String[] { "HCI", "VT",
+            "OR", "CSE", "OR", "VT", "HCI" })));
+        assertEquals("5", ids(index.query(new String[] { "HCI", "NOT",
+            "VT" })));
+        assertEquals("", ids(index.query(new String[] { "HCI", "Missing" })));
+        assertEquals("2 4", ids(index.query(new String[] { "VT", "NOT",
+            "HCI", "NOT", "Missing" })));
+    }
+
+
+    /**
+     * Tests that malformed queries are rejected and reported.
+     */
+    public void testBadQueries() {
+        KeywordIndex index = new KeywordIndex();
+        String[][] queries = { {}, { "AND", "VT" }, { "VT", "OR" }, { "VT",
+            "OR", "AND", "HCI" }, { "NOT", "VT" }, { "VT", "NOT", "NOT",
+                "HCI" } };
+        for (String[] query : queries) {
+            Exception exception = null;
+            try {
+                index.query(query);
+            }
+            catch (IllegalArgumentException e) {
+                exception = e;
+            }
+            assertNotNull(exception);
+        }
+
+        KeywordBST keywordBST = new KeywordBST();
+        CollectingSink sink = new CollectingSink();
+        keywordBST.setOutput(sink);
+        keywordBST.searchAndPrintByKeywords(new String[] { "VT", "OR" });
+        assertTrue(sink.getText().startsWith(
+            "Search FAILED -- Bad keyword query VT OR:"));
+    }
+
+
+    /**
+     * Tests that a boolean query prints its matches newest first.
+     */
+    public void testPrintQuery() {
+        KeywordBST keywordBST = new KeywordBST();
+        CollectingSink sink = new CollectingSink();
+        keywordBST.setOutput(sink);
+        for (int i = 1; i <= 3; i++) {
+            Seminar s = Fixtures.seminar(i, 30, 0, 0, "VT", i == 2
+                ? "Biology"
+                : "HCI");
+            keywordBST.insertSeminar(s, s.keywords());
+        }
+        keywordBST.searchAndPrintByKeywords(new String[] { "VT", "NOT",
+            "Biology" });
+        String text = sink.getText();
+        assertTrue(text.startsWith(
+            "Seminars matching keywords VT NOT Biology:"));
+        assertEquals(-1, text.indexOf("ID: 2,"));
+        assertTrue(text.indexOf("ID: 3,") < text.indexOf("ID: 1,"));
+    }
+}
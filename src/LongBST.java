@@ -0,0 +1,454 @@
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Binary Search Tree specialized for primitive long keys. Equal keys go
+ * left, a node with two children is replaced by the maximum of its left
+ * subtree, and the tree optionally balances itself (AVL) and keeps subtree
+ * sizes. Each node keeps its key as a primitive long next to an int handle
+ * of its value, so lookups, inserts and range scans allocate no boxed key
+ * and compare keys directly. Int keys (IDs, costs) widen to long for free,
+ * and dates are packed into longs by DateBST.
+ *
+ * The values themselves live outside the tree, and a resolver given to the
+ * constructor turns a handle back into its value. A node is removed by its
+ * key and handle, so removal compares two ints instead of two references.
+ *
+ * The balancing, subtree sizes, path buffer and printing come from
+ * HandleBST. This class adds the key, the walks that compare it, bulk
+ * loading and the rank based range queries.
+ *
+ * @param <V>
+ *            Type of the values
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class LongBST<V> extends HandleBST<LongBST<V>.LongNode> {
+    /**
+     * A node of the tree holding a long key and the handle of its value.
+     */
+    protected class LongNode extends HandleNode<LongNode> {
+        private long key;
+
+        /**
+         * Constructor for an LongNode.
+         *
+         * @param key
+         *            The key
+         * @param handle
+         *            The handle of the value
+         */
+        public LongNode(long key, int handle) {
+            super(handle);
+            this.key = key;
+        }
+
+
+        /**
+         * Gets the key stored in this node.
+         *
+         * @return The key
+         */
+        public long getKey() {
+            return key;
+        }
+
+
+        /**
+         * Gets the value stored in this node.
+         *
+         * @return The value
+         */
+        public V getValue() {
+            return resolver.apply(handle);
+        }
+    }
+
+    /**
+     * Whether equal keys may sit on both sides of a node, which rotations
+     * and bulk loads allow.
+     */
+    protected boolean splitEquals;
+    private IntFunction<V> resolver; // Turns a handle into its value
+    private static final int INITIAL_STACK = 32; // Initial walk stack length
+
+    /**
+     * Constructor for an empty tree.
+     *
+     * @param resolver
+     *            Turns the handle of a node into its value
+     */
+    public LongBST(IntFunction<V> resolver) {
+        this(false, resolver);
+    }
+
+
+    /**
+     * Constructor for an empty tree that optionally keeps itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance (AVL) on every insert and removal, false
+     *            for a plain BST
+     * @param resolver
+     *            Turns the handle of a node into its value
+     */
+    public LongBST(boolean balanced, IntFunction<V> resolver) {
+        super(balanced);
+        splitEquals = balanced;
+        this.resolver = resolver;
+    }
+
+
+    /**
+     * Insert a key and the handle of its value into the tree.
+     *
+     * @param key
+     *            The key
+     * @param handle
+     *            The handle of the value
+     */
+    public void insert(long key, int handle) {
+        int depth = 0;
+        LongNode node = root;
+        while (node != null) {
+            boolean left = key <= node.key;
+            pushPath(depth++, node, left);
+            node = left ? node.left : node.right;
+        }
+        insertAt(new LongNode(key, handle), depth);
+    }
+
+
+    /**
+     * Finds the value of a node with the given key.
+     *
+     * @param key
+     *            The key to find
+     * @return The value of the first node found with the key, or null
+     */
+    public V find(long key) {
+        LongNode node = findNode(key);
+        return (node == null) ? null : resolver.apply(node.handle);
+    }
+
+
+    /**
+     * Finds the handle of the value of a node with the given key.
+     *
+     * @param key
+     *            The key to find
+     * @return The handle of the first node found with the key, or -1
+     */
+    public int findHandle(long key) {
+        LongNode node = findNode(key);
+        return (node == null) ? -1 : node.handle;
+    }
+
+
+    /**
+     * Checks if the tree contains a key.
+     *
+     * @param key
+     *            The key to search for
+     * @return True if the key is found, false otherwise
+     */
+    public boolean containsKey(long key) {
+        return findNode(key) != null;
+    }
+
+
+    private LongNode findNode(long key) {
+        LongNode node = root;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            }
+            else if (key > node.key) {
+                node = node.right;
+            }
+            else {
+                return node;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Replaces the contents of the tree with a perfectly balanced tree over
+     * the given entries, every subtree rooted at the middle entry of its
+     * range. The keys are sorted with a stable merge sort on the primitive
+     * array, in O(n log n).
+     *
+     * @param keys
+     *            The keys in insertion order; reordered by this method
+     * @param handles
+     *            The handle of the value of each key; reordered along with
+     *            the keys
+     * @param count
+     *            The number of entries to use from the arrays
+     */
+    public void bulkLoad(long[] keys, int[] handles, int count) {
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int handle = handles[i];
+            handles[i] = handles[j];
+            handles[j] = handle;
+        }
+        sortByKey(keys, handles, count);
+        LongNode[] nodes = newStack(count);
+        for (int i = 0; i < count; i++) {
+            nodes[i] = new LongNode(keys[i], handles[i]);
+        }
+        root = build(nodes, 0, count - 1);
+        nodecount = count;
+        splitEquals = true;
+    }
+
+
+    // Bottom-up merge sort of the first count entries by key. It is stable,
+    // so equal keys keep their order.
+    private void sortByKey(long[] keys, int[] handles, int count) {
+        long[] fromKeys = keys;
+        int[] fromValues = handles;
+        long[] toKeys = new long[count];
+        int[] toValues = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count; low += 2 * width) {
+                int middle = Math.min(low + width, count);
+                int high = Math.min(middle + width, count);
+                int i = low;
+                int j = middle;
+                for (int k = low; k < high; k++) {
+                    if (j == high || (i < middle && fromKeys[i] <= fromKeys[
+                        j])) {
+                        toKeys[k] = fromKeys[i];
+                        toValues[k] = fromValues[i++];
+                    }
+                    else {
+                        toKeys[k] = fromKeys[j];
+                        toValues[k] = fromValues[j++];
+                    }
+                }
+            }
+            long[] swapKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swapKeys;
+            int[] swapValues = fromValues;
+            fromValues = toValues;
+            toValues = swapValues;
+        }
+        if (fromKeys != keys) {
+            System.arraycopy(fromKeys, 0, keys, 0, count);
+            System.arraycopy(fromValues, 0, handles, 0, count);
+        }
+    }
+
+
+    /**
+     * Gets the text printed for the key of a node.
+     *
+     * @param node
+     *            The node
+     * @return The key as printed by printhelp
+     */
+    protected String keyText(LongNode node) {
+        return Long.toString(node.key);
+    }
+
+
+    /**
+     * Removes the node with the given key that holds the given handle. The
+     * record count only drops when such a node was found.
+     *
+     * @param key
+     *            The key of the node to remove.
+     * @param handle
+     *            The handle of the value of the node to remove.
+     * @return True if a node was removed, false if none matched.
+     */
+    public boolean remove(long key, int handle) {
+        int depth = 0;
+        LongNode current = root;
+        while (true) {
+            if (current == null) {
+                depth = backtrack(depth, key);
+                if (depth < 0) {
+                    releasePath();
+                    return false; // Node not found, nothing to delete
+                }
+                current = pathNode(depth - 1).right;
+                continue;
+            }
+            if (current.key > key) {
+                pushPath(depth++, current, true);
+                current = current.left;
+            }
+            else if (current.key < key) {
+                pushPath(depth++, current, false);
+                current = current.right;
+            }
+            else if (current.handle == handle) {
+                break;
+            }
+            else {
+                pushPath(depth++, current, true);
+                current = current.left;
+            }
+        }
+        removeAt(current, depth);
+        return true;
+    }
+
+
+    // Rotations and bulk builds may have put equal keys to the right of an
+    // equal key. Resumes the search on the right of the deepest equal
+    // ancestor whose left side was already searched, returning the new path
+    // length, or -1 when there is nowhere left to look.
+    private int backtrack(int depth, long key) {
+        if (!splitEquals) {
+            return -1;
+        }
+        while (depth > 0) {
+            LongNode ancestor = pathNode(depth - 1);
+            if (pathWentLeft(depth - 1) && ancestor.key == key) {
+                pushPath(depth - 1, ancestor, false);
+                return depth;
+            }
+            depth--;
+        }
+        return -1;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private LongNode[] newStack(int length) {
+        return (LongNode[])Array.newInstance(LongNode.class, length);
+    }
+
+
+    /**
+     * Counts the entries whose keys fall in an inclusive range from the
+     * subtree sizes, in two root-to-leaf walks.
+     *
+     * @param min
+     *            The smallest key in the range
+     * @param max
+     *            The largest key in the range
+     * @return The number of entries in the range
+     */
+    public int countRange(long min, long max) {
+        if (min > max) {
+            return 0;
+        }
+        return rank(max, true) - rank(min, false);
+    }
+
+
+    /**
+     * Adds the values of all entries whose keys fall in an inclusive range
+     * to a list, in key order.
+     *
+     * @param min
+     *            The smallest key in the range
+     * @param max
+     *            The largest key in the range
+     * @param values
+     *            The list the values are added to
+     * @return The number of values added
+     */
+    public int collectRange(long min, long max, List<V> values) {
+        return collectRange(min, max, 0, Integer.MAX_VALUE, values);
+    }
+
+
+    /**
+     * Adds the values of a window of the entries in an inclusive key range
+     * to a list, in key order, starting directly at the first entry of the
+     * window.
+     *
+     * @param min
+     *            The smallest key in the range
+     * @param max
+     *            The largest key in the range
+     * @param offset
+     *            The number of entries in the range to skip
+     * @param limit
+     *            The largest number of values to add
+     * @param values
+     *            The list the values are added to
+     * @return The number of values added
+     */
+    public int collectRange(
+        long min,
+        long max,
+        int offset,
+        int limit,
+        List<V> values) {
+        if (min > max || offset < 0 || limit <= 0) {
+            return 0;
+        }
+        int start = rank(min, false) + offset;
+        if (start < offset) {
+            return 0; // The offset is so large the position overflowed
+        }
+        LongNode[] stack = newStack(INITIAL_STACK);
+        int top = 0;
+        LongNode current = root;
+        int position = start;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (position > leftSize) {
+                position -= leftSize + 1;
+                current = current.right;
+                continue;
+            }
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+            }
+            stack[top++] = current;
+            current = (position == leftSize) ? null : current.left;
+        }
+
+        int added = 0;
+        while (top > 0 && added < limit) {
+            current = stack[--top];
+            if (current.key > max) {
+                break;
+            }
+            values.add(resolver.apply(current.handle));
+            added++;
+            current = current.right;
+            while (current != null) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = current;
+                current = current.left;
+            }
+        }
+        return added;
+    }
+
+
+    // Counts the entries with keys below key, or at most key when inclusive
+    private int rank(long key, boolean inclusive) {
+        int count = 0;
+        LongNode node = root;
+        while (node != null) {
+            if (node.key < key || (inclusive && node.key == key)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+            else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import student.TestCase;
+
+/**
+ * This class contains test cases for the LongBST class, checking its
+ * inserts, removals, range queries and bulk loads against a plain list of
+ * the entries it should hold. Equal keys go left, so an inorder walk lists
+ * them newest first. The trees hold handles into a list of names, so a
+ * handle is the position of its value in the list.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class LongBSTTest extends TestCase {
+
+    private List<String> names = new ArrayList<>(); // Value per handle
+    private List<Integer> keyOf = new ArrayList<>(); // Key per handle
+
+    // Adds a value to the names and returns its handle
+    private int handle(String value) {
+        return handle(value, 0);
+    }
+
+
+    // Adds a value with its key and returns its handle
+    private int handle(String value, int key) {
+        names.add(value);
+        keyOf.add(key);
+        return names.size() - 1;
+    }
+
+
+    // The values of the given handles in inorder: by key, newest first
+    private List<String> inorder(List<Integer> handles) {
+        List<Integer> sorted = new ArrayList<>(handles);
+        sorted.sort(Comparator.comparing((Integer handle) -> keyOf.get(
+            handle)).thenComparing(Comparator.reverseOrder()));
+        List<String> values = new ArrayList<>();
+        for (int handle : sorted) {
+            values.add(names.get(handle));
+        }
+        return values;
+    }
+
+
+    private String print(LongBST<String> tree) {
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        tree.printhelp(tree.root, 0);
+        return sink.getText();
+    }
+
+
+    /**
+     * Tests random inserts and removals with duplicate keys against a list
+     * of the entries, in plain and in balanced mode.
+     */
+    public void testMatchesModel() {
+        for (boolean balanced : new boolean[] { false, true }) {
+            Random random = new Random(balanced ? 7 : 8);
+            LongBST<String> tree = new LongBST<>(balanced, names::get);
+            List<Integer> handles = new ArrayList<>();
+            for (int step = 0; step < 600; step++) {
+                if (handles.isEmpty() || random.nextInt(3) > 0) {
+                    int key = random.nextInt(60) - 10;
+                    int handle = handle("v" + step, key);
+                    tree.insert(key, handle);
+                    handles.add(handle);
+                }
+                else {
+                    int handle = handles.remove(random.nextInt(handles
+                        .size()));
+                    assertTrue(tree.remove(keyOf.get(handle), handle));
+                }
+                int min = random.nextInt(60) - 10;
+                int max = min + random.nextInt(20);
+                int expected = 0;
+                for (int handle : handles) {
+                    if (keyOf.get(handle) >= min && keyOf.get(handle) <= max) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, tree.countRange(min, max));
+            }
+            assertEquals(handles.size(), tree.getSize());
+            assertEquals(2 * handles.size() + 1, print(tree).split("\n")
+                .length);
+            if (balanced) {
+                assertTrue(tree.getHeight() <= 11);
+            }
+
+            List<String> all = new ArrayList<>();
+            tree.collectRange(-10, 49, all);
+            assertEquals(inorder(handles), all);
+            List<Integer> window = new ArrayList<>();
+            for (int handle : handles) {
+                if (keyOf.get(handle) >= 0 && keyOf.get(handle) <= 30) {
+                    window.add(handle);
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            tree.collectRange(0, 30, 3, 25, actual);
+            assertEquals(inorder(window).subList(3, 28), actual);
+        }
+    }
+
+
+    /**
+     * Tests that a bulk loaded tree is perfectly balanced, lists equal keys
+     * in the same order as a tree built by inserts, and still finds and
+     * removes every entry.
+     */
+    public void testBulkLoad() {
+        Random random = new Random(11);
+        int count = 1000;
+        LongBST<String> inserted = new LongBST<>(names::get);
+        LongBST<String> loaded = new LongBST<>(names::get);
+        long[] keys = new long[count];
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            int key = random.nextInt(200);
+            keys[i] = key;
+            handles[i] = handle("v" + i, key);
+            inserted.insert(key, handles[i]);
+        }
+        loaded.bulkLoad(keys, handles, count);
+        assertEquals(count, loaded.getSize());
+        assertEquals(10, loaded.getHeight());
+
+        List<String> expected = new ArrayList<>();
+        List<String> bulk = new ArrayList<>();
+        inserted.collectRange(0, 199, expected);
+        loaded.collectRange(0, 199, bulk);
+        assertEquals(expected, bulk);
+
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(inserted.remove(keyOf.get(i), i));
+            assertTrue(loaded.remove(keyOf.get(i), i));
+        }
+        expected.clear();
+        bulk.clear();
+        inserted.collectRange(0, 199, expected);
+        loaded.collectRange(0, 199, bulk);
+        assertEquals(count / 2, expected.size());
+        assertEquals(expected, bulk);
+    }
+
+
+    /**
+     * Tests lookups, including missing keys and removal of a value that is
+     * not in the tree.
+     */
+    public void testFindAndRemove() {
+        LongBST<String> tree = new LongBST<>(names::get);
+        assertNull(tree.find(5));
+        assertEquals(-1, tree.findHandle(5));
+        assertEquals(0, tree.getHeight());
+        tree.insert(5, handle("five"));
+        tree.insert(Integer.MIN_VALUE, handle("min"));
+        tree.insert(Integer.MAX_VALUE, handle("max"));
+        assertEquals("five", tree.find(5));
+        assertEquals("min", tree.find(Integer.MIN_VALUE));
+        assertTrue(tree.containsKey(Integer.MAX_VALUE));
+        assertFalse(tree.containsKey(6));
+        assertEquals(3, tree.countRange(Integer.MIN_VALUE,
+            Integer.MAX_VALUE));
+        assertEquals(0, tree.countRange(Integer.MAX_VALUE + 1L,
+            Long.MAX_VALUE));
+
+        assertFalse(tree.remove(5, handle("other")));
+        assertEquals("five", tree.find(5));
+        assertEquals(3, tree.getSize());
+        assertTrue(tree.remove(5, tree.findHandle(5)));
+        assertNull(tree.find(5));
+        assertEquals(2, tree.getSize());
+        assertFalse(tree.remove(5, handle("five")));
+        assertEquals(2, tree.getSize());
+        assertFalse(tree.isBalanced());
+    }
+}
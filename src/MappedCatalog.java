@@ -0,0 +1,598 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A read-only seminar catalog that is searched in place through a memory
+ * mapping of its file. Opening a catalog only maps the file and reads its
+ * header, so it takes the same time for any number of seminars, and the
+ * heap never holds more than the seminars a search prints.
+ *
+ * The file starts with a header of ten ints: a magic number, the version,
+ * the world size, the number of seminars and of keywords, and the offsets
+ * of the ID, cost, date, keyword and bintree sections. The seminars come
+ * first, each as its length followed by the encoding the write-ahead log
+ * uses. Every other section refers to a seminar by the offset of its
+ * record:
+ *
+ * - The ID and cost sections are arrays of (key, record) int pairs sorted
+ * by key, and the date section is an array of (packed date, record) pairs
+ * with the date packed into a long the way DateBST packs it. They are
+ * searched by binary search, and equal keys keep the order the trees they
+ * were written from report them in.
+ * - The keyword section is an array of (name, postings, count) entries
+ * sorted by the encoded names, followed by the names and by the posting
+ * lists, which hold the records newest first.
+ * - The bintree section is the tree in preorder as an int array: -1 for an
+ * empty node, -2 and the positions of its two children for an internal
+ * node, or a seminar count followed by an ID and coordinates per seminar
+ * for a leaf. A location search reads the IDs and coordinates in place, so
+ * it decodes no seminar at all, and visits exactly the nodes the Bintree
+ * it was written from would.
+ *
+ * Offsets are ints, so a catalog is limited to 2 GB.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class MappedCatalog {
+    private static final int MAGIC = 0x53454d43; // "SEMC"
+    private static final int VERSION = 1;
+    private static final int HEADER = 40; // Ten ints
+    private static final int PAIR = 8; // Bytes per ID or cost entry
+    private static final int DATED = 12; // Bytes per date entry
+    private static final int KEYWORD = 12; // Bytes per keyword entry
+    private static final int EMPTY = -1; // Bintree word of an empty node
+    private static final int INTERNAL = -2; // Bintree word of internal node
+
+    private final ByteBuffer map; // The whole file, read only
+    private final int worldSize;
+    private final int count; // Number of seminars
+    private final int keywordCount; // Number of distinct keywords
+    private final int ids; // Offset of the ID section
+    private final int costs; // Offset of the cost section
+    private final int dates; // Offset of the date section
+    private final int keywords; // Offset of the keyword section
+    private final int bintree; // Offset of the bintree section
+    private OutputSink output; // Sink all output of this catalog goes to
+
+    /**
+     * Opens a catalog file by mapping it into memory.
+     *
+     * @param file
+     *            The catalog file.
+     * @throws IOException
+     *             If the file cannot be mapped or is not a seminar catalog.
+     */
+    public MappedCatalog(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a seminar catalog: " + file);
+            }
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        worldSize = map.getInt(8);
+        count = map.getInt(12);
+        keywordCount = map.getInt(16);
+        ids = map.getInt(20);
+        costs = map.getInt(24);
+        dates = map.getInt(28);
+        keywords = map.getInt(32);
+        bintree = map.getInt(36);
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION
+            || count < 0 || keywordCount < 0 || ids < HEADER
+            || costs != ids + count * PAIR || dates != costs + count * PAIR
+            || keywords != dates + count * DATED
+            || bintree < keywords + keywordCount * KEYWORD
+            || bintree > map.limit() - 4) {
+            throw new IOException("Not a seminar catalog: " + file);
+        }
+        output = ConsoleSink.getInstance();
+    }
+
+
+    /**
+     * Writes the seminars held by a set of indexes to a catalog file,
+     * replacing any file already there. The file is written to a temporary
+     * file, forced to disk and then moved into place.
+     *
+     * @param file
+     *            The catalog file.
+     * @param worldSize
+     *            The world size of the bintree.
+     * @param idBST
+     *            The binary search tree for seminar records by ID.
+     * @param costBST
+     *            The binary search tree for seminar records by cost.
+     * @param dateBST
+     *            The binary search tree for seminar records by date.
+     * @param keywordBST
+     *            The binary search tree for seminar records by keywords.
+     * @param binLocation
+     *            The bintree for seminar records location.
+     * @return The number of seminars written.
+     * @throws IOException
+     *             If the catalog cannot be written or would exceed 2 GB.
+     */
+    public static int write(
+        File file,
+        int worldSize,
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation)
+        throws IOException {
+        List<Seminar> byId = new ArrayList<>();
+        idBST.collectRange(Long.MIN_VALUE, Long.MAX_VALUE, byId);
+        List<Seminar> byCost = new ArrayList<>();
+        costBST.collectRange(Long.MIN_VALUE, Long.MAX_VALUE, byCost);
+        List<Seminar> byDate = new ArrayList<>();
+        dateBST.collectRange(Long.MIN_VALUE, Long.MAX_VALUE, byDate);
+        KeywordIndex index = keywordBST.getIndex();
+
+        Path path = file.toPath();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel),
+                    1 << 16));
+            out.write(new byte[HEADER]); // Written last, once it is known
+            IdentityHashMap<Seminar, Integer> records =
+                new IdentityHashMap<>();
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            DataOutputStream recordData = new DataOutputStream(record);
+            for (Seminar seminar : byId) {
+                records.put(seminar, out.size());
+                record.reset();
+                SeminarLog.writeSeminar(recordData, seminar);
+                out.writeInt(record.size());
+                record.writeTo(out);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putInt(worldSize).putInt(
+                byId.size()).putInt(index.getKeywordCount());
+            header.putInt(out.size());
+            for (Seminar seminar : byId) {
+                out.writeInt(seminar.id());
+                out.writeInt(records.get(seminar));
+            }
+            header.putInt(out.size());
+            for (Seminar seminar : byCost) {
+                out.writeInt(seminar.cost());
+                out.writeInt(records.get(seminar));
+            }
+            header.putInt(out.size());
+            for (Seminar seminar : byDate) {
+                out.writeLong(DateBST.pack(seminar.date()));
+                out.writeInt(records.get(seminar));
+            }
+            header.putInt(out.size());
+            writeKeywords(out, index, records);
+            header.putInt(out.size());
+            writeNode(out, binLocation.getRoot(), 0, 0);
+            out.flush();
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("The catalog would exceed 2 GB");
+            }
+
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        return byId.size();
+    }
+
+
+    /**
+     * Sets the sink all output of this catalog is written to.
+     *
+     * @param output
+     *            The output sink.
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+
+    /**
+     * Gets the world size the catalog was written for.
+     *
+     * @return The world size.
+     */
+    public int getWorldSize() {
+        return worldSize;
+    }
+
+
+    /**
+     * Gets the number of seminars in the catalog.
+     *
+     * @return The number of seminars.
+     */
+    public int getRecordNumber() {
+        return count;
+    }
+
+
+    /**
+     * Looks up a seminar by its ID.
+     *
+     * @param id
+     *            The ID to look up.
+     * @return The seminar, or null if there is none with the ID.
+     */
+    public Seminar searchID(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int key = map.getInt(ids + middle * PAIR);
+            if (key < id) {
+                low = middle + 1;
+            }
+            else if (key > id) {
+                high = middle - 1;
+            }
+            else {
+                return record(map.getInt(ids + middle * PAIR + 4));
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Prints the seminars within an inclusive cost range in cost order,
+     * followed by the number of index entries visited.
+     *
+     * @param minCost
+     *            The smallest cost in the range.
+     * @param maxCost
+     *            The largest cost in the range.
+     * @return The number of index entries visited.
+     */
+    public int searchAndPrintCostRange(int minCost, int maxCost) {
+        int low = 0;
+        int high = count;
+        int visited = 0;
+        while (low < high) { // First entry with a cost of at least minCost
+            int middle = (low + high) >>> 1;
+            visited++;
+            if (map.getInt(costs + middle * PAIR) < minCost) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < count; i++) {
+            visited++;
+            if (map.getInt(costs + i * PAIR) > maxCost) {
+                break;
+            }
+            output.println(record(map.getInt(costs + i * PAIR + 4))
+                .toString());
+        }
+        output.println(visited + " index entries visited in this search");
+        return visited;
+    }
+
+
+    /**
+     * Prints the seminars within an inclusive date range in date order,
+     * followed by the number of index entries visited. Dates compare as
+     * strings, exactly as in DateBST.
+     *
+     * @param minDate
+     *            The earliest date in the range.
+     * @param maxDate
+     *            The latest date in the range.
+     * @return The number of index entries visited.
+     */
+    public int searchAndPrintDateRange(String minDate, String maxDate) {
+        long min = DateBST.pack(minDate);
+        long max = DateBST.pack(maxDate);
+        boolean exact = DateBST.isExact(min) && DateBST.isExact(max);
+        int low = 0;
+        int high = count;
+        int visited = 0;
+        while (low < high) { // First entry packed at or after min
+            int middle = (low + high) >>> 1;
+            visited++;
+            if (map.getLong(dates + middle * DATED) < min) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < count; i++) {
+            visited++;
+            if (map.getLong(dates + i * DATED) > max) {
+                break;
+            }
+            Seminar seminar = record(map.getInt(dates + i * DATED + 8));
+            // Inexact bounds may tie with dates outside the range
+            if (exact || (seminar.date().compareTo(minDate) >= 0 && seminar
+                .date().compareTo(maxDate) <= 0)) {
+                output.println(seminar.toString());
+            }
+        }
+        output.println(visited + " index entries visited in this search");
+        return visited;
+    }
+
+
+    /**
+     * Prints the seminars with a keyword, newest first, under the same
+     * heading as the keyword search of KeywordBST.
+     *
+     * @param keyword
+     *            The keyword to search for.
+     * @return The number of seminars printed.
+     */
+    public int searchAndPrintByKeyword(String keyword) {
+        output.println("Seminars matching keyword " + keyword + ":");
+        byte[] name = encode(keyword);
+        int low = 0;
+        int high = keywordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = keywords + middle * KEYWORD;
+            int compare = compareName(name, map.getInt(entry));
+            if (compare > 0) {
+                low = middle + 1;
+            }
+            else if (compare < 0) {
+                high = middle - 1;
+            }
+            else {
+                int postings = map.getInt(entry + 4);
+                int size = map.getInt(entry + 8);
+                for (int i = 0; i < size; i++) {
+                    output.println(record(map.getInt(postings + i * 4))
+                        .toString());
+                }
+                return size;
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Prints the ID and coordinates of every seminar within a radius
+     * (inclusive) of a point, followed by the number of bintree nodes
+     * visited, exactly like Bintree.search.
+     *
+     * @param x
+     *            The x-coordinate of the search point.
+     * @param y
+     *            The y-coordinate of the search point.
+     * @param radius
+     *            The search radius.
+     * @return The number of nodes visited in the search.
+     */
+    public int search(int x, int y, int radius) {
+        int visited = 0;
+        if (radius >= 0) {
+            visited = search(0, x, y, (long)radius * radius, 0, 0, worldSize,
+                worldSize, 0);
+        }
+        output.println(visited + " nodes visited in this search");
+        return visited;
+    }
+
+
+    // Searches the subtree whose node starts at the given bintree word,
+    // printing its matches in preorder like Bintree.search
+    private int search(
+        int word,
+        int x,
+        int y,
+        long radiusSquared,
+        int x0,
+        int y0,
+        int width,
+        int height,
+        int level) {
+        int node = bintree + word * 4;
+        int tag = map.getInt(node);
+        if (tag == EMPTY) {
+            return 1;
+        }
+        if (tag != INTERNAL) {
+            for (int i = 0; i < tag; i++) {
+                int slot = node + 4 + i * 12;
+                int seminarX = map.getInt(slot + 4);
+                int seminarY = map.getInt(slot + 8);
+                if (Bintree.distanceSquared(x, y, seminarX,
+                    seminarY) <= radiusSquared) {
+                    output.println("Found a record with key value " + map
+                        .getInt(slot) + " at " + seminarX + ", " + seminarY);
+                }
+            }
+            return 1;
+        }
+        int count = 1;
+        int first = (level % 2 == 0) ? 0 : 2;
+        int newWidth = Bintree.childWidth(level, width);
+        int newHeight = Bintree.childHeight(level, height);
+        for (int child = 0; child < 2; child++) {
+            int newX0 = Bintree.childX0(first + child, x0, width);
+            int newY0 = Bintree.childY0(first + child, y0, height);
+            if (Bintree.boxDistanceSquared(x, y, newX0, newY0, newWidth,
+                newHeight) <= radiusSquared) {
+                count += search(map.getInt(node + 4 + child * 4), x, y,
+                    radiusSquared, newX0, newY0, newWidth, newHeight, level
+                        + 1);
+            }
+        }
+        return count;
+    }
+
+
+    // Decodes the seminar whose record starts at the given offset
+    private Seminar record(int offset) {
+        byte[] bytes = new byte[map.getInt(offset)];
+        map.get(offset + 4, bytes);
+        try {
+            return SeminarLog.readSeminar(new DataInputStream(
+                new ByteArrayInputStream(bytes)));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Damaged catalog record", e);
+        }
+    }
+
+
+    // Compares an encoded keyword with the encoded name stored at an
+    // offset, as unsigned bytes
+    private int compareName(byte[] name, int offset) {
+        int length = 2 + (map.getShort(offset) & 0xffff);
+        int shared = Math.min(name.length, length);
+        for (int i = 0; i < shared; i++) {
+            int compare = Integer.compare(name[i] & 0xff, map.get(offset + i)
+                & 0xff);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return Integer.compare(name.length, length);
+    }
+
+
+    // Encodes a keyword the way it is stored: its length, then its
+    // modified UTF-8 bytes
+    private static byte[] encode(String keyword) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            new DataOutputStream(bytes).writeUTF(keyword);
+        }
+        catch (IOException e) {
+            return new byte[0]; // Too long to be a stored keyword
+        }
+        return bytes.toByteArray();
+    }
+
+
+    // Writes the keyword entries sorted by encoded name, then the names,
+    // then the posting lists, newest first
+    private static void writeKeywords(
+        DataOutputStream out,
+        KeywordIndex index,
+        IdentityHashMap<Seminar, Integer> records)
+        throws IOException {
+        String[] names = index.getKeywords().toArray(new String[0]);
+        byte[][] encoded = new byte[names.length][];
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < names.length; i++) {
+            encoded[i] = encode(names[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded[a],
+            encoded[b]));
+
+        int name = out.size() + names.length * KEYWORD;
+        int postings = name;
+        for (byte[] bytes : encoded) {
+            postings += bytes.length;
+        }
+        for (int i : order) {
+            int size = index.get(names[i]).size();
+            out.writeInt(name);
+            out.writeInt(postings);
+            out.writeInt(size);
+            name += encoded[i].length;
+            postings += size * 4;
+        }
+        for (int i : order) {
+            out.write(encoded[i]);
+        }
+        for (int i : order) {
+            PostingList list = index.get(names[i]);
+            for (int j = list.size() - 1; j >= 0; j--) {
+                out.writeInt(records.get(list.getSeminar(j)));
+            }
+        }
+    }
+
+
+    // Writes a subtree in preorder, given the bintree word it starts at
+    private static void writeNode(
+        DataOutputStream out,
+        BintreeNode node,
+        int level,
+        int word)
+        throws IOException {
+        if (node == null || node.isEmpty()) {
+            out.writeInt(EMPTY);
+        }
+        else if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode)node;
+            out.writeInt(leaf.getCount());
+            for (int i = 0; i < leaf.getCount(); i++) {
+                Seminar seminar = leaf.getSeminar(i);
+                out.writeInt(seminar.id());
+                out.writeInt(seminar.x());
+                out.writeInt(seminar.y());
+            }
+        }
+        else {
+            InternalNode internal = (InternalNode)node;
+            int first = (level % 2 == 0) ? 0 : 2;
+            BintreeNode left = internal.getChild(first);
+            BintreeNode right = internal.getChild(first + 1);
+            int leftWord = word + 3;
+            int rightWord = leftWord + words(left, level + 1);
+            out.writeInt(INTERNAL);
+            out.writeInt(leftWord);
+            out.writeInt(rightWord);
+            writeNode(out, left, level + 1, leftWord);
+            writeNode(out, right, level + 1, rightWord);
+        }
+    }
+
+
+    // The number of bintree words a subtree is written as
+    private static int words(BintreeNode node, int level) {
+        if (node == null || node.isEmpty()) {
+            return 1;
+        }
+        if (node.isLeaf()) {
+            return 1 + 3 * ((LeafNode)node).getCount();
+        }
+        InternalNode internal = (InternalNode)node;
+        int first = (level % 2 == 0) ? 0 : 2;
+        return 3 + words(internal.getChild(first), level + 1) + words(internal
+            .getChild(first + 1), level + 1);
+    }
+}
@@ -0,0 +1,183 @@
+import student.TestCase;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * This class contains test cases for the MappedCatalog class and for
+ * running commands against a catalog with CatalogProcessor.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class MappedCatalogTest extends TestCase {
+    private static final int WORLD = 256;
+    private File file;
+
+    /**
+     * Creates a fresh catalog file name for each test.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created
+     */
+    public void setUp() throws IOException {
+        file = File.createTempFile("seminars", ".catalog");
+        file.delete();
+    }
+
+
+    /**
+     * Removes the catalog file after each test.
+     */
+    public void tearDown() {
+        file.delete();
+    }
+
+
+    /**
+     * Tests that every supported search prints the same seminars in the
+     * same order from the catalog as from the trees it was written from,
+     * including equal keys, inexact date bounds and deleted seminars, and
+     * that location searches also visit the same number of nodes.
+     *
+     * @throws IOException
+     *             If a command file cannot be written
+     */
+    public void testMatchesTrees() throws IOException {
+        Random random = new Random(23);
+        StringBuilder inserts = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            inserts.append("insert " + random.nextInt(1500) + "\nTitle " + i
+                + "\n06" + (10 + random.nextInt(3)) + "051600 90 "
+                + random.nextInt(WORLD) + " " + random.nextInt(WORLD) + " "
+                + random.nextInt(60) + "\nk" + random.nextInt(20) + " k"
+                + random.nextInt(40) + "\nDescription " + i + "\n");
+        }
+        for (int i = 0; i < 300; i++) {
+            inserts.append("delete " + random.nextInt(1500) + "\n");
+        }
+        inserts.append("catalog save " + file.getPath() + "\n");
+        CollectingSink trees = new CollectingSink();
+        CommandProcessor processor = new CommandProcessor(WORLD, false,
+            trees);
+        assertTrue(processor.processCommandsFromFile(commands(inserts
+            .toString())));
+        assertTrue(trees.getText().contains("records to catalog"));
+
+        StringBuilder searches = new StringBuilder();
+        StringBuilder locations = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            int cost = random.nextInt(70) - 5;
+            searches.append("search ID " + random.nextInt(1600) + "\n"
+                + "search cost " + cost + " " + (cost + random.nextInt(10))
+                + "\nsearch keyword k" + random.nextInt(45) + "\n");
+            locations.append("search location " + random.nextInt(WORLD) + " "
+                + random.nextInt(WORLD) + " " + (random.nextInt(40) - 1)
+                + "\n");
+        }
+        searches.append("search date 0 1\nsearch date 0611 0612x\n"
+            + "search date 0610051600 0611051600\nsearch keyword k\n");
+
+        MappedCatalog catalog = new MappedCatalog(file);
+        String expected = run(processor, trees, searches);
+        assertTrue(expected.contains("Cost: "));
+        assertEquals(expected, run(catalog, searches));
+        expected = run(processor, trees, locations);
+        assertTrue(expected.contains("Found a record with key value"));
+        assertEquals(expected, run(catalog, locations));
+    }
+
+
+    /**
+     * Tests that commands which would change the catalog or need the trees
+     * are rejected, that an unknown catalog action is reported, and that a
+     * file which is not a catalog cannot be opened.
+     *
+     * @throws IOException
+     *             If a command file cannot be written
+     */
+    public void testReadOnly() throws IOException {
+        CollectingSink sink = new CollectingSink();
+        CommandProcessor processor = new CommandProcessor(128, false, sink);
+        processor.processCommandsFromFile("Insert_input.txt");
+        processor.processCommandsFromFile(commands("catalog sav " + file
+            .getPath() + "\ncatalog save " + file.getPath() + "\n"));
+        assertTrue(sink.getText().contains(
+            "Catalog FAILED -- Unknown action sav"));
+        MappedCatalog mapped = new MappedCatalog(file);
+        assertEquals(4, mapped.getRecordNumber());
+        assertEquals(128, mapped.getWorldSize());
+        assertEquals(45, mapped.searchID(1).cost());
+        assertNull(mapped.searchID(4));
+
+        String[] args = { "128", commands("insert 7\nTitle\n0610051600 90 "
+            + "1 1 1\nVT\nDescription\ndelete 1\nprint ID\nsearch ID 1\n"
+            + "search box 0 0 10 10\n"), "catalog=" + file.getPath() };
+        SemSearch.main(args);
+        String output = systemOut().getHistory();
+        assertTrue(output.contains("Insert FAILED - The catalog is "
+            + "read-only, so record with ID 7 was not inserted"));
+        assertTrue(output.contains("Delete FAILED -- The catalog is "
+            + "read-only, so record with ID 1 was not deleted"));
+        assertTrue(output.contains("Print FAILED -- The catalog has no "
+            + "trees"));
+        assertTrue(output.contains("Found record with ID 1:"));
+        assertTrue(output.contains("Search FAILED -- The catalog does not "
+            + "support search box"));
+
+        args[0] = "256";
+        SemSearch.main(args);
+        assertTrue(systemErr().getHistory().contains(
+            "The catalog was written for a world-size of 128"));
+
+        Exception exception = null;
+        try {
+            new MappedCatalog(new File("Insert_input.txt"));
+        }
+        catch (IOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    // Runs commands against the trees and returns what they printed, with
+    // the node counts of cost and date searches left out
+    private static String run(
+        CommandProcessor processor,
+        CollectingSink sink,
+        CharSequence commands)
+        throws IOException {
+        int start = sink.getText().length();
+        processor.processCommandsFromFile(commands(commands.toString()));
+        String text = sink.getText().substring(start);
+        if (commands.toString().contains("search location")) {
+            return text;
+        }
+        return text.replaceAll("\\d+ nodes visited in this search\\R", "");
+    }
+
+
+    // Runs commands against the catalog and returns what it printed, with
+    // the entry counts of cost and date searches left out
+    private static String run(MappedCatalog catalog, CharSequence commands)
+        throws IOException {
+        CollectingSink sink = new CollectingSink();
+        new CatalogProcessor(catalog, sink).processCommandsFromFile(commands(
+            commands.toString()));
+        return sink.getText().replaceAll(
+            "\\d+ index entries visited in this search\\R", "");
+    }
+
+
+    // Writes commands to a temporary file that is removed on exit
+    private static String commands(String text) throws IOException {
+        File commands = File.createTempFile("commands", ".txt");
+        commands.deleteOnExit();
+        Files.write(commands.toPath(), text.getBytes());
+        return commands.getPath();
+    }
+}
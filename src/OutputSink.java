@@ -0,0 +1,304 @@
+/**
+ * A destination for the text that commands print. The indexes write all of
+ * their results through an OutputSink instead of System.out, so the caller
+ * decides whether output is written straight to the console, buffered and
+ * written once per command, collected in memory, or thrown away.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+
+interface OutputSink {
+    /**
+     * Writes text without a line separator.
+     *
+     * @param text
+     *            The text to write.
+     */
+    void print(String text);
+
+
+    /**
+     * Writes text followed by the platform line separator, the same way
+     * PrintStream.println does.
+     *
+     * @param text
+     *            The text to write.
+     */
+    void println(String text);
+
+
+    /**
+     * Makes everything written so far visible at the final destination.
+     */
+    void flush();
+
+}
+
+
+
+
+/**
+ * An OutputSink that writes every call straight to whatever System.out is at
+ * the time of the call. This is the default sink of every index, so code
+ * that redirects System.out keeps seeing their output.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class ConsoleSink implements OutputSink {
+    private static ConsoleSink instance = new ConsoleSink();
+
+    private ConsoleSink() {
+    }
+
+
+    /**
+     * Returns the singleton console sink.
+     *
+     * @return The singleton instance of the console sink.
+     */
+    public static ConsoleSink getInstance() {
+        return instance;
+    }
+
+
+    /**
+     * Writes text to System.out.
+     *
+     * @param text
+     *            The text to write.
+     */
+    public void print(String text) {
+        System.out.print(text);
+    }
+
+
+    /**
+     * Writes a line to System.out.
+     *
+     * @param text
+     *            The text to write.
+     */
+    public void println(String text) {
+        System.out.println(text);
+    }
+
+
+    /**
+     * Flushes System.out.
+     */
+    public void flush() {
+        System.out.flush();
+    }
+
+}
+
+
+
+
+/**
+ * An OutputSink that collects text in memory and hands it to System.out in a
+ * single write on flush, or earlier once the buffer grows past its limit.
+ * One synchronized console write per command replaces one per result line.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class BufferedSink implements OutputSink {
+    /**
+     * The number of buffered characters that triggers an early flush.
+     */
+    public static final int DEFAULT_LIMIT = 1 << 16;
+
+    private static final String NEWLINE = System.lineSeparator();
+    private StringBuilder buffer; // Text written since the last flush
+    private int limit; // Buffer length that forces a flush
+
+    /**
+     * Constructs a buffered sink with the default flush limit.
+     */
+    public BufferedSink() {
+        this(DEFAULT_LIMIT);
+    }
+
+
+    /**
+     * Constructs a buffered sink that flushes once it holds more than the
+     * given number of characters.
+     *
+     * @param limit
+     *            The flush limit in characters.
+     */
+    public BufferedSink(int limit) {
+        this.limit = limit;
+        buffer = new StringBuilder(limit);
+    }
+
+
+    /**
+     * Buffers text.
+     *
+     * @param text
+     *            The text to write.
+     */
+    public void print(String text) {
+        buffer.append(text);
+        if (buffer.length() > limit) {
+            flush();
+        }
+    }
+
+
+    /**
+     * Buffers a line.
+     *
+     * @param text
+     *            The text to write.
+     */
+    public void println(String text) {
+        buffer.append(text).append(NEWLINE);
+        if (buffer.length() > limit) {
+            flush();
+        }
+    }
+
+
+    /**
+     * Writes the buffered text to System.out and empties the buffer.
+     */
+    public void flush() {
+        if (buffer.length() > 0) {
+            System.out.print(buffer);
+            buffer.setLength(0);
+        }
+        System.out.flush();
+    }
+
+}
+
+
+
+
+/**
+ * An OutputSink that keeps everything written to it in memory, e.g. for
+ * tests or for callers that post-process results.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class CollectingSink implements OutputSink {
+    private static final String NEWLINE = System.lineSeparator();
+    private StringBuilder text = new StringBuilder(); // Everything written
+
+    /**
+     * Collects text.
+     *
+     * @param value
+     *            The text to write.
+     */
+    public void print(String value) {
+        text.append(value);
+    }
+
+
+    /**
+     * Collects a line.
+     *
+     * @param value
+     *            The text to write.
+     */
+    public void println(String value) {
+        text.append(value).append(NEWLINE);
+    }
+
+
+    /**
+     * Does nothing; collected text is always visible through getText().
+     */
+    public void flush() {
+        // Nothing to flush
+    }
+
+
+    /**
+     * Gets everything written so far.
+     *
+     * @return The collected text.
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+
+    /**
+     * Discards everything collected so far.
+     */
+    public void clear() {
+        text.setLength(0);
+    }
+
+}
+
+
+
+
+/**
+ * An OutputSink that discards everything, for benchmarking the indexes
+ * without the cost of producing output.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class DiscardSink implements OutputSink {
+    private static DiscardSink instance = new DiscardSink();
+
+    private DiscardSink() {
+    }
+
+
+    /**
+     * Returns the singleton discarding sink.
+     *
+     * @return The singleton instance of the discarding sink.
+     */
+    public static DiscardSink getInstance() {
+        return instance;
+    }
+
+
+    /**
+     * Discards text.
+     *
+     * @param text
+     *            The text to write.
+     */
+    public void print(String text) {
+        // Discarded
+    }
+
+
+    /**
+     * Discards a line.
+     *
+     * @param text
+     *            The text to write.
+     */
+    public void println(String text) {
+        // Discarded
+    }
+
+
+    /**
+     * Does nothing.
+     */
+    public void flush() {
+        // Nothing to flush
+    }
+
+}
@@ -0,0 +1,83 @@
+import student.TestCase;
+
+/**
+ * This class contains test cases for the OutputSink implementations and for
+ * routing command output through a sink.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class OutputSinkTest extends TestCase {
+
+    /**
+     * Tests that a buffered sink holds text back until it is flushed or
+     * grows past its limit.
+     */
+    public void testBufferedSink() {
+        systemOut().clearHistory();
+        BufferedSink sink = new BufferedSink(16);
+        sink.print("Leaf ");
+        sink.println("E");
+        assertEquals("", systemOut().getHistory());
+        sink.flush();
+        assertEquals("Leaf E\n", systemOut().getHistory());
+
+        systemOut().clearHistory();
+        sink.println("0123456789abcdefg");
+        assertEquals("0123456789abcdefg\n", systemOut().getHistory());
+    }
+
+
+    /**
+     * Tests that a collecting sink keeps everything until it is cleared.
+     */
+    public void testCollectingSink() {
+        CollectingSink sink = new CollectingSink();
+        sink.print("a");
+        sink.println("b");
+        sink.flush();
+        assertEquals("ab" + System.lineSeparator(), sink.getText());
+        sink.clear();
+        assertEquals("", sink.getText());
+    }
+
+
+    /**
+     * Tests that the indexes write through the sink they are given.
+     */
+    public void testIndexOutput() {
+        systemOut().clearHistory();
+        CollectingSink sink = new CollectingSink();
+        IdBST idBST = new IdBST();
+        idBST.setOutput(sink);
+        Bintree bintree = new Bintree();
+        bintree.setOutput(sink);
+
+        idBST.printIDTree();
+        bintree.preorderTraversal();
+        assertFuzzyEquals("ID Tree:\nThis tree is empty\nLocation Tree:\nE\n",
+            sink.getText());
+
+        idBST.setOutput(DiscardSink.getInstance());
+        idBST.printIDTree();
+        assertEquals("", systemOut().getHistory());
+    }
+
+
+    /**
+     * Tests that a command file's output goes only to the processor's sink.
+     */
+    public void testCommandProcessorSink() {
+        systemOut().clearHistory();
+        CollectingSink sink = new CollectingSink();
+        CommandProcessor processor = new CommandProcessor(128, false, sink);
+        assertTrue(processor.processCommandsFromFile("print_input.txt"));
+        assertEquals("", systemOut().getHistory());
+        assertFuzzyEquals("ID Tree:\nThis tree is empty\n"
+            + "Cost Tree:\nThis tree is empty\n"
+            + "Date Tree:\nThis tree is empty\n"
+            + "Keyword Tree:\nThis tree is empty\n", sink.getText());
+    }
+}
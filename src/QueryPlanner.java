@@ -0,0 +1,911 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plans and runs compound searches such as
+ * "search where cost 20 50 date 0610010000 0610312359 location 10 10 30".
+ * All predicates must hold for a seminar to match.
+ *
+ * Each predicate estimates how many seminars its own index would return.
+ * The planner drives the search from the predicate with the smallest
+ * estimate, collects only that index's candidates, and checks the other
+ * predicates directly on the candidate Seminar objects, so no other range
+ * is ever materialized.
+ *
+ * When even the best index would return a large share of the seminars,
+ * walking it costs more than checking every seminar. The search is then
+ * driven by a scan of the columns of the record store instead, which
+ * checks all predicates on primitive arrays and only touches the Seminar
+ * objects that match.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class QueryPlanner {
+    /**
+     * The share of the seminars, as a divisor, above which the best index
+     * is expected to be slower than a column scan.
+     */
+    static final int SCAN_SHARE = 10;
+    /**
+     * The fewest seminars for which a column scan is considered at all.
+     */
+    static final int MIN_SCAN_RECORDS = 4096;
+    private IdBST idBST;
+    private CostBST costBST;
+    private DateBST dateBST;
+    private KeywordBST keywordBST;
+    private Bintree binLocation;
+    private int worldSize;
+    private OutputSink output; // Sink for search results
+
+    /**
+     * Creates a planner over the indexes of one database.
+     *
+     * @param idBST
+     *            The ID index.
+     * @param costBST
+     *            The cost index.
+     * @param dateBST
+     *            The date index.
+     * @param keywordBST
+     *            The keyword index.
+     * @param binLocation
+     *            The location index.
+     * @param worldSize
+     *            The world size of the location index.
+     */
+    public QueryPlanner(
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation,
+        int worldSize) {
+        this.idBST = idBST;
+        this.costBST = costBST;
+        this.dateBST = dateBST;
+        this.keywordBST = keywordBST;
+        this.binLocation = binLocation;
+        this.worldSize = worldSize;
+        output = ConsoleSink.getInstance();
+    }
+
+
+    /**
+     * Sets the sink search results are written to.
+     *
+     * @param output
+     *            The output sink.
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+
+    /**
+     * Parses the predicates of a compound search. Each predicate is a name
+     * followed by its arguments: "ID id", "cost min max", "date min max",
+     * "keyword word" or "location x y radius".
+     *
+     * @param words
+     *            The words of the search.
+     * @return The parsed predicates, in the order given.
+     * @throws IllegalArgumentException
+     *             If there are no predicates, a name is unknown, or an
+     *             argument is missing or not a number.
+     */
+    public List<SeminarPredicate> parse(String[] words) {
+        List<SeminarPredicate> predicates = new ArrayList<>();
+        int i = 0;
+        while (i < words.length) {
+            String name = words[i++];
+            int arguments = "ID".equals(name) || "keyword".equals(name)
+                ? 1
+                : "location".equals(name) ? 3 : 2;
+            if (i + arguments > words.length) {
+                throw new IllegalArgumentException("Missing value for "
+                    + name);
+            }
+            switch (name) {
+                case "ID":
+                    predicates.add(new IdPredicate(idBST, Integer.parseInt(
+                        words[i])));
+                    break;
+                case "cost":
+                    predicates.add(new CostPredicate(costBST, Integer
+                        .parseInt(words[i]), Integer.parseInt(words[i + 1])));
+                    break;
+                case "date":
+                    predicates.add(new DatePredicate(dateBST, words[i],
+                        words[i + 1]));
+                    break;
+                case "keyword":
+                    predicates.add(new KeywordPredicate(keywordBST
+                        .getIndex(), words[i]));
+                    break;
+                case "location":
+                    predicates.add(new LocationPredicate(binLocation,
+                        Integer.parseInt(words[i]), Integer.parseInt(words[i
+                            + 1]), Integer.parseInt(words[i + 2]), worldSize,
+                        idBST.getRecordNumber()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown field "
+                        + name);
+            }
+            i += arguments;
+        }
+        if (predicates.isEmpty()) {
+            throw new IllegalArgumentException("No predicates");
+        }
+        return predicates;
+    }
+
+
+    /**
+     * Picks the predicate to drive a search from: the one whose index is
+     * estimated to return the fewest candidates. If even that index would
+     * return more than one in SCAN_SHARE of at least MIN_SCAN_RECORDS
+     * seminars, a column scan drives the search.
+     *
+     * @param predicates
+     *            The predicates of the search.
+     * @return The predicate with the smallest estimate, the first one on
+     *         ties, or a ColumnScan over all the predicates.
+     */
+    public SeminarPredicate plan(List<SeminarPredicate> predicates) {
+        SeminarPredicate driver = null;
+        int best = Integer.MAX_VALUE;
+        for (SeminarPredicate predicate : predicates) {
+            int estimate = predicate.estimate();
+            if (driver == null || estimate < best) {
+                driver = predicate;
+                best = estimate;
+            }
+        }
+        SeminarStore store = idBST.getStore();
+        int records = store.getRecordNumber();
+        if (records >= MIN_SCAN_RECORDS && best > records / SCAN_SHARE) {
+            return new ColumnScan(store, predicates);
+        }
+        return driver;
+    }
+
+
+    /**
+     * Runs a compound search.
+     *
+     * @param predicates
+     *            The predicates that must all hold.
+     * @param driver
+     *            The predicate whose index supplies the candidates.
+     * @param matches
+     *            The list the matching seminars are added to.
+     * @return The number of candidates the driving index supplied, or
+     *         for a column scan the number of seminars scanned.
+     */
+    public int execute(
+        List<SeminarPredicate> predicates,
+        SeminarPredicate driver,
+        List<Seminar> matches) {
+        if (driver instanceof ColumnScan) {
+            driver.collect(matches); // Already checked every predicate
+            return idBST.getStore().getRecordNumber();
+        }
+        List<Seminar> candidates = new ArrayList<>();
+        driver.collect(candidates);
+        for (Seminar candidate : candidates) {
+            boolean match = true;
+            for (int i = 0; i < predicates.size() && match; i++) {
+                SeminarPredicate predicate = predicates.get(i);
+                match = predicate == driver || predicate.matches(candidate);
+            }
+            if (match) {
+                matches.add(candidate);
+            }
+        }
+        return candidates.size();
+    }
+
+
+    /**
+     * Parses, plans and runs a compound search, then prints the matches in
+     * ascending ID order and a line naming the index that drove it.
+     *
+     * @param words
+     *            The words of the search.
+     */
+    public void searchAndPrint(String[] words) {
+        String query = String.join(" ", words);
+        List<SeminarPredicate> predicates;
+        try {
+            predicates = parse(words);
+        }
+        catch (IllegalArgumentException e) {
+            output.println("Search FAILED -- Bad compound search " + query
+                + ": " + e.getMessage());
+            return;
+        }
+        SeminarPredicate driver = plan(predicates);
+        List<Seminar> matches = new ArrayList<>();
+        int candidates = execute(predicates, driver, matches);
+        Collections.sort(matches, (a, b) -> Integer.compare(a.id(), b.id()));
+
+        output.println("Seminars matching " + query + ":");
+        for (Seminar seminar : matches) {
+            output.println(seminar.toString());
+        }
+        output.println(matches.size() + " of " + candidates
+            + " candidates from the " + driver.getIndexName()
+            + " index matched");
+    }
+}
+
+
+
+
+/**
+ * One condition of a compound search, able to estimate its selectivity,
+ * produce its candidates from its own index, and test any seminar.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+interface SeminarPredicate {
+    /**
+     * Estimates how many seminars this predicate's index would return.
+     *
+     * @return The estimated number of candidates.
+     */
+    int estimate();
+
+
+    /**
+     * Adds every seminar that satisfies this predicate, taken from its
+     * index, to a list. Each seminar is added once.
+     *
+     * @param candidates
+     *            The list the seminars are added to.
+     */
+    void collect(List<Seminar> candidates);
+
+
+    /**
+     * Checks a seminar against this predicate.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the seminar satisfies the predicate.
+     */
+    boolean matches(Seminar seminar);
+
+
+    /**
+     * Keeps the handles of a selection whose record satisfies this
+     * predicate, checked on the columns of the record store.
+     *
+     * @param store
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    int filter(SeminarStore store, int[] selection, int count);
+
+
+    /**
+     * Gets the name of the index this predicate uses.
+     *
+     * @return The index name.
+     */
+    String getIndexName();
+}
+
+
+
+
+/**
+ * Matches the seminar with one ID.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class IdPredicate implements SeminarPredicate {
+    private IdBST idBST;
+    private int id;
+
+    /**
+     * Creates the predicate.
+     *
+     * @param idBST
+     *            The ID index.
+     * @param id
+     *            The ID to match.
+     */
+    public IdPredicate(IdBST idBST, int id) {
+        this.idBST = idBST;
+        this.id = id;
+    }
+
+
+    /**
+     * At most one seminar has an ID.
+     *
+     * @return 1 if the ID exists, otherwise 0.
+     */
+    public int estimate() {
+        return idBST.searchID(id) == null ? 0 : 1;
+    }
+
+
+    /**
+     * Adds the seminar with the ID, if any.
+     *
+     * @param candidates
+     *            The list the seminar is added to.
+     */
+    public void collect(List<Seminar> candidates) {
+        Seminar seminar = idBST.searchID(id);
+        if (seminar != null) {
+            candidates.add(seminar);
+        }
+    }
+
+
+    /**
+     * Checks the ID of a seminar.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the seminar has the ID.
+     */
+    public boolean matches(Seminar seminar) {
+        return seminar.id() == id;
+    }
+
+
+    /**
+     * Keeps the handle of the record with the ID.
+     *
+     * @param store
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filter(SeminarStore store, int[] selection, int count) {
+        return store.filterId(id, selection, count);
+    }
+
+
+    /**
+     * Gets the index name.
+     *
+     * @return "ID"
+     */
+    public String getIndexName() {
+        return "ID";
+    }
+}
+
+
+
+
+/**
+ * Matches seminars whose cost is in an inclusive range.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class CostPredicate implements SeminarPredicate {
+    private CostBST costBST;
+    private int minCost;
+    private int maxCost;
+
+    /**
+     * Creates the predicate.
+     *
+     * @param costBST
+     *            The cost index.
+     * @param minCost
+     *            The lowest cost to match.
+     * @param maxCost
+     *            The highest cost to match.
+     */
+    public CostPredicate(CostBST costBST, int minCost, int maxCost) {
+        this.costBST = costBST;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+    }
+
+
+    /**
+     * Counts the costs in range from the subtree sizes of the cost index.
+     *
+     * @return The number of seminars in range.
+     */
+    public int estimate() {
+        return costBST.countRange(minCost, maxCost);
+    }
+
+
+    /**
+     * Adds the seminars in range.
+     *
+     * @param candidates
+     *            The list the seminars are added to.
+     */
+    public void collect(List<Seminar> candidates) {
+        costBST.collectRange(minCost, maxCost, candidates);
+    }
+
+
+    /**
+     * Checks the cost of a seminar.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the cost is in range.
+     */
+    public boolean matches(Seminar seminar) {
+        return seminar.cost() >= minCost && seminar.cost() <= maxCost;
+    }
+
+
+    /**
+     * Checks the cost column.
+     *
+     * @param store
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filter(SeminarStore store, int[] selection, int count) {
+        return store.filterCost(minCost, maxCost, selection, count);
+    }
+
+
+    /**
+     * Gets the index name.
+     *
+     * @return "cost"
+     */
+    public String getIndexName() {
+        return "cost";
+    }
+}
+
+
+
+
+/**
+ * Matches seminars whose date is in an inclusive range.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class DatePredicate implements SeminarPredicate {
+    private DateBST dateBST;
+    private String minDate;
+    private String maxDate;
+
+    /**
+     * Creates the predicate.
+     *
+     * @param dateBST
+     *            The date index.
+     * @param minDate
+     *            The earliest date to match.
+     * @param maxDate
+     *            The latest date to match.
+     */
+    public DatePredicate(DateBST dateBST, String minDate, String maxDate) {
+        this.dateBST = dateBST;
+        this.minDate = minDate;
+        this.maxDate = maxDate;
+    }
+
+
+    /**
+     * Counts the dates in range from the subtree sizes of the date index.
+     *
+     * @return The number of seminars in range.
+     */
+    public int estimate() {
+        return dateBST.countRange(minDate, maxDate);
+    }
+
+
+    /**
+     * Adds the seminars in range.
+     *
+     * @param candidates
+     *            The list the seminars are added to.
+     */
+    public void collect(List<Seminar> candidates) {
+        dateBST.collectRange(minDate, maxDate, candidates);
+    }
+
+
+    /**
+     * Checks the date of a seminar.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the date is in range.
+     */
+    public boolean matches(Seminar seminar) {
+        return seminar.date().compareTo(minDate) >= 0
+            && seminar.date().compareTo(maxDate) <= 0;
+    }
+
+
+    /**
+     * Checks the packed date column.
+     *
+     * @param store
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filter(SeminarStore store, int[] selection, int count) {
+        return store.filterDate(minDate, maxDate, selection, count);
+    }
+
+
+    /**
+     * Gets the index name.
+     *
+     * @return "date"
+     */
+    public String getIndexName() {
+        return "date";
+    }
+}
+
+
+
+
+/**
+ * Matches seminars that list a keyword.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class KeywordPredicate implements SeminarPredicate {
+    private KeywordIndex index;
+    private String keyword;
+
+    /**
+     * Creates the predicate.
+     *
+     * @param index
+     *            The keyword index.
+     * @param keyword
+     *            The keyword to match.
+     */
+    public KeywordPredicate(KeywordIndex index, String keyword) {
+        this.index = index;
+        this.keyword = keyword;
+    }
+
+
+    /**
+     * Uses the length of the keyword's posting list.
+     *
+     * @return The number of postings for the keyword.
+     */
+    public int estimate() {
+        PostingList postings = index.get(keyword);
+        return postings == null ? 0 : postings.size();
+    }
+
+
+    /**
+     * Adds the seminars on the keyword's posting list.
+     *
+     * @param candidates
+     *            The list the seminars are added to.
+     */
+    public void collect(List<Seminar> candidates) {
+        PostingList postings = index.get(keyword);
+        if (postings == null) {
+            return;
+        }
+        for (int i = 0; i < postings.size(); i++) {
+            if (i == 0 || postings.getStamp(i - 1) != postings.getStamp(i)) {
+                candidates.add(postings.getSeminar(i));
+            }
+        }
+    }
+
+
+    /**
+     * Checks the keywords of a seminar.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the seminar lists the keyword.
+     */
+    public boolean matches(Seminar seminar) {
+        for (String word : seminar.keywords()) {
+            if (word.equals(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Checks the keyword ID column.
+     *
+     * @param store
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filter(SeminarStore store, int[] selection, int count) {
+        return store.filterKeyword(keyword, selection, count);
+    }
+
+
+    /**
+     * Gets the index name.
+     *
+     * @return "keyword"
+     */
+    public String getIndexName() {
+        return "keyword";
+    }
+}
+
+
+
+
+/**
+ * Matches seminars within a radius of a point.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class LocationPredicate implements SeminarPredicate {
+    private Bintree binLocation;
+    private int x;
+    private int y;
+    private int radius;
+    private int worldSize;
+    private int records;
+
+    /**
+     * Creates the predicate.
+     *
+     * @param binLocation
+     *            The location index.
+     * @param x
+     *            The x coordinate of the center.
+     * @param y
+     *            The y coordinate of the center.
+     * @param radius
+     *            The search radius.
+     * @param worldSize
+     *            The world size of the location index.
+     * @param records
+     *            The number of seminars in the database.
+     */
+    public LocationPredicate(
+        Bintree binLocation,
+        int x,
+        int y,
+        int radius,
+        int worldSize,
+        int records) {
+        this.binLocation = binLocation;
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.worldSize = worldSize;
+        this.records = records;
+    }
+
+
+    /**
+     * Estimates the candidates from the share of the world that the
+     * circle's bounding box covers, assuming seminars are spread evenly.
+     *
+     * @return The estimated number of seminars within the radius.
+     */
+    public int estimate() {
+        if (radius < 0) {
+            return 0;
+        }
+        long width = Math.min(x + (long)radius, worldSize - 1L)
+            - Math.max(x - (long)radius, 0) + 1;
+        long height = Math.min(y + (long)radius, worldSize - 1L)
+            - Math.max(y - (long)radius, 0) + 1;
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        double share = Math.PI / 4 * width * height / ((double)worldSize
+            * worldSize);
+        return (int)Math.ceil(Math.min(1.0, share) * records);
+    }
+
+
+    /**
+     * Adds the seminars within the radius.
+     *
+     * @param candidates
+     *            The list the seminars are added to.
+     */
+    public void collect(List<Seminar> candidates) {
+        binLocation.search(x, y, radius, worldSize, candidates);
+    }
+
+
+    /**
+     * Checks the distance of a seminar from the center.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the seminar is within the radius.
+     */
+    public boolean matches(Seminar seminar) {
+        long dx = seminar.x() - (long)x;
+        long dy = seminar.y() - (long)y;
+        return radius >= 0 && dx * dx + dy * dy <= (long)radius * radius;
+    }
+
+
+    /**
+     * Checks the coordinate columns.
+     *
+     * @param store
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filter(SeminarStore store, int[] selection, int count) {
+        return store.filterLocation(x, y, radius, selection, count);
+    }
+
+
+    /**
+     * Gets the index name.
+     *
+     * @return "location"
+     */
+    public String getIndexName() {
+        return "location";
+    }
+}
+
+
+
+
+/**
+ * Drives a compound search by scanning the columns of the record store
+ * instead of walking an index. Every predicate narrows a selection of all
+ * the handles in turn, and only the records left at the end are read.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class ColumnScan implements SeminarPredicate {
+    private SeminarStore store;
+    private List<SeminarPredicate> predicates;
+
+    /**
+     * Creates the scan.
+     *
+     * @param store
+     *            The record store to scan.
+     * @param predicates
+     *            The predicates that must all hold.
+     */
+    public ColumnScan(SeminarStore store, List<SeminarPredicate> predicates) {
+        this.store = store;
+        this.predicates = predicates;
+    }
+
+
+    /**
+     * A scan looks at every seminar.
+     *
+     * @return The number of seminars in the store.
+     */
+    public int estimate() {
+        return store.getRecordNumber();
+    }
+
+
+    /**
+     * Adds every seminar that satisfies all the predicates, in handle
+     * order.
+     *
+     * @param candidates
+     *            The list the seminars are added to.
+     */
+    public void collect(List<Seminar> candidates) {
+        int[] selection = new int[store.getHandleCount()];
+        int count = filter(store, selection, store.selectAll(selection));
+        for (int i = 0; i < count; i++) {
+            Seminar seminar = store.get(selection[i]);
+            if (seminar != null) {
+                candidates.add(seminar); // Skips freed handles
+            }
+        }
+    }
+
+
+    /**
+     * Checks a seminar against all the predicates.
+     *
+     * @param seminar
+     *            The seminar to check.
+     * @return True if the seminar satisfies every predicate.
+     */
+    public boolean matches(Seminar seminar) {
+        for (SeminarPredicate predicate : predicates) {
+            if (!predicate.matches(seminar)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Narrows a selection by all the predicates.
+     *
+     * @param columns
+     *            The record store whose columns are checked.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filter(SeminarStore columns, int[] selection, int count) {
+        for (SeminarPredicate predicate : predicates) {
+            count = predicate.filter(columns, selection, count);
+        }
+        return count;
+    }
+
+
+    /**
+     * Gets the index name.
+     *
+     * @return "column"
+     */
+    public String getIndexName() {
+        return "column";
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import student.TestCase;
+
+/**
+ * This class contains test cases for the QueryPlanner class, which plans
+ * and runs compound searches across the seminar indexes.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class QueryPlannerTest extends TestCase {
+    private static final int WORLD_SIZE = 128;
+    private IdBST idBST;
+    private CostBST costBST;
+    private DateBST dateBST;
+    private KeywordBST keywordBST;
+    private Bintree binLocation;
+    private QueryPlanner planner;
+    private List<Seminar> all;
+
+    /**
+     * Sets up empty indexes and a planner over them.
+     */
+    public void setUp() {
+        idBST = new IdBST();
+        costBST = new CostBST();
+        dateBST = new DateBST();
+        keywordBST = new KeywordBST();
+        binLocation = new Bintree();
+        planner = new QueryPlanner(idBST, costBST, dateBST, keywordBST,
+            binLocation, WORLD_SIZE);
+        all = new ArrayList<>();
+    }
+
+
+    private void add(
+        int id,
+        int cost,
+        String date,
+        int x,
+        int y,
+        String... keywords) {
+        Seminar seminar = new Seminar(id, "Title " + id, date, 60, (short)x,
+            (short)y, cost, keywords, "Description");
+        idBST.insertSeminar(id, seminar);
+        costBST.insertSeminar(cost, seminar);
+        dateBST.insertSeminar(date, seminar);
+        keywordBST.insertSeminar(seminar, keywords);
+        binLocation.insert(seminar, WORLD_SIZE);
+        all.add(seminar);
+    }
+
+
+    private void addRandom(int count, long seed) {
+        Random random = new Random(seed);
+        String[] words = { "VT", "HCI", "CSE", "Biology" };
+        for (int id = 0; id < count; id++) {
+            add(id, random.nextInt(100), String.format("06%02d%02d1600",
+                1 + random.nextInt(12), 1 + random.nextInt(28)), random
+                    .nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE),
+                words[random.nextInt(words.length)], words[random.nextInt(
+                    words.length)]);
+        }
+    }
+
+
+    private List<Seminar> run(String query) {
+        List<SeminarPredicate> predicates = planner.parse(query.split(" "));
+        List<Seminar> matches = new ArrayList<>();
+        planner.execute(predicates, planner.plan(predicates), matches);
+        return matches;
+    }
+
+
+    private int bruteForce(String query) {
+        List<SeminarPredicate> predicates = planner.parse(query.split(" "));
+        int count = 0;
+        for (Seminar seminar : all) {
+            boolean match = true;
+            for (SeminarPredicate predicate : predicates) {
+                match = match && predicate.matches(seminar);
+            }
+            count += match ? 1 : 0;
+        }
+        return count;
+    }
+
+
+    /**
+     * Tests that the planner drives from the most selective index.
+     */
+    public void testPlan() {
+        addRandom(500, 3);
+        assertEquals("ID", planner.plan(planner.parse(
+            "cost 0 99 ID 7 keyword VT".split(" "))).getIndexName());
+        assertEquals("cost", planner.plan(planner.parse(
+            "keyword VT cost 40 40".split(" "))).getIndexName());
+        assertEquals("keyword", planner.plan(planner.parse(
+            "cost 0 99 keyword None".split(" "))).getIndexName());
+        assertEquals("location", planner.plan(planner.parse(
+            "date 0600000000 0699999999 location 5 5 3".split(" ")))
+            .getIndexName());
+        assertEquals("date", planner.plan(planner.parse(
+            "location 64 64 200 date 0603010000 0603021600".split(" ")))
+            .getIndexName());
+    }
+
+
+    /**
+     * Tests compound searches against a brute-force filter.
+     */
+    public void testExecuteMatchesBruteForce() {
+        addRandom(400, 11);
+        String[] queries = { "cost 20 50 date 0610010000 0610312359",
+            "cost 20 50 location 10 10 30", "keyword VT cost 0 10",
+            "keyword HCI keyword CSE", "location 64 64 40 keyword Biology "
+                + "date 0601010000 0606302359", "ID 17 cost 0 99",
+            "ID 9999", "cost 50 20", "location 0 0 -1" };
+        for (String query : queries) {
+            List<Seminar> matches = run(query);
+            assertEquals(query, bruteForce(query), matches.size());
+            for (Seminar seminar : matches) {
+                for (SeminarPredicate predicate : planner.parse(query.split(
+                    " "))) {
+                    assertTrue(predicate.matches(seminar));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Tests that broad searches over enough seminars are driven by a column
+     * scan, which skips deleted seminars and matches a brute-force filter,
+     * while selective ones still use an index.
+     */
+    public void testColumnScan() {
+        addRandom(QueryPlanner.MIN_SCAN_RECORDS + 1000, 25);
+        SemManagerBST manager = new SemManagerBST(new CollectingSink());
+        for (int i = 0; i < 500; i++) {
+            Seminar seminar = all.remove(i * 7);
+            manager.deleteSeminarRecord(seminar, WORLD_SIZE, idBST, costBST,
+                dateBST, keywordBST, binLocation);
+        }
+        assertEquals("cost", planner.plan(planner.parse("cost 40 40"
+            .split(" "))).getIndexName());
+        assertEquals("keyword", planner.plan(planner.parse(
+            "cost 0 99 keyword None".split(" "))).getIndexName());
+        assertEquals("ID", planner.plan(planner.parse(
+            "location 0 0 400 ID 17".split(" "))).getIndexName());
+        String[] queries = { "cost 0 99", "cost 10 60 keyword VT",
+            "date 0601010000 0612312359 location 64 64 60 keyword HCI",
+            "date 0603 0606x cost 0 80", "keyword HCI keyword Biology",
+            "location 64 64 90 cost 20 99", "location 0 0 400" };
+        for (String query : queries) {
+            List<SeminarPredicate> predicates = planner.parse(query.split(
+                " "));
+            SeminarPredicate driver = planner.plan(predicates);
+            assertEquals(query, "column", driver.getIndexName());
+            List<Seminar> matches = new ArrayList<>();
+            assertEquals(all.size(), planner.execute(predicates, driver,
+                matches));
+            assertEquals(query, bruteForce(query), matches.size());
+            Set<Integer> ids = new HashSet<>();
+            for (Seminar seminar : matches) {
+                assertTrue(driver.matches(seminar));
+                assertTrue(ids.add(seminar.id()));
+            }
+        }
+    }
+
+
+    /**
+     * Tests the printed result of a compound search and bad searches.
+     */
+    public void testSearchAndPrint() {
+        add(3, 30, "0610051600", 10, 10, "VT", "VT");
+        add(1, 45, "0610071600", 12, 10, "VT");
+        add(2, 25, "0611051600", 100, 100, "VT");
+        CollectingSink sink = new CollectingSink();
+        planner.setOutput(sink);
+        planner.searchAndPrint("keyword VT location 10 10 5".split(" "));
+        String text = sink.getText();
+        assertTrue(text.startsWith(
+            "Seminars matching keyword VT location 10 10 5:"));
+        assertTrue(text.indexOf("ID: 1,") < text.indexOf("ID: 3,"));
+        assertEquals(-1, text.indexOf("ID: 2,"));
+        assertTrue(text.contains("2 of 2 candidates from the location index"
+            + " matched"));
+
+        String[] bad = { "", "cost 1", "color red", "cost a 2" };
+        for (String query : bad) {
+            sink.clear();
+            planner.searchAndPrint(query.isEmpty()
+                ? new String[0]
+                : query.split(" "));
+            assertTrue(sink.getText().startsWith(
+                "Search FAILED -- Bad compound search"));
+        }
+    }
+}
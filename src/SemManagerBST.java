@@ -7,8 +7,16 @@
  * @version {1.0}
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * The `SemManagerBST` class is responsible for managing seminar records using
@@ -27,12 +35,57 @@ import java.util.Scanner;
  * @version {1.0}
  */
 public class SemManagerBST {
+    private OutputSink output; // Sink for insert status messages
+    private ForkJoinPool pool; // Updates the indexes in parallel, or null
+    private SeminarLog log; // Logs applied inserts and deletes, or null
 
     /**
      * Constructor
      */
     public SemManagerBST() {
+        this(ConsoleSink.getInstance());
+    }
+
+
+    /**
+     * Constructor for a manager that writes its messages to the given sink.
+     *
+     * @param output
+     *            The output sink for insert status messages.
+     */
+    public SemManagerBST(OutputSink output) {
+        this.output = output;
+    }
+
+
+    /**
+     * Sets the write-ahead log every accepted insert and every delete is
+     * appended to before it is applied to the trees. Each change is
+     * committed to the log before it is reported, and a bulk loaded batch
+     * is committed once before any of it is reported.
+     *
+     * @param log
+     *            The log, or null to keep no log.
+     */
+    public void setLog(SeminarLog log) {
+        this.log = log;
+    }
+
 
+    /**
+     * Sets the pool the cost, date, keyword and location indexes are
+     * updated on. These indexes share nothing but the immutable seminar and
+     * the record store, which they only read while they are updated, so
+     * each insert, delete or bulk load updates them at the same time and
+     * returns once all of them are done. Commands therefore still run
+     * one after another and their output order does not change.
+     *
+     * @param pool
+     *            The pool to update the indexes on, or null to update them
+     *            one after another on the calling thread.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
     }
 
 
@@ -68,8 +121,8 @@ public class SemManagerBST {
         String title = scanner.nextLine().trim();
         String dateTime = scanner.next().trim();
         int length = Integer.parseInt(scanner.next().trim());
-        short x = Short.parseShort(scanner.next().trim());
-        short y = Short.parseShort(scanner.next().trim());
+        int x = Integer.parseInt(scanner.next().trim());
+        int y = Integer.parseInt(scanner.next().trim());
         int cost = Integer.parseInt(scanner.next().trim());
         scanner.nextLine(); // Consume the newline
 
@@ -79,27 +132,384 @@ public class SemManagerBST {
 
         String description = scanner.nextLine().trim();
 
+        addSeminarRecord(new Seminar(id, title, dateTime, length, x, y, cost,
+            keywords, description), worldSize, idBST, costBST, dateBST,
+            keywordBST, binLocation);
+    }
+
+
+    /**
+     * Adds a seminar record read by a CommandTokenizer to the appropriate
+     * binary search trees. The tokenizer must be positioned just after the
+     * "insert" command.
+     *
+     * @param tokenizer
+     *            The tokenizer for reading input.
+     * @param worldSize
+     *            The world size for coordinate validation.
+     * @param idBST
+     *            The binary search tree for seminar records by ID.
+     * @param costBST
+     *            The binary search tree for seminar records by cost.
+     * @param dateBST
+     *            The binary search tree for seminar records by date.
+     * @param keywordBST
+     *            The binary search tree for seminar records by keywords.
+     * @param binLocation
+     *            The bintree for seminar records location.
+     * @throws IOException
+     *             If the tokenizer cannot read the command file.
+     */
+    public void addSeminarRecord(
+        CommandTokenizer tokenizer,
+        int worldSize,
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation)
+        throws IOException {
+        addSeminarRecord(readSeminar(tokenizer), worldSize, idBST, costBST,
+            dateBST, keywordBST, binLocation);
+    }
+
+
+    /**
+     * Reads the seminar record of an insert command without adding it
+     * anywhere. The tokenizer must be positioned just after the "insert"
+     * command.
+     *
+     * @param tokenizer
+     *            The tokenizer for reading input.
+     * @return The seminar that was read.
+     * @throws IOException
+     *             If the tokenizer cannot read the command file.
+     */
+    public Seminar readSeminar(CommandTokenizer tokenizer) throws IOException {
+        int id = tokenizer.nextInt();
+        tokenizer.skipLine();
+        String title = tokenizer.nextLine();
+        String dateTime = tokenizer.next();
+        int length = tokenizer.nextInt();
+        int x = tokenizer.nextInt();
+        int y = tokenizer.nextInt();
+        int cost = tokenizer.nextInt();
+        tokenizer.skipLine(); // Consume the newline
+
+        String[] keywords = tokenizer.nextWords();
+        String description = tokenizer.nextLine();
+
+        return new Seminar(id, title, dateTime, length, x, y, cost, keywords,
+            description);
+    }
+
+
+    /**
+     * Adds a batch of seminar records to empty trees at once. Each record is
+     * checked and reported in order exactly as addSeminarRecord would, and
+     * the accepted ones are then bulk loaded: every BST is built balanced
+     * from its sorted keys and the bintree is built top-down, in
+     * O(n log n) overall. The accepted records are logged and committed
+     * together before the first of them is reported.
+     *
+     * @param seminars
+     *            The seminar records in input order.
+     * @param worldSize
+     *            The world size for coordinate validation.
+     * @param idBST
+     *            The binary search tree for seminar records by ID.
+     * @param costBST
+     *            The binary search tree for seminar records by cost.
+     * @param dateBST
+     *            The binary search tree for seminar records by date.
+     * @param keywordBST
+     *            The binary search tree for seminar records by
+     *            keywords.
+     * @param binLocation
+     *            The bintree for seminar records location.
+     */
+    public void addSeminarRecords(
+        List<Seminar> seminars,
+        int worldSize,
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation) {
+        List<Seminar> accepted = new ArrayList<>();
+        boolean[] isAccepted = new boolean[seminars.size()];
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < isAccepted.length; i++) {
+            Seminar seminar = seminars.get(i);
+            if (isInRange(seminar.x(), worldSize)
+                && isInRange(seminar.y(), worldSize)
+                && ids.add(seminar.id())) {
+                logInsert(seminar);
+                accepted.add(seminar);
+                isAccepted[i] = true;
+            }
+        }
+        commitLog();
+
+        for (int i = 0; i < isAccepted.length; i++) {
+            Seminar seminar = seminars.get(i);
+            int x = seminar.x();
+            int y = seminar.y();
+            if (isAccepted[i]) {
+                output.println("Successfully inserted record with ID "
+                    + seminar.id());
+                output.println(seminar.toString());
+            }
+            else if ((!isInRange(x, worldSize))
+                || (!isInRange(y, worldSize))) {
+                output.println("Insert FAILED - Bad x, y coordinates: " + x
+                    + ", " + y);
+            }
+            else {
+                output.println(
+                    "Insert FAILED - There is already a record with ID "
+                        + seminar.id());
+            }
+        }
+        loadSeminarRecords(accepted, worldSize, idBST, costBST, dateBST,
+            keywordBST, binLocation);
+    }
+
+
+    /**
+     * Loads seminar records that are already known to be valid into the
+     * trees at once, replacing whatever they held, without checking or
+     * reporting them and without logging them. This is the fast path for
+     * rebuilding the trees from a write-ahead log or a snapshot.
+     *
+     * @param seminars
+     *            The seminar records in insertion order.
+     * @param worldSize
+     *            The world size of the bintree.
+     * @param idBST
+     *            The binary search tree for seminar records by ID.
+     * @param costBST
+     *            The binary search tree for seminar records by cost.
+     * @param dateBST
+     *            The binary search tree for seminar records by date.
+     * @param keywordBST
+     *            The binary search tree for seminar records by
+     *            keywords.
+     * @param binLocation
+     *            The bintree for seminar records location.
+     */
+    public void loadSeminarRecords(
+        List<Seminar> seminars,
+        int worldSize,
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation) {
+        SeminarStore[] stores = stores(idBST, costBST, dateBST, keywordBST);
+        for (int i = 0; i < stores.length; i++) {
+            if (!isShared(stores, i)) {
+                stores[i].clear();
+                for (Seminar seminar : seminars) {
+                    stores[i].add(seminar);
+                }
+            }
+        }
+        updateIndexes(
+            () -> idBST.loadSeminars(seminars),
+            () -> costBST.loadSeminars(seminars),
+            () -> dateBST.loadSeminars(seminars),
+            () -> keywordBST.loadSeminars(seminars),
+            () -> binLocation.bulkLoad(seminars, worldSize));
+    }
+
+
+    /**
+     * Removes a seminar record from all the trees. The indexes look the
+     * seminar up by its ID in their record stores and remove its handle,
+     * and the stores then drop the record.
+     *
+     * @param seminar
+     *            The seminar record to remove.
+     * @param worldSize
+     *            The world size of the bintree.
+     * @param idBST
+     *            The binary search tree for seminar records by ID.
+     * @param costBST
+     *            The binary search tree for seminar records by cost.
+     * @param dateBST
+     *            The binary search tree for seminar records by date.
+     * @param keywordBST
+     *            The binary search tree for seminar records by keywords.
+     * @param binLocation
+     *            The bintree for seminar records location.
+     */
+    public void deleteSeminarRecord(
+        Seminar seminar,
+        int worldSize,
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation) {
+        if (log != null) {
+            try {
+                log.logDelete(seminar.id());
+                log.commit();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int id = seminar.id();
+        updateIndexes(
+            () -> idBST.removeSeminar(id),
+            () -> costBST.removeSeminar(id),
+            () -> dateBST.removeSeminar(id),
+            () -> keywordBST.removeSeminar(id),
+            () -> binLocation.delete(seminar, worldSize));
+        for (SeminarStore store : stores(idBST, costBST, dateBST,
+            keywordBST)) {
+            store.remove(id);
+        }
+    }
+
+
+    // Gets the record store of each index. Indexes may share a store.
+    private static SeminarStore[] stores(
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST) {
+        return new SeminarStore[] { idBST.getStore(), costBST.getStore(),
+            dateBST.getStore(), keywordBST.getStore() };
+    }
+
+
+    // Checks whether an earlier index already uses the store at index i
+    private static boolean isShared(SeminarStore[] stores, int i) {
+        for (int j = 0; j < i; j++) {
+            if (stores[j] == stores[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    // Appends an accepted insert to the log, if there is one
+    private void logInsert(Seminar seminar) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.logInsert(seminar);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    // Forces the appended records to disk, if there is a log
+    private void commitLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.commit();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    // Runs one update per index, on the pool when one is set. Each index is
+    // touched by a single update, so they need no locking. Returns once
+    // every update has finished, rethrowing the first failure.
+    private void updateIndexes(Runnable... updates) {
+        if (pool == null) {
+            for (Runnable update : updates) {
+                update.run();
+            }
+            return;
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[updates.length];
+        for (int i = 1; i < updates.length; i++) {
+            tasks[i] = pool.submit(updates[i]);
+        }
+        try {
+            updates[0].run(); // The calling thread takes a share too
+        }
+        finally {
+            for (int i = 1; i < updates.length; i++) {
+                tasks[i].join();
+            }
+        }
+    }
+
+
+    /**
+     * Adds a seminar record to the appropriate binary search trees, unless
+     * its coordinates are outside the world or its ID is already in use.
+     *
+     * @param seminar
+     *            The seminar record to add.
+     * @param worldSize
+     *            The world size for coordinate validation.
+     * @param idBST
+     *            The binary search tree for seminar records by ID.
+     * @param costBST
+     *            The binary search tree for seminar records by cost.
+     * @param dateBST
+     *            The binary search tree for seminar records by date.
+     * @param keywordBST
+     *            The binary search tree for seminar records by keywords.
+     * @param binLocation
+     *            The bintree for seminar records location.
+     */
+    public void addSeminarRecord(
+        Seminar seminar,
+        int worldSize,
+        IdBST idBST,
+        CostBST costBST,
+        DateBST dateBST,
+        KeywordBST keywordBST,
+        Bintree binLocation) {
+        int x = seminar.x();
+        int y = seminar.y();
+
         // Check if x and y are in the range 0 to worldSize-1
 
         if ((!isInRange(x, worldSize)) || (!isInRange(y, worldSize))) {
-            System.out.println("Insert FAILED - Bad x, y coordinates: " + x
+            output.println("Insert FAILED - Bad x, y coordinates: " + x
                 + ", " + y);
             return;
         }
 
-        Seminar seminar = new Seminar(id, title, dateTime, length, x, y, cost,
-            keywords, description);
-
-        boolean checkDuplicate = idBST.insertSeminar(id, seminar);
-        if (checkDuplicate) {
-            costBST.insertSeminar(cost, seminar);
-            dateBST.insertSeminar(dateTime, seminar);
-            keywordBST.insertSeminar(seminar, keywords);
-            binLocation.insert(seminar, worldSize);
-            System.out.println("Successfully inserted record with ID " + id);
-            System.out.println(seminar.toString());
+        // The duplicate check comes first and the log append second, so a
+        // failed append leaves every index untouched
+        int id = seminar.id();
+        if (idBST.getStore().find(id) >= 0) {
+            output.println("Insert FAILED - There is already a record with ID "
+                + id);
+            return;
         }
-
+        logInsert(seminar);
+        commitLog();
+        for (SeminarStore store : stores(idBST, costBST, dateBST,
+            keywordBST)) {
+            store.add(seminar); // Only reads a store that has it
+        }
+        updateIndexes(
+            () -> idBST.insertSeminar(id, seminar),
+            () -> costBST.insertSeminar(seminar.cost(), seminar),
+            () -> dateBST.insertSeminar(seminar.date(), seminar),
+            () -> keywordBST.insertSeminar(seminar, seminar.keywords()),
+            () -> binLocation.insert(seminar, worldSize));
+        output.println("Successfully inserted record with ID " + id);
+        output.println(seminar.toString());
     }
 
 
@@ -112,9 +522,8 @@ public class SemManagerBST {
      *            The world size for the range.
      * @return True if the value is in the specified range, false otherwise.
      */
-    public static boolean isInRange(short value, int worldSize) {
-        int intValue = Short.toUnsignedInt(value);
-        boolean result = intValue >= 0 && intValue < worldSize;
+    public static boolean isInRange(int value, int worldSize) {
+        boolean result = value >= 0 && value < worldSize;
         return result;
     }
 
@@ -2,6 +2,10 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.Scanner;
 import student.TestCase;
 
@@ -333,4 +337,92 @@ public class SemManagerBSTTest extends TestCase {
         }
     }
 
+
+    /**
+     * Tests that a batch of records is checked and reported in order, and
+     * that only the accepted records are loaded into the trees.
+     */
+    public void testAddSeminarRecords() {
+        CollectingSink sink = new CollectingSink();
+        SemManagerBST manager = new SemManagerBST(sink);
+        binLocation = new Bintree();
+        binLocation.setOutput(sink);
+        List<Seminar> seminars = new ArrayList<>();
+        seminars.add(new Seminar(2, "Two", "0610051600", 90, 10, 10, 30,
+            new String[] { "VT" }, "Description"));
+        seminars.add(new Seminar(1, "One", "0610051600", 90, 128, 10, 20,
+            new String[] { "VT" }, "Description"));
+        seminars.add(new Seminar(2, "Again", "0610051600", 90, 20, 20, 10,
+            new String[] { "VT" }, "Description"));
+        seminars.add(new Seminar(3, "Three", "0610051600", 90, 30, 30, 10,
+            new String[] { "HCI", "VT" }, "Description"));
+        manager.addSeminarRecords(seminars, 128, idBST, costBST, dateBST,
+            keywordBST, binLocation);
+        String text = sink.getText();
+        assertTrue(text.startsWith("Successfully inserted record with ID 2"));
+        assertTrue(text.contains(
+            "Insert FAILED - Bad x, y coordinates: 128, 10"));
+        assertTrue(text.contains(
+            "Insert FAILED - There is already a record with ID 2"));
+        assertTrue(text.contains("Successfully inserted record with ID 3"));
+
+        assertEquals(2, idBST.getRecordNumber());
+        assertTrue(idBST.searchID(2).toString().contains("Title: Two"));
+        assertNull(idBST.searchID(1));
+        assertEquals(2, costBST.getRecordNumber());
+        assertEquals(3, keywordBST.getRecordNumber());
+        sink.clear();
+        binLocation.preorderTraversal();
+        assertFuzzyEquals("Location Tree:\nLeaf with 2 objects: 2 3\n", sink
+            .getText());
+    }
+
+
+    /**
+     * Tests that random inserts and deletes applied to the indexes in
+     * parallel leave them exactly as applying them one after another does.
+     */
+    public void testParallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CollectingSink[] sinks = { new CollectingSink(),
+            new CollectingSink() };
+        for (int run = 0; run < 2; run++) {
+            SemManagerBST manager = new SemManagerBST(sinks[run]);
+            manager.setPool((run == 0) ? null : pool);
+            IdBST ids = new IdBST();
+            CostBST costs = new CostBST();
+            DateBST dates = new DateBST();
+            KeywordBST keywords = new KeywordBST();
+            Bintree locations = new Bintree();
+            ids.setOutput(sinks[run]);
+            costs.setOutput(sinks[run]);
+            dates.setOutput(sinks[run]);
+            keywords.setOutput(sinks[run]);
+            locations.setOutput(sinks[run]);
+            Random random = new Random(19);
+            for (int step = 0; step < 2000; step++) {
+                int id = random.nextInt(300);
+                Seminar stored = ids.searchID(id);
+                if (stored != null && random.nextBoolean()) {
+                    manager.deleteSeminarRecord(stored, 128, ids, costs,
+                        dates, keywords, locations);
+                    continue;
+                }
+                Seminar seminar = new Seminar(id, "Seminar", String.format(
+                    "06%02d051600", 1 + random.nextInt(12)), 90, random
+                        .nextInt(128), random.nextInt(128), random.nextInt(50),
+                    new String[] { "k" + random.nextInt(5), "VT" },
+                    "Description");
+                manager.addSeminarRecord(seminar, 128, ids, costs, dates,
+                    keywords, locations);
+            }
+            ids.printIDTree();
+            costs.printCostTree();
+            dates.printDateTree();
+            keywords.printKeywordTree();
+            locations.preorderTraversal();
+        }
+        pool.shutdown();
+        assertEquals(sinks[0].getText(), sinks[1].getText());
+    }
 }
@@ -1,3 +1,6 @@
+import java.io.File;
+import java.io.IOException;
+
 
 /**
  * The class containing the main method. It represents a program for managing
@@ -39,10 +42,41 @@ public class SemSearch {
      * @param args
      *            Command-line arguments. Expects 'worldSize' (a power of two)
      *            and the
-     *            path to the input file.
+     *            path to the input file, optionally followed by "bulk" to
+     *            bulk load the inserts at the start of the file, by
+     *            "parallel" to update the indexes in parallel, by
+     *            "log=" and a file name to keep the records in a
+     *            write-ahead log across runs, where every insert and
+     *            delete is forced to disk before it is reported, and by
+     *            "catalog=" and a file
+     *            name to run the searches read-only against a catalog file
+     *            written by "catalog save".
      */
     public static void main(String[] args) {
-        if (args.length != 2) {
+        boolean bulk = false;
+        boolean parallel = false;
+        String logPath = null;
+        String catalogPath = null;
+        int options = 0;
+        for (int i = 2; i < args.length; i++) {
+            if ("bulk".equals(args[i]) && !bulk) {
+                bulk = true;
+                options++;
+            }
+            else if ("parallel".equals(args[i]) && !parallel) {
+                parallel = true;
+                options++;
+            }
+            else if (args[i].startsWith("log=") && logPath == null) {
+                logPath = args[i].substring(4);
+                options++;
+            }
+            else if (args[i].startsWith("catalog=") && catalogPath == null) {
+                catalogPath = args[i].substring(8);
+                options++;
+            }
+        }
+        if (args.length != 2 + options) {
             System.err.println(
                 "Incorrect number of arguments: provide two arguments"
                     + " in the correct format.");
@@ -65,8 +99,49 @@ public class SemSearch {
         }
 
         String filePath = args[1];
+        if (catalogPath != null) {
+            searchCatalog(worldSize, filePath, new File(catalogPath));
+            return;
+        }
         CommandProcessor commandProcessor = new CommandProcessor(worldSize);
-        commandProcessor.processCommandsFromFile(filePath);
+        commandProcessor.setBulkLoad(bulk);
+        commandProcessor.setParallel(parallel);
+        try {
+            if (logPath != null) {
+                commandProcessor.openLog(new File(logPath));
+            }
+            commandProcessor.processCommandsFromFile(filePath);
+            commandProcessor.closeLog();
+        }
+        catch (IOException e) {
+            System.err.println("Error: The log file could not be used: "
+                + e.getMessage());
+        }
+    }
+
+
+    // Runs the commands of a file against a read-only catalog
+    private static void searchCatalog(
+        int worldSize,
+        String filePath,
+        File catalogFile) {
+        MappedCatalog catalog;
+        try {
+            catalog = new MappedCatalog(catalogFile);
+        }
+        catch (IOException e) {
+            System.err.println("Error: The catalog file could not be used: "
+                + e.getMessage());
+            return;
+        }
+        if (catalog.getWorldSize() != worldSize) {
+            System.err.println("Incorrect world-size: The catalog was "
+                + "written for a world-size of " + catalog.getWorldSize()
+                + ".");
+            return;
+        }
+        new CatalogProcessor(catalog, new BufferedSink())
+            .processCommandsFromFile(filePath);
     }
 
 
@@ -1,5 +1,6 @@
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 // import java.io.File;
 // import java.io.IOException;
@@ -293,6 +294,90 @@ public class SemSearchTest extends TestCase {
         assertFuzzyEquals(referenceOutput, output);
     }
 
+
+    /**
+     * Tests that updating the indexes in parallel gives the same output as
+     * updating them one after another.
+     *
+     * @throws IOException
+     *             if there is an I/O error while reading the reference output
+     *             file.
+     */
+    public void testDeleteMultipleParallel() throws IOException {
+        String[] args = { "128", "Delete_input_multiple.txt", "parallel" };
+        SemSearch.main(args);
+        String output = systemOut().getHistory();
+        String referenceOutput = readFile("Delete_output_multiple.txt");
+        assertFuzzyEquals(referenceOutput, output);
+
+        systemOut().clearHistory();
+        args = new String[] { "16777216", "LargeWorld_input.txt", "parallel",
+            "bulk" };
+        SemSearch.main(args);
+        output = systemOut().getHistory();
+        referenceOutput = readFile("LargeWorld_output.txt");
+        assertFuzzyEquals(referenceOutput, output);
+    }
+
+
+    /**
+     * Tests that the records of a run are kept in a write-ahead log, so a
+     * second run over the same log already holds them.
+     *
+     * @throws IOException
+     *             if there is an I/O error while reading the reference output
+     *             file.
+     */
+    public void testLog() throws IOException {
+        File log = File.createTempFile("seminars", ".log");
+        log.delete();
+        String[] args = { "128", "Insert_input.txt", "log=" + log.getPath() };
+        SemSearch.main(args);
+        String referenceOutput = readFile("Insert_output.txt");
+        assertFuzzyEquals(referenceOutput, systemOut().getHistory());
+
+        systemOut().clearHistory();
+        SemSearch.main(args);
+        String output = systemOut().getHistory();
+        assertFalse(output.contains("Successfully inserted"));
+        assertTrue(output.contains(
+            "Insert FAILED - There is already a record with ID 1"));
+        log.delete();
+    }
+
+
+    /**
+     * Tests a world of size 2^24, with coordinates far beyond the range of a
+     * short, seminars on the split lines and at the far corner, and a search
+     * radius whose square does not fit in an int.
+     *
+     * @throws IOException
+     *             if an I/O error occurs during the test
+     */
+    public void testLargeWorld() throws IOException {
+        String[] args = { "16777216", "LargeWorld_input.txt" };
+        SemSearch.main(args);
+        String output = systemOut().getHistory();
+        String referenceOutput = readFile("LargeWorld_output.txt");
+        assertFuzzyEquals(referenceOutput, output);
+    }
+
+
+    /**
+     * Tests that bulk loading the leading inserts of a command file gives
+     * the same output as inserting them one at a time.
+     *
+     * @throws IOException
+     *             if an I/O error occurs during the test
+     */
+    public void testLargeWorldBulk() throws IOException {
+        String[] args = { "16777216", "LargeWorld_input.txt", "bulk" };
+        SemSearch.main(args);
+        String output = systemOut().getHistory();
+        String referenceOutput = readFile("LargeWorld_output.txt");
+        assertFuzzyEquals(referenceOutput, output);
+    }
+
     /**
      * This method tests the behavior of the `Bintree` class by running it
      * with specific
@@ -11,8 +11,8 @@ public class Seminar {
     private String date; // Seminar date
     private int length; // Seminar length
     private String[] keywords; // Seminar keywords
-    private short x; // Seminar x coord
-    private short y; // Seminar y coord
+    private int x; // Seminar x coord
+    private int y; // Seminar y coord
     private String desc; // Seminar description
     private int cost; // Seminar cost
     private int id; // Seminar ID
@@ -53,8 +53,8 @@ public class Seminar {
         String tin,
         String datein,
         int lin,
-        short xin,
-        short yin,
+        int xin,
+        int yin,
         int cin,
         String[] kin,
         String descin) {
@@ -81,6 +81,39 @@ public class Seminar {
     }
 
 
+    // ----------------------------------------------------------
+    /**
+     * Return the seminar title
+     * 
+     * @return the title field for the seminar
+     */
+    public String title() {
+        return title;
+    }
+
+
+    // ----------------------------------------------------------
+    /**
+     * Return the seminar length
+     * 
+     * @return the length field for the seminar
+     */
+    public int length() {
+        return length;
+    }
+
+
+    // ----------------------------------------------------------
+    /**
+     * Return the seminar description
+     * 
+     * @return the description field for the seminar
+     */
+    public String description() {
+        return desc;
+    }
+
+
     // ----------------------------------------------------------
     /**
      * Return the seminar date
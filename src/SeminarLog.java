@@ -0,0 +1,435 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead log of the inserts and deletes applied to the
+ * seminar indexes, so that they can be rebuilt after a restart without
+ * replaying the command files that built them.
+ *
+ * The log starts with a magic number and a version. Each record after that
+ * is the length of its payload, a CRC32 of the payload, and the payload: a
+ * type byte followed by either the whole seminar (insert) or its ID
+ * (delete). Records are collected in memory and written and forced to disk
+ * together on commit, or once a group of them is full. Only committed
+ * records survive a crash, so callers commit before they report a change:
+ * SemManagerBST commits after every insert and delete, and once for a bulk
+ * loaded batch of inserts. A torn or corrupt record at the end of
+ * the log, left by a crash in the middle of a write, is cut off when the
+ * log is opened again.
+ *
+ * Opening a log replays it into the seminars that are still live, in the
+ * order they were inserted. Whenever the log holds many more records than
+ * live seminars it is compacted: rewritten as one insert per live seminar
+ * and swapped in atomically. Replaying it therefore costs time in the
+ * number of live seminars rather than in the length of the history.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class SeminarLog implements Closeable {
+    /**
+     * The largest number of records collected before they are written and
+     * forced to disk without waiting for a commit.
+     */
+    public static final int DEFAULT_GROUP_SIZE = 64;
+
+    private static final int MAGIC = 0x53454d4c; // "SEML"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER = 8; // Magic number and version
+    private static final int RECORD_HEADER = 8; // Length and checksum
+    private static final byte INSERT = 1;
+    private static final byte DELETE = 2;
+    private static final int COMPACT_MIN = 1024; // Records worth compacting
+
+    private final Path path;
+    private final int groupSize;
+    private FileChannel channel;
+    private ByteArrayOutputStream group; // Records not yet written
+    private DataOutputStream groupData; // Writes records into group
+    private int groupRecords; // Number of records in group
+    private int records; // Number of records in the log
+    private int live; // Number of live seminars the log describes
+    private List<Seminar> recovered; // Live seminars found when opened
+
+    /**
+     * Opens a log, creating it if it does not exist. An existing log is
+     * replayed, cut off after its last intact record, and compacted if it
+     * holds more records than live seminars.
+     *
+     * @param file
+     *            The log file.
+     * @param groupSize
+     *            The largest number of records collected before they are
+     *            written and forced to disk without a commit.
+     * @throws IOException
+     *             If the log cannot be read or written, or the file is not
+     *             a seminar log.
+     */
+    public SeminarLog(File file, int groupSize) throws IOException {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException(
+                "Group size must be at least 1");
+        }
+        path = file.toPath();
+        this.groupSize = groupSize;
+        group = new ByteArrayOutputStream();
+        groupData = new DataOutputStream(group);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < FILE_HEADER) {
+                channel.truncate(0);
+                writeFileHeader(channel);
+                channel.force(true);
+                recovered = new ArrayList<>();
+            }
+            else {
+                long end = replay();
+                if (end < channel.size()) {
+                    channel.truncate(end); // Drop a torn or corrupt tail
+                    channel.force(true);
+                }
+            }
+            live = recovered.size();
+            if (records > live) {
+                compact(recovered);
+            }
+            channel.position(channel.size());
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Gets the seminars that were live when the log was opened, in the
+     * order they were inserted.
+     *
+     * @return The live seminars.
+     */
+    public List<Seminar> getRecovered() {
+        return recovered;
+    }
+
+
+    /**
+     * Gets the number of records in the log, including the ones not yet
+     * written.
+     *
+     * @return The number of records.
+     */
+    public int getRecordCount() {
+        return records;
+    }
+
+
+    /**
+     * Appends the insert of a seminar to the log.
+     *
+     * @param seminar
+     *            The inserted seminar.
+     * @throws IOException
+     *             If a full group cannot be written.
+     */
+    public void logInsert(Seminar seminar) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(INSERT);
+        writeSeminar(out, seminar);
+        live++;
+        append(payload.toByteArray());
+    }
+
+
+    /**
+     * Appends the delete of a seminar to the log.
+     *
+     * @param id
+     *            The ID of the deleted seminar.
+     * @throws IOException
+     *             If a full group cannot be written.
+     */
+    public void logDelete(int id) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(DELETE);
+        out.writeInt(id);
+        live--;
+        append(payload.toByteArray());
+    }
+
+
+    /**
+     * Writes the records collected so far and forces them to disk.
+     *
+     * @throws IOException
+     *             If the records cannot be written.
+     */
+    public void commit() throws IOException {
+        if (groupRecords == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(group.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        group.reset();
+        groupRecords = 0;
+        if (records > 2 * live + COMPACT_MIN) {
+            compact(replayLive());
+        }
+    }
+
+
+    /**
+     * Replaces the whole log with one insert per given seminar, dropping
+     * the records not yet written. This is used when the indexes are
+     * replaced all at once, for example by loading a snapshot.
+     *
+     * @param seminars
+     *            The seminars that are now live, in insertion order.
+     * @throws IOException
+     *             If the new log cannot be written.
+     */
+    public void reset(List<Seminar> seminars) throws IOException {
+        compact(seminars);
+        // Dropped only once the new log is in place
+        group.reset();
+        groupRecords = 0;
+    }
+
+
+    /**
+     * Commits the remaining records and closes the log.
+     *
+     * @throws IOException
+     *             If the records cannot be written.
+     */
+    public void close() throws IOException {
+        try {
+            commit();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+
+    /**
+     * Writes a seminar with all its fields.
+     *
+     * @param out
+     *            The output to write to.
+     * @param seminar
+     *            The seminar to write.
+     * @throws IOException
+     *             If the output cannot be written.
+     */
+    static void writeSeminar(DataOutput out, Seminar seminar)
+        throws IOException {
+        out.writeInt(seminar.id());
+        out.writeUTF(seminar.title());
+        out.writeUTF(seminar.date());
+        out.writeInt(seminar.length());
+        out.writeInt(seminar.x());
+        out.writeInt(seminar.y());
+        out.writeInt(seminar.cost());
+        out.writeInt(seminar.keywords().length);
+        for (String keyword : seminar.keywords()) {
+            out.writeUTF(keyword);
+        }
+        out.writeUTF(seminar.description());
+    }
+
+
+    /**
+     * Reads a seminar written by writeSeminar.
+     *
+     * @param in
+     *            The input to read from.
+     * @return The seminar.
+     * @throws IOException
+     *             If the input cannot be read or ends too early.
+     */
+    static Seminar readSeminar(DataInput in) throws IOException {
+        int id = in.readInt();
+        String title = in.readUTF();
+        String date = in.readUTF();
+        int length = in.readInt();
+        int x = in.readInt();
+        int y = in.readInt();
+        int cost = in.readInt();
+        String[] keywords = new String[in.readInt()];
+        for (int i = 0; i < keywords.length; i++) {
+            keywords[i] = in.readUTF();
+        }
+        String description = in.readUTF();
+        return new Seminar(id, title, date, length, x, y, cost, keywords,
+            description);
+    }
+
+
+    // Adds a record to the current group, writing the group once it is full
+    private void append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        groupData.writeInt(payload.length);
+        groupData.writeInt((int)crc.getValue());
+        groupData.write(payload);
+        groupRecords++;
+        records++;
+        if (groupRecords >= groupSize) {
+            commit();
+        }
+    }
+
+
+    // Reads the whole log into recovered and records, returning the offset
+    // just past the last intact record
+    private long replay() throws IOException {
+        try (InputStream file = new FileInputStream(path.toFile())) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                file));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a seminar log: " + path);
+            }
+            LinkedHashMap<Integer, Seminar> seminars = new LinkedHashMap<>();
+            long size = Files.size(path);
+            long end = FILE_HEADER;
+            records = 0;
+            while (size - end >= RECORD_HEADER) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > size - end - RECORD_HEADER) {
+                    break; // Torn record
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int)crc.getValue() != checksum || !apply(payload,
+                    seminars)) {
+                    break; // Corrupt record
+                }
+                end += RECORD_HEADER + length;
+                records++;
+            }
+            recovered = new ArrayList<>(seminars.values());
+            return end;
+        }
+    }
+
+
+    // Applies one record to the live seminars by ID, returning false if its
+    // payload cannot be decoded
+    private static boolean apply(
+        byte[] payload,
+        LinkedHashMap<Integer, Seminar> seminars) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+            payload));
+        try {
+            byte type = in.readByte();
+            if (type == INSERT) {
+                Seminar seminar = readSeminar(in);
+                seminars.remove(seminar.id()); // Keep insertion order
+                seminars.put(seminar.id(), seminar);
+            }
+            else if (type == DELETE) {
+                seminars.remove(in.readInt());
+            }
+            else {
+                return false;
+            }
+            return in.available() == 0;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+
+    // Reads the live seminars of the committed log back from disk
+    private List<Seminar> replayLive() throws IOException {
+        replay();
+        return recovered;
+    }
+
+
+    // Replaces the log with one insert per live seminar. The new log is
+    // written and forced to a temporary file first and then moved over the
+    // old one, so a crash leaves either the old or the new log intact.
+    private void compact(List<Seminar> seminars) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFileHeader(out);
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            DataOutputStream batchData = new DataOutputStream(batch);
+            for (Seminar seminar : seminars) {
+                ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                DataOutputStream data = new DataOutputStream(payload);
+                data.writeByte(INSERT);
+                writeSeminar(data, seminar);
+                CRC32 crc = new CRC32();
+                crc.update(payload.toByteArray());
+                batchData.writeInt(payload.size());
+                batchData.writeInt((int)crc.getValue());
+                payload.writeTo(batchData);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            // Reopened whether or not the move worked, on the old log if
+            // it did not, so the log stays usable
+            channel = FileChannel.open(path, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+        records = seminars.size();
+        live = seminars.size();
+    }
+
+
+    // Writes the magic number and version at the start of a new log
+    private static void writeFileHeader(FileChannel out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+    }
+}
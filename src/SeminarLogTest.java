@@ -0,0 +1,316 @@
+import student.TestCase;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class contains test cases for the SeminarLog class and for
+ * rebuilding the indexes from it.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class SeminarLogTest extends TestCase {
+    private File file;
+
+    /**
+     * Creates a fresh log file name for each test.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created
+     */
+    public void setUp() throws IOException {
+        file = File.createTempFile("seminars", ".log");
+        file.delete();
+    }
+
+
+    /**
+     * Removes the log file after each test.
+     */
+    public void tearDown() {
+        file.delete();
+    }
+
+
+    /**
+     * Tests that reopening a log recovers the live seminars with all their
+     * fields, in insertion order, and compacts the deletes away.
+     *
+     * @throws IOException
+     *             If the log cannot be used
+     */
+    public void testReplay() throws IOException {
+        SeminarLog log = new SeminarLog(file, 4);
+        assertEquals(0, log.getRecovered().size());
+        for (int id = 1; id <= 6; id++) {
+            log.logInsert(Fixtures.seminar(id, 10 * id, id, id, "k" + id,
+                "VT"));
+        }
+        log.logDelete(2);
+        log.logDelete(5);
+        log.logInsert(Fixtures.seminar(2, 99, 9, 9, "k2", "VT"));
+        log.close();
+
+        log = new SeminarLog(file, 4);
+        List<Seminar> live = log.getRecovered();
+        assertEquals(5, live.size());
+        int[] ids = { 1, 3, 4, 6, 2 };
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], live.get(i).id());
+        }
+        assertEquals(Fixtures.seminar(3, 30, 3, 3, "k3", "VT").toString(),
+            live.get(1).toString());
+        assertEquals(99, live.get(4).cost());
+        assertEquals(5, log.getRecordCount());
+        log.close();
+    }
+
+
+    /**
+     * Tests that only whole groups reach the disk before a commit, and
+     * that a torn or corrupt record at the end of the log is cut off while
+     * the records before it survive.
+     *
+     * @throws IOException
+     *             If the log cannot be used
+     */
+    public void testTornTail() throws IOException {
+        SeminarLog log = new SeminarLog(file, 3);
+        for (int id = 1; id <= 4; id++) {
+            log.logInsert(Fixtures.seminar(id, id, id, id, "VT"));
+        }
+        long committed = file.length();
+        log.commit();
+        long full = file.length();
+        assertTrue(full > committed);
+        log.close();
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(full - 5); // A crash in the middle of a write
+        }
+        log = new SeminarLog(file, 3);
+        assertEquals(3, log.getRecovered().size());
+        assertEquals(committed, file.length());
+        log.logInsert(Fixtures.seminar(4, 4, 4, 4, "VT"));
+        log.close();
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(file.length() - 3);
+            raw.write(0x55); // Flip bits inside the last record
+        }
+        log = new SeminarLog(file, 3);
+        assertEquals(3, log.getRecovered().size());
+        log.close();
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.writeInt(0);
+        }
+        Exception exception = null;
+        try {
+            new SeminarLog(file, 3);
+        }
+        catch (IOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Tests that a long history of inserts and deletes is compacted while
+     * it is written, so the log stays proportional to the live seminars.
+     *
+     * @throws IOException
+     *             If the log cannot be used
+     */
+    public void testCompaction() throws IOException {
+        SeminarLog log = new SeminarLog(file, 16);
+        for (int round = 0; round < 20000; round++) {
+            log.logInsert(Fixtures.seminar(round % 50, round, 0, 0, "VT"));
+            log.logDelete(round % 50);
+        }
+        log.logInsert(Fixtures.seminar(7, 7, 7, 7, "VT"));
+        assertTrue(log.getRecordCount() < 2000);
+        log.close();
+
+        log = new SeminarLog(file, 16);
+        assertEquals(1, log.getRecovered().size());
+        assertEquals(1, log.getRecordCount());
+        log.close();
+    }
+
+
+    /**
+     * Tests that indexes rebuilt from the log find the same seminars as
+     * the indexes the logged inserts and deletes were applied to.
+     *
+     * @throws IOException
+     *             If the log cannot be used
+     */
+    public void testRebuildIndexes() throws IOException {
+        SemManagerBST manager = new SemManagerBST(new CollectingSink());
+        Random random = new Random(21);
+        IdBST ids = new IdBST();
+        CostBST costs = new CostBST();
+        DateBST dates = new DateBST();
+        KeywordBST keywords = new KeywordBST();
+        Bintree locations = new Bintree();
+        SeminarLog log = new SeminarLog(file, 8);
+        manager.setLog(log);
+        for (int i = 0; i < 300; i++) {
+            int id = random.nextInt(100);
+            Seminar seminar = Fixtures.seminar(id, random.nextInt(50), random
+                .nextInt(128), random.nextInt(128), "k" + (id % 3), "VT");
+            if (ids.searchID(seminar.id()) == null) {
+                manager.addSeminarRecord(seminar, 128, ids, costs, dates,
+                    keywords, locations);
+            }
+            else if (random.nextBoolean()) {
+                manager.deleteSeminarRecord(ids.searchID(seminar.id()), 128,
+                    ids, costs, dates, keywords, locations);
+            }
+        }
+        log.close();
+
+        log = new SeminarLog(file, 8);
+        IdBST rebuiltIds = new IdBST();
+        CostBST rebuiltCosts = new CostBST();
+        DateBST rebuiltDates = new DateBST();
+        KeywordBST rebuiltKeywords = new KeywordBST();
+        Bintree rebuiltLocations = new Bintree();
+        manager.setLog(null);
+        manager.loadSeminarRecords(log.getRecovered(), 128, rebuiltIds,
+            rebuiltCosts, rebuiltDates, rebuiltKeywords, rebuiltLocations);
+        log.close();
+
+        assertEquals(ids.getRecordNumber(), rebuiltIds.getRecordNumber());
+        assertEquals(text(ids, costs, dates, keywords), text(rebuiltIds,
+            rebuiltCosts, rebuiltDates, rebuiltKeywords));
+        CollectingSink original = new CollectingSink();
+        CollectingSink rebuilt = new CollectingSink();
+        locations.setOutput(original);
+        rebuiltLocations.setOutput(rebuilt);
+        locations.preorderTraversal();
+        rebuiltLocations.preorderTraversal();
+        assertEquals(original.getText(), rebuilt.getText());
+    }
+
+
+    /**
+     * Tests that an insert whose log append fails leaves every index
+     * untouched, and that a duplicate insert is rejected before anything is
+     * logged.
+     *
+     * @throws IOException
+     *             If the log cannot be used
+     */
+    public void testFailedAppendLeavesIndexes() throws IOException {
+        CollectingSink sink = new CollectingSink();
+        SemManagerBST manager = new SemManagerBST(sink);
+        IdBST ids = new IdBST();
+        CostBST costs = new CostBST();
+        DateBST dates = new DateBST();
+        KeywordBST keywords = new KeywordBST();
+        Bintree locations = new Bintree();
+        SeminarLog log = new SeminarLog(file, 1);
+        manager.setLog(log);
+        manager.addSeminarRecord(Fixtures.seminar(1, 10, 1, 1, "k1", "VT"),
+            128, ids, costs, dates, keywords, locations);
+        manager.addSeminarRecord(Fixtures.seminar(1, 20, 2, 2, "k1", "VT"),
+            128, ids, costs, dates, keywords, locations);
+        assertTrue(sink.getText().contains(
+            "Insert FAILED - There is already a record with ID 1"));
+        assertEquals(1, log.getRecordCount());
+        log.close();
+
+        Exception exception = null;
+        try {
+            manager.addSeminarRecord(Fixtures.seminar(2, 20, 2, 2, "VT"), 128,
+                ids, costs, dates, keywords, locations);
+        }
+        catch (UncheckedIOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+        assertNull(ids.searchID(2));
+        assertEquals(-1, ids.getStore().find(2));
+        assertEquals(1, ids.getRecordNumber());
+        assertEquals(1, costs.getRecordNumber());
+        assertEquals(1, dates.getRecordNumber());
+        assertEquals(2, keywords.getRecordNumber());
+        List<Seminar> found = new ArrayList<>();
+        locations.search(0, 0, 200, 128, found);
+        assertEquals(1, found.size());
+    }
+
+
+    /**
+     * Tests that every insert, delete and bulk loaded batch is on disk once
+     * it has been reported, even though the log group is not full.
+     *
+     * @throws IOException
+     *             If the log cannot be used
+     */
+    public void testReportedChangesAreCommitted() throws IOException {
+        SemManagerBST manager = new SemManagerBST(new CollectingSink());
+        IdBST ids = new IdBST();
+        CostBST costs = new CostBST();
+        DateBST dates = new DateBST();
+        KeywordBST keywords = new KeywordBST();
+        Bintree locations = new Bintree();
+        SeminarLog log = new SeminarLog(file, SeminarLog.DEFAULT_GROUP_SIZE);
+        manager.setLog(log);
+        List<Seminar> batch = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            batch.add(Fixtures.seminar(id, id, id, id, "VT"));
+        }
+        manager.addSeminarRecords(batch, 128, ids, costs, dates, keywords,
+            locations);
+        assertEquals(3, committedSeminars());
+        manager.addSeminarRecord(Fixtures.seminar(4, 4, 4, 4, "VT"), 128,
+            ids, costs, dates, keywords, locations);
+        assertEquals(4, committedSeminars());
+        manager.deleteSeminarRecord(ids.searchID(2), 128, ids, costs, dates,
+            keywords, locations);
+        assertEquals(3, committedSeminars());
+        log.close();
+    }
+
+
+    // Counts the live seminars a crash right now would recover
+    private int committedSeminars() throws IOException {
+        try (SeminarLog recovery = new SeminarLog(file, 1)) {
+            return recovery.getRecovered().size();
+        }
+    }
+
+
+    // The seminars of each index, in the order its searches report them
+    private static String text(
+        IdBST ids,
+        CostBST costs,
+        DateBST dates,
+        KeywordBST keys) {
+        List<Seminar> seminars = new ArrayList<>();
+        ids.collectRange(Integer.MIN_VALUE, Integer.MAX_VALUE, seminars);
+        costs.collectRange(Integer.MIN_VALUE, Integer.MAX_VALUE, seminars);
+        dates.collectRange("0000000000", "9999999999", seminars);
+        CollectingSink sink = new CollectingSink();
+        keys.setOutput(sink);
+        for (int i = 0; i < 3; i++) {
+            keys.searchAndPrintByKeyword("k" + i);
+        }
+        StringBuilder text = new StringBuilder(sink.getText());
+        for (Seminar seminar : seminars) {
+            text.append(seminar.toString()).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * A point-in-time binary dump of the seminar records. Loading a snapshot
+ * reads every record straight into a list that the indexes can be bulk
+ * loaded from, which is far faster than replaying the text commands that
+ * built them.
+ *
+ * A snapshot starts with a magic number, a version and the number of
+ * records. Each record is the length of its payload followed by the
+ * payload, the seminar with all its fields in the same encoding the
+ * write-ahead log uses. A CRC32 of everything before it ends the file, so
+ * a truncated or damaged snapshot is rejected instead of half loaded.
+ * Records are kept in insertion order, so that the indexes rebuilt from
+ * them report equal keys and keyword matches in the same order as before.
+ *
+ * A snapshot is written to a temporary file, forced to disk and then moved
+ * over the old one, so a crash while saving leaves the old snapshot intact.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class SeminarSnapshot {
+    private static final int MAGIC = 0x53454d53; // "SEMS"
+    private static final int VERSION = 1;
+    private static final int HEADER = 12; // Magic number, version and count
+    private static final int TRAILER = 8; // Checksum
+    private static final int BATCH = 1 << 20; // Bytes per channel write
+    private static final int MIN_RECORD = 34; // Smallest record with length
+
+    // Snapshots are only saved and loaded through the static methods
+    private SeminarSnapshot() {
+    }
+
+
+    /**
+     * Saves seminars to a snapshot file, replacing any file already there.
+     *
+     * @param file
+     *            The snapshot file.
+     * @param seminars
+     *            The seminars in insertion order.
+     * @throws IOException
+     *             If the snapshot cannot be written.
+     */
+    public static void save(File file, List<Seminar> seminars)
+        throws IOException {
+        Path path = file.toPath();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteArrayOutputStream batch = new ByteArrayOutputStream(BATCH
+                + BATCH / 4);
+            DataOutputStream batchData = new DataOutputStream(batch);
+            batchData.writeInt(MAGIC);
+            batchData.writeInt(VERSION);
+            batchData.writeInt(seminars.size());
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            DataOutputStream recordData = new DataOutputStream(record);
+            for (Seminar seminar : seminars) {
+                record.reset();
+                SeminarLog.writeSeminar(recordData, seminar);
+                batchData.writeInt(record.size());
+                record.writeTo(batchData);
+                if (batch.size() >= BATCH) {
+                    write(out, batch, crc);
+                }
+            }
+            batchData.writeLong(0); // Make room for the checksum
+            byte[] last = batch.toByteArray();
+            crc.update(last, 0, last.length - TRAILER);
+            ByteBuffer.wrap(last).putLong(last.length - TRAILER, crc
+                .getValue());
+            writeFully(out, ByteBuffer.wrap(last));
+            out.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Loads the seminars of a snapshot file.
+     *
+     * @param file
+     *            The snapshot file.
+     * @return The seminars in insertion order.
+     * @throws IOException
+     *             If the file cannot be read, is not a seminar snapshot, or
+     *             is truncated or damaged.
+     */
+    public static List<Seminar> load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.READ)) {
+            long remaining = channel.size() - HEADER - TRAILER;
+            CRC32 crc = new CRC32();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel),
+                    1 << 16), crc));
+            if (remaining < 0 || in.readInt() != MAGIC
+                || in.readInt() != VERSION) {
+                throw new IOException("Not a seminar snapshot: " + file);
+            }
+            int count = in.readInt();
+            if (count < 0 || count > remaining / MIN_RECORD) {
+                throw new IOException("Damaged seminar snapshot: " + file);
+            }
+            List<Seminar> seminars = new ArrayList<>(count);
+            byte[] payload = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int length = (remaining < 4) ? -1 : in.readInt();
+                if (length <= 0 || length > remaining - 4) {
+                    throw new IOException("Damaged seminar snapshot: "
+                        + file);
+                }
+                remaining -= 4 + length;
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, 2 * payload.length)];
+                }
+                in.readFully(payload, 0, length);
+                ByteArrayInputStream bytes = new ByteArrayInputStream(payload,
+                    0, length);
+                seminars.add(SeminarLog.readSeminar(new DataInputStream(
+                    bytes)));
+                if (bytes.available() != 0) {
+                    throw new IOException("Damaged seminar snapshot: "
+                        + file);
+                }
+            }
+            long checksum = crc.getValue();
+            if (remaining != 0 || in.readLong() != checksum) {
+                throw new IOException("Damaged seminar snapshot: " + file);
+            }
+            return seminars;
+        }
+    }
+
+
+    // Writes a full batch to the channel, adds it to the checksum and
+    // empties it
+    private static void write(
+        FileChannel out,
+        ByteArrayOutputStream batch,
+        CRC32 crc)
+        throws IOException {
+        byte[] bytes = batch.toByteArray();
+        crc.update(bytes);
+        writeFully(out, ByteBuffer.wrap(bytes));
+        batch.reset();
+    }
+
+
+    // Writes all the remaining bytes of a buffer to the channel
+    private static void writeFully(FileChannel out, ByteBuffer buffer)
+        throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
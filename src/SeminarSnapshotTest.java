@@ -0,0 +1,213 @@
+import student.TestCase;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains test cases for the SeminarSnapshot class and for the
+ * snapshot save and load commands.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class SeminarSnapshotTest extends TestCase {
+    private File file;
+
+    /**
+     * Creates a fresh snapshot file name for each test.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created
+     */
+    public void setUp() throws IOException {
+        file = File.createTempFile("seminars", ".snapshot");
+        file.delete();
+    }
+
+
+    /**
+     * Removes the snapshot file after each test.
+     */
+    public void tearDown() {
+        file.delete();
+    }
+
+
+    /**
+     * Tests that a saved snapshot loads back every seminar with all its
+     * fields, in the order they were saved, and that saving again replaces
+     * the old snapshot.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be used
+     */
+    public void testRoundTrip() throws IOException {
+        SeminarSnapshot.save(file, new ArrayList<>());
+        assertEquals(0, SeminarSnapshot.load(file).size());
+
+        List<Seminar> seminars = new ArrayList<>();
+        for (int id = 0; id < 50000; id++) {
+            int key = (id * 7919) % 50000;
+            int cost = id % 1000;
+            seminars.add(Fixtures.seminar(key, cost, key % 128, cost % 128,
+                "k" + (key % 3), "VT"));
+        }
+        SeminarSnapshot.save(file, seminars);
+        List<Seminar> loaded = SeminarSnapshot.load(file);
+        assertEquals(seminars.size(), loaded.size());
+        for (int i = 0; i < seminars.size(); i++) {
+            assertEquals(seminars.get(i).toString(), loaded.get(i)
+                .toString());
+        }
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+
+    /**
+     * Tests that a truncated, damaged or foreign file is rejected.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be written
+     */
+    public void testDamaged() throws IOException {
+        List<Seminar> seminars = new ArrayList<>();
+        for (int id = 0; id < 10; id++) {
+            seminars.add(Fixtures.seminar(id, id, id, id, "k" + (id % 3),
+                "VT"));
+        }
+        SeminarSnapshot.save(file, seminars);
+        long length = file.length();
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(length / 2);
+            int value = raw.read();
+            raw.seek(length / 2);
+            raw.write(value ^ 0x10); // Flip a bit inside a record
+        }
+        assertNotNull(loadFailure());
+
+        SeminarSnapshot.save(file, seminars);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(length - 20); // A copy cut short
+        }
+        assertNotNull(loadFailure());
+
+        Files.write(file.toPath(), "print ID\n".getBytes());
+        assertNotNull(loadFailure());
+    }
+
+
+    /**
+     * Tests that the indexes loaded from a snapshot answer every search
+     * the same way, in the same order, as the indexes it was saved from,
+     * and that a failed load leaves the indexes alone.
+     *
+     * @throws IOException
+     *             If a command file cannot be written
+     */
+    public void testCommands() throws IOException {
+        String searches = "search cost 0 100\n"
+            + "search date 0000000000 9999999999\n"
+            + "search keyword VT\nsearch keyword Computer_Science\n"
+            + "search location 10 10 50\nsearch ID 10\n";
+        CollectingSink original = new CollectingSink();
+        CommandProcessor saving = new CommandProcessor(128, false, original);
+        assertTrue(saving.processCommandsFromFile("Insert_input.txt"));
+        assertTrue(saving.processCommandsFromFile(commands("delete 2\n"
+            + "snapshot save " + file.getPath() + "\n")));
+        int start = original.getText().length();
+        assertTrue(original.getText().contains(
+            "Saved 3 records to snapshot"));
+        saving.processCommandsFromFile(commands(searches));
+        String expected = original.getText().substring(start);
+
+        CollectingSink loaded = new CollectingSink();
+        CommandProcessor loading = new CommandProcessor(128, true, loaded);
+        assertTrue(loading.processCommandsFromFile(commands(
+            "snapshot load " + file.getPath() + "\n")));
+        assertTrue(loaded.getText().contains(
+            "Loaded 3 records from snapshot"));
+        start = loaded.getText().length();
+        loading.processCommandsFromFile(commands(searches));
+        assertEquals(expected, loaded.getText().substring(start));
+
+        CommandProcessor small = new CommandProcessor(16, false, loaded);
+        small.processCommandsFromFile(commands("snapshot load "
+            + file.getPath() + "\nsearch ID 10\nsnapshot load "
+            + file.getPath() + ".missing\n"));
+        assertTrue(loaded.getText().contains(
+            "Snapshot FAILED -- Record with ID 10 is outside the world"));
+        assertTrue(loaded.getText().contains(
+            "Search FAILED -- There is no record with ID 10"));
+        assertEquals(2, loaded.getText().split("Snapshot FAILED").length
+            - 1);
+    }
+
+
+    /**
+     * Tests that a snapshot load whose log rewrite fails is reported as a
+     * failed snapshot and leaves the indexes and the log as they were, and
+     * that an unknown snapshot action is reported.
+     *
+     * @throws IOException
+     *             If a command file or the log cannot be used
+     */
+    public void testFailedLogReset() throws IOException {
+        File logFile = File.createTempFile("seminars", ".log");
+        logFile.delete();
+        File temporary = new File(logFile.getPath() + ".tmp");
+        CollectingSink sink = new CollectingSink();
+        CommandProcessor processor = new CommandProcessor(128, false, sink);
+        processor.openLog(logFile);
+        try {
+            assertTrue(processor.processCommandsFromFile(commands(
+                "snapshot save " + file.getPath() + "\n")));
+            assertTrue(processor.processCommandsFromFile("Insert_input.txt"));
+            // The log cannot write its new file over a directory
+            assertTrue(temporary.mkdir());
+            assertTrue(processor.processCommandsFromFile(commands(
+                "snapshot load " + file.getPath() + "\nsearch ID 10\n"
+                    + "snapshot sav " + file.getPath() + "\n")));
+            assertEquals(2, sink.getText().split("Snapshot FAILED -- ").length
+                - 1);
+            assertFalse(sink.getText().contains("Loaded 0 records"));
+            assertTrue(sink.getText().contains("Found record with ID 10:"));
+            assertTrue(sink.getText().contains(
+                "Snapshot FAILED -- Unknown action sav"));
+        }
+        finally {
+            processor.closeLog();
+            temporary.delete();
+        }
+        SeminarLog reopened = new SeminarLog(logFile, 1);
+        assertEquals(4, reopened.getRecovered().size());
+        reopened.close();
+        logFile.delete();
+    }
+
+
+    // Writes commands to a temporary file that is removed on exit
+    private static String commands(String text) throws IOException {
+        File commands = File.createTempFile("commands", ".txt");
+        commands.deleteOnExit();
+        Files.write(commands.toPath(), text.getBytes());
+        return commands.getPath();
+    }
+
+
+    // Loads the snapshot file and returns the exception it failed with
+    private IOException loadFailure() {
+        try {
+            SeminarSnapshot.load(file);
+            return null;
+        }
+        catch (IOException e) {
+            return e;
+        }
+    }
+}
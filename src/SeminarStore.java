@@ -0,0 +1,500 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The primary store of the seminar records, keyed by ID. Every record gets
+ * a small int handle, its slot in a dense record array, and the indexes
+ * keep these handles instead of references to the records. An index
+ * resolves a handle with a single array read, and deleting a record is a
+ * hash lookup of its ID followed by removing that handle from each index,
+ * without rebuilding the index entries or comparing record references.
+ *
+ * IDs are found through an open addressing table with linear probing that
+ * maps each ID to its handle. The table is at most half full, and removals
+ * shift the entries after them back instead of leaving tombstones, so
+ * lookups stay short however many records come and go. Freed handles are
+ * reused by the next records added, so the record array stays as large as
+ * the most records ever held at once.
+ *
+ * Every record is also stamped with an insertion sequence number when it is
+ * added, so that the indexes can list records in insertion order.
+ *
+ * Beside the records, the store keeps the fields that searches filter on
+ * in columns indexed by handle: cost, packed date, x, y and the keywords as
+ * small int IDs. The text fields stay in the records. A predicate can
+ * therefore be checked against every record in one sequential pass over a
+ * few primitive arrays, without touching a single record object. The
+ * filter methods narrow a selection of handles this way, one predicate at
+ * a time, and are used by QueryPlanner for searches that match too large a
+ * share of the records for an index to pay off.
+ *
+ * The store is not synchronized. The indexes only read it while they are
+ * updated in parallel, and records are added and removed before and after
+ * those updates.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+public class SeminarStore {
+    private static final int INITIAL_CAPACITY = 16; // Table slots, 2^n
+    private static final int EMPTY = -1; // Unused table slot or no handle
+    private int[] table; // Handle per slot, EMPTY when unused
+    private int[] ids; // ID per slot, valid where the slot is used
+    private Seminar[] records; // Record per handle, null when free
+    private int[] sequences; // Insertion sequence number per handle
+    private int[] free; // Freed handles, reused last freed first
+    private int freeCount; // Number of entries in free
+    private int handles; // Number of handles ever handed out
+    private int size; // Number of records in the store
+    private int nextSequence; // Sequence number of the next record added
+    private int[] costs; // Cost column
+    private long[] dates; // Date column, packed by DateBST.pack
+    private int[] xs; // X coordinate column
+    private int[] ys; // Y coordinate column
+    private int[][] keywords; // Keyword ID column
+    private HashMap<String, Integer> keywordIds; // ID of each keyword seen
+
+    /**
+     * Creates an empty store.
+     */
+    public SeminarStore() {
+        clear();
+    }
+
+
+    /**
+     * Removes every record from the store.
+     */
+    public void clear() {
+        table = new int[INITIAL_CAPACITY];
+        Arrays.fill(table, EMPTY);
+        ids = new int[INITIAL_CAPACITY];
+        records = new Seminar[INITIAL_CAPACITY];
+        sequences = new int[INITIAL_CAPACITY];
+        costs = new int[INITIAL_CAPACITY];
+        dates = new long[INITIAL_CAPACITY];
+        xs = new int[INITIAL_CAPACITY];
+        ys = new int[INITIAL_CAPACITY];
+        keywords = new int[INITIAL_CAPACITY][];
+        keywordIds = new HashMap<>();
+        free = new int[INITIAL_CAPACITY];
+        freeCount = 0;
+        handles = 0;
+        size = 0;
+        nextSequence = 0;
+    }
+
+
+    /**
+     * Adds a record with a new sequence number. A different record with the
+     * same ID is replaced in place: it keeps its handle and its sequence
+     * number, so postings stamped with that sequence still find it, but its
+     * columns follow the new record. Adding a record that is already in the
+     * store changes nothing, so the store is only read in that case.
+     *
+     * @param seminar
+     *            The record to add.
+     * @return The handle of the record.
+     */
+    public int add(Seminar seminar) {
+        int slot = slot(seminar.id());
+        int handle = table[slot];
+        if (handle != EMPTY) {
+            if (records[handle] != seminar) {
+                put(handle, seminar);
+            }
+            return handle;
+        }
+        if (freeCount > 0) {
+            handle = free[--freeCount];
+        }
+        else {
+            if (handles == records.length) {
+                grow(handles * 2);
+            }
+            handle = handles++;
+        }
+        sequences[handle] = nextSequence++;
+        put(handle, seminar);
+        table[slot] = handle;
+        ids[slot] = seminar.id();
+        size++;
+        if (size * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        return handle;
+    }
+
+
+    /**
+     * Finds the handle of the record with an ID.
+     *
+     * @param id
+     *            The ID to look up.
+     * @return The handle, or -1 if no record has the ID.
+     */
+    public int find(int id) {
+        return table[slot(id)];
+    }
+
+
+    /**
+     * Gets the record a handle stands for.
+     *
+     * @param handle
+     *            A handle handed out by add.
+     * @return The record, or null if it was removed.
+     */
+    public Seminar get(int handle) {
+        return records[handle];
+    }
+
+
+    /**
+     * Finds the record with an ID.
+     *
+     * @param id
+     *            The ID to look up.
+     * @return The record, or null if no record has the ID.
+     */
+    public Seminar searchID(int id) {
+        int handle = find(id);
+        return (handle == EMPTY) ? null : records[handle];
+    }
+
+
+    /**
+     * Gets the insertion sequence number of a record. Sequence numbers grow
+     * with every record added, so sorting by them puts records in
+     * insertion order.
+     *
+     * @param handle
+     *            A handle handed out by add.
+     * @return The sequence number of the record.
+     */
+    public int getSequence(int handle) {
+        return sequences[handle];
+    }
+
+
+    /**
+     * Removes the record with an ID and frees its handle for reuse. The
+     * indexes must no longer hold the handle.
+     *
+     * @param id
+     *            The ID of the record to remove.
+     * @return True if a record with the ID was removed.
+     */
+    public boolean remove(int id) {
+        int slot = slot(id);
+        int handle = table[slot];
+        if (handle == EMPTY) {
+            return false;
+        }
+        records[handle] = null;
+        keywords[handle] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = handle;
+        size--;
+
+        // Shift back every later entry of the run that may no longer be
+        // reachable from its home slot across the hole
+        int mask = table.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = hash(ids[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                ids[hole] = ids[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = EMPTY;
+        return true;
+    }
+
+
+    /**
+     * Get the number of records in the store.
+     *
+     * @return The number of records
+     */
+    public int getRecordNumber() {
+        return size;
+    }
+
+
+    /**
+     * Fills a selection with every handle ever handed out, the starting
+     * point of a scan. Freed handles are included; get returns null for
+     * them.
+     *
+     * @param selection
+     *            The array to fill, at least getHandleCount() long.
+     * @return The number of handles in the selection.
+     */
+    public int selectAll(int[] selection) {
+        for (int handle = 0; handle < handles; handle++) {
+            selection[handle] = handle;
+        }
+        return handles;
+    }
+
+
+    /**
+     * Gets the number of handles ever handed out since the store was
+     * cleared, which bounds every handle.
+     *
+     * @return The number of handles
+     */
+    public int getHandleCount() {
+        return handles;
+    }
+
+
+    /**
+     * Keeps the handles of a selection whose record has the given ID.
+     *
+     * @param id
+     *            The ID to match.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filterId(int id, int[] selection, int count) {
+        int handle = find(id);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (selection[i] == handle) {
+                selection[kept++] = handle;
+            }
+        }
+        return kept;
+    }
+
+
+    /**
+     * Keeps the handles of a selection whose cost is in an inclusive range.
+     *
+     * @param minCost
+     *            The lowest cost to keep.
+     * @param maxCost
+     *            The highest cost to keep.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filterCost(
+        int minCost,
+        int maxCost,
+        int[] selection,
+        int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int handle = selection[i];
+            int cost = costs[handle];
+            selection[kept] = handle;
+            kept += (cost >= minCost && cost <= maxCost) ? 1 : 0;
+        }
+        return kept;
+    }
+
+
+    /**
+     * Keeps the handles of a selection whose date is in an inclusive range.
+     * The packed date column decides, except for bounds that do not pack
+     * exactly, where the dates that tie with a bound are compared as
+     * Strings.
+     *
+     * @param minDate
+     *            The earliest date to keep.
+     * @param maxDate
+     *            The latest date to keep.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filterDate(
+        String minDate,
+        String maxDate,
+        int[] selection,
+        int count) {
+        long min = DateBST.pack(minDate);
+        long max = DateBST.pack(maxDate);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int handle = selection[i];
+            long date = dates[handle];
+            selection[kept] = handle;
+            kept += (date >= min && date <= max) ? 1 : 0;
+        }
+        if (DateBST.isExact(min) && DateBST.isExact(max)) {
+            return kept;
+        }
+        // Only a date that ties with a bound can be on the wrong side of it
+        int exact = 0;
+        for (int i = 0; i < kept; i++) {
+            int handle = selection[i];
+            Seminar seminar = records[handle];
+            boolean inside = dates[handle] != min && dates[handle] != max;
+            if (seminar != null && (inside || (seminar.date().compareTo(
+                minDate) >= 0 && seminar.date().compareTo(maxDate) <= 0))) {
+                selection[exact++] = handle;
+            }
+        }
+        return exact;
+    }
+
+
+    /**
+     * Keeps the handles of a selection whose location is within a radius
+     * of a point.
+     *
+     * @param x
+     *            The x coordinate of the center.
+     * @param y
+     *            The y coordinate of the center.
+     * @param radius
+     *            The radius; nothing is kept when it is negative.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filterLocation(
+        int x,
+        int y,
+        int radius,
+        int[] selection,
+        int count) {
+        if (radius < 0) {
+            return 0;
+        }
+        long limit = (long)radius * radius;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int handle = selection[i];
+            long dx = xs[handle] - (long)x;
+            long dy = ys[handle] - (long)y;
+            selection[kept] = handle;
+            kept += (dx * dx + dy * dy <= limit) ? 1 : 0;
+        }
+        return kept;
+    }
+
+
+    /**
+     * Keeps the handles of a selection whose record lists a keyword.
+     *
+     * @param keyword
+     *            The keyword to match.
+     * @param selection
+     *            The handles to filter, in place.
+     * @param count
+     *            The number of handles in the selection.
+     * @return The number of handles kept at the front of the selection.
+     */
+    public int filterKeyword(String keyword, int[] selection, int count) {
+        Integer id = keywordIds.get(keyword);
+        if (id == null) {
+            return 0;
+        }
+        int wanted = id;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int handle = selection[i];
+            int[] listed = keywords[handle];
+            if (listed == null) {
+                continue; // A freed handle
+            }
+            for (int listedId : listed) {
+                if (listedId == wanted) {
+                    selection[kept++] = handle;
+                    break;
+                }
+            }
+        }
+        return kept;
+    }
+
+
+    // Stores a record and its columns under a handle
+    private void put(int handle, Seminar seminar) {
+        records[handle] = seminar;
+        costs[handle] = seminar.cost();
+        dates[handle] = DateBST.pack(seminar.date());
+        xs[handle] = seminar.x();
+        ys[handle] = seminar.y();
+        String[] words = seminar.keywords();
+        int[] ids = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            Integer id = keywordIds.get(words[i]);
+            if (id == null) {
+                id = keywordIds.size();
+                keywordIds.put(words[i], id);
+            }
+            ids[i] = id;
+        }
+        keywords[handle] = ids;
+    }
+
+
+    // Makes room for the given number of handles in every handle array
+    private void grow(int capacity) {
+        records = Arrays.copyOf(records, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        costs = Arrays.copyOf(costs, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        keywords = Arrays.copyOf(keywords, capacity);
+    }
+
+
+    // Finds the slot holding the ID, or the empty slot where it belongs
+    private int slot(int id) {
+        int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        while (table[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+
+    // Spreads the bits of an ID so that sequential IDs do not form long
+    // runs of used slots
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+
+    // Moves every entry into a table with the given number of slots
+    private void resize(int capacity) {
+        int[] oldTable = table;
+        int[] oldIds = ids;
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        ids = new int[capacity];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != EMPTY) {
+                int slot = slot(oldIds[i]);
+                table[slot] = oldTable[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+}
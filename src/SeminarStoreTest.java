@@ -0,0 +1,170 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import student.TestCase;
+
+/**
+ * This class contains test cases for the SeminarStore class and for the
+ * indexes that hold its handles.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class SeminarStoreTest extends TestCase {
+
+    /**
+     * Tests adding, finding and removing records, handle reuse and
+     * insertion sequence numbers, which a replaced record keeps.
+     */
+    public void testAddFindRemove() {
+        SeminarStore store = new SeminarStore();
+        Seminar first = Fixtures.seminar(7, 10, 0, 0, "VT");
+        Seminar second = Fixtures.seminar(-3, 20, 0, 0, "VT");
+        int handle = store.add(first);
+        assertEquals(handle, store.add(first));
+        int other = store.add(second);
+        assertEquals(2, store.getRecordNumber());
+        assertEquals(handle, store.find(7));
+        assertSame(second, store.get(other));
+        assertSame(first, store.searchID(7));
+        assertNull(store.searchID(8));
+        assertEquals(-1, store.find(8));
+        assertTrue(store.getSequence(handle) < store.getSequence(other));
+
+        assertTrue(store.remove(7));
+        assertFalse(store.remove(7));
+        assertNull(store.get(handle));
+        // The freed handle is reused
+        assertEquals(handle, store.add(Fixtures.seminar(9, 30, 0, 0, "VT")));
+        assertTrue(store.getSequence(handle) > store.getSequence(other));
+
+        Seminar replacement = Fixtures.seminar(-3, 40, 0, 0, "VT");
+        int sequence = store.getSequence(other);
+        assertEquals(other, store.add(replacement));
+        assertSame(replacement, store.searchID(-3));
+        assertEquals(sequence, store.getSequence(other));
+        assertEquals(2, store.getRecordNumber());
+
+        store.clear();
+        assertEquals(0, store.getRecordNumber());
+        assertNull(store.searchID(9));
+    }
+
+
+    /**
+     * Tests that postings stamped before a record was replaced can still be
+     * removed, since the replacement keeps the sequence number.
+     */
+    public void testReplacedRecordKeepsPostings() {
+        SeminarStore store = new SeminarStore();
+        KeywordIndex index = new KeywordIndex(store);
+        index.add(Fixtures.seminar(1, 10, 0, 0, "VT"), "VT");
+        index.add(Fixtures.seminar(2, 20, 0, 0, "VT"), "VT");
+        int handle = store.add(Fixtures.seminar(1, 30, 0, 0, "VT"));
+        assertEquals(30, store.searchID(1).cost());
+        assertTrue(index.remove("VT", handle));
+        assertEquals(1, index.get("VT").size());
+        assertEquals(2, index.get("VT").getSeminar(0).id());
+    }
+
+
+    /**
+     * Tests random adds and removals against a hash map, with IDs that
+     * collide in the table, so that removals have to shift entries back.
+     */
+    public void testMatchesMap() {
+        SeminarStore store = new SeminarStore();
+        Map<Integer, Seminar> expected = new HashMap<>();
+        Random random = new Random(24);
+        for (int step = 0; step < 20000; step++) {
+            int id = random.nextInt(500) * 64;
+            if (random.nextInt(3) > 0) {
+                Seminar seminar = Fixtures.seminar(id, step, 0, 0, "VT");
+                if (!expected.containsKey(id)) {
+                    expected.put(id, seminar);
+                    assertSame(seminar, store.get(store.add(seminar)));
+                }
+            }
+            else {
+                assertEquals(expected.remove(id) != null, store.remove(id));
+            }
+            int probe = random.nextInt(500) * 64;
+            assertSame(expected.get(probe), store.searchID(probe));
+        }
+        assertEquals(expected.size(), store.getRecordNumber());
+        for (Map.Entry<Integer, Seminar> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), store.get(store.find(entry
+                .getKey())));
+        }
+    }
+
+
+    /**
+     * Tests that the column filters follow replaced and removed records.
+     */
+    public void testFilters() {
+        SeminarStore store = new SeminarStore();
+        for (int id = 0; id < 10; id++) {
+            store.add(Fixtures.seminar(id, id * 10, 0, 0, "VT"));
+        }
+        store.add(Fixtures.seminar(3, 500, 0, 0, "VT"));
+        store.remove(4);
+        int[] selection = new int[store.getHandleCount()];
+        int count = store.selectAll(selection);
+        assertEquals(10, count);
+        assertEquals(9, store.filterKeyword("VT", selection, count));
+        count = store.filterCost(20, 60, selection, 9);
+        assertEquals(3, count);
+        for (int i = 0; i < count; i++) {
+            assertTrue(store.get(selection[i]).cost() >= 20);
+        }
+        assertEquals(3, store.filterDate("0610051600", "0610051600",
+            selection, count));
+        assertEquals(1, store.filterId(2, selection, count));
+        assertEquals(0, store.filterDate("0610051600X", "9", selection,
+            1));
+        assertEquals(0, store.filterLocation(0, 0, -1, selection, 1));
+        assertEquals(0, store.filterKeyword("None", selection, 1));
+    }
+
+
+    /**
+     * Tests that indexes sharing a store hold handles of its records, that
+     * deleting a record removes its handle from every index and the store,
+     * and that a freed handle can be reused by a later record.
+     */
+    public void testSharedIndexes() {
+        SeminarStore store = new SeminarStore();
+        IdBST idBST = new IdBST(false, store);
+        CostBST costBST = new CostBST(true, store);
+        DateBST dateBST = new DateBST(false, store);
+        KeywordBST keywordBST = new KeywordBST(false, store);
+        Bintree bintree = new Bintree();
+        SemManagerBST manager = new SemManagerBST(new CollectingSink());
+        for (int id = 0; id < 20; id++) {
+            manager.addSeminarRecord(Fixtures.seminar(id, id % 4, 0, 0, "VT"),
+                128, idBST, costBST, dateBST, keywordBST, bintree);
+        }
+        assertEquals(20, store.getRecordNumber());
+        int handle = store.find(5);
+        assertEquals(handle, idBST.findHandle(5));
+
+        manager.deleteSeminarRecord(store.searchID(5), 128, idBST, costBST,
+            dateBST, keywordBST, bintree);
+        assertEquals(19, store.getRecordNumber());
+        assertNull(idBST.searchID(5));
+        assertEquals(19, costBST.getRecordNumber());
+        assertEquals(19, dateBST.getRecordNumber());
+        assertEquals(19, keywordBST.getIndex().get("VT").size());
+
+        Seminar later = Fixtures.seminar(30, 1, 0, 0, "VT");
+        manager.addSeminarRecord(later, 128, idBST, costBST, dateBST,
+            keywordBST, bintree);
+        assertEquals(handle, store.find(30));
+        assertEquals(5, costBST.countRange(1, 1));
+        PostingList postings = keywordBST.getIndex().get("VT");
+        assertSame(later, postings.getSeminar(postings.size() - 1));
+    }
+}
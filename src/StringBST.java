@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**
+ * Binary Search Tree specialized for string keys of records held in a
+ * SeminarStore. Each node keeps its key next to the handle of its record,
+ * as LongBST does, and equal keys are ordered by the insertion sequence of
+ * their records in the store, newest first. A new record always has the
+ * newest sequence, so an insert takes the path it would take if equal keys
+ * simply went left, as they do in LongBST (a node with two children is
+ * replaced by the maximum of its left subtree, optional AVL balancing).
+ *
+ * Because the key and sequence together identify a node, a removal
+ * descends straight to it in O(log n) for a balanced tree, instead of
+ * walking a chain of equal keys and comparing references. The balancing,
+ * path buffer and printing are shared with LongBST through HandleBST.
+ *
+ * @author {Lavisha Goyal}
+ * @author {Shubham Laxmikant Deshmukh}
+ * @version {1.0}
+ */
+class StringBST extends HandleBST<StringBST.StringNode> {
+    /**
+     * A node of the tree holding a string key and the handle of its record.
+     */
+    protected static class StringNode extends HandleNode<StringNode> {
+        private String key;
+        private int sequence; // Insertion sequence of the record in the store
+
+        /**
+         * Constructor for a StringNode.
+         *
+         * @param key
+         *            The key
+         * @param handle
+         *            The handle of the record
+         * @param sequence
+         *            The insertion sequence of the record in the store
+         */
+        public StringNode(String key, int handle, int sequence) {
+            super(handle);
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+
+        /**
+         * Gets the key stored in this node.
+         *
+         * @return The key
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private SeminarStore store; // Resolves handles and their sequences
+
+    /**
+     * Constructor for an empty tree that optionally keeps itself balanced.
+     *
+     * @param balanced
+     *            True to rebalance (AVL) on every insert and removal, false
+     *            for a plain BST
+     * @param store
+     *            The record store the handles of the nodes refer to
+     */
+    public StringBST(boolean balanced, SeminarStore store) {
+        super(balanced);
+        this.store = store;
+    }
+
+
+    /**
+     * Gets the record store the handles of the tree refer to.
+     *
+     * @return The record store
+     */
+    public SeminarStore getStore() {
+        return store;
+    }
+
+
+    /**
+     * Insert a key and the handle of its record into the tree.
+     *
+     * @param key
+     *            The key
+     * @param handle
+     *            The handle of the record in the store
+     */
+    public void insert(String key, int handle) {
+        StringNode inserted = new StringNode(key, handle,
+            store.getSequence(handle));
+        int depth = 0;
+        StringNode node = root;
+        while (node != null) {
+            boolean left = compare(key, inserted.sequence, node) <= 0;
+            pushPath(depth++, node, left);
+            node = left ? node.left : node.right;
+        }
+        insertAt(inserted, depth);
+    }
+
+
+    /**
+     * Removes the node with the given key that holds the given handle. The
+     * record count only drops when such a node was found.
+     *
+     * @param key
+     *            The key of the node to remove
+     * @param handle
+     *            The handle of the record of the node to remove
+     * @return True if a node was removed, false if none matched
+     */
+    public boolean remove(String key, int handle) {
+        int sequence = store.getSequence(handle);
+        int depth = 0;
+        StringNode current = root;
+        while (current != null) {
+            int comparison = compare(key, sequence, current);
+            if (comparison == 0) {
+                break;
+            }
+            pushPath(depth++, current, comparison < 0);
+            current = (comparison < 0) ? current.left : current.right;
+        }
+        if (current == null) {
+            releasePath();
+            return false;
+        }
+        removeAt(current, depth);
+        return true;
+    }
+
+
+    // Orders by key, then newest sequence first
+    private int compare(String key, int sequence, StringNode node) {
+        int comparison = key.compareTo(node.key);
+        return (comparison != 0)
+            ? comparison
+            : Integer.compare(node.sequence, sequence);
+    }
+
+
+    /**
+     * Replaces the contents of the tree with a perfectly balanced tree over
+     * the given entries: every subtree is rooted at the middle entry of its
+     * range, in O(n log n).
+     *
+     * @param keys
+     *            The keys
+     * @param handles
+     *            The handle of the record of each key
+     * @param count
+     *            The number of entries to use from the arrays
+     */
+    public void bulkLoad(String[] keys, int[] handles, int count) {
+        StringNode[] nodes = new StringNode[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = new StringNode(keys[i], handles[i], store
+                .getSequence(handles[i]));
+        }
+        Arrays.sort(nodes, (a, b) -> compare(a.key, a.sequence, b));
+        root = build(nodes, 0, count - 1);
+        nodecount = count;
+    }
+
+
+    /**
+     * Gets the text printed for the key of a node.
+     *
+     * @param node
+     *            The node
+     * @return The key as printed by printhelp
+     */
+    protected String keyText(StringNode node) {
+        return node.key;
+    }
+}
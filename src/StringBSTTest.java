@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import student.TestCase;
+
+/**
+ * This class contains test cases for the StringBST class, checking its
+ * inserts, removals and bulk loads against a plain list of the keys it
+ * should hold, in plain and in balanced mode, while removing nodes by key
+ * and handle.
+ * It extends the TestCase class from student package for testing purposes.
+ *
+ * @author Lavisha Goyal
+ * @author Shubham Laxmikant Deshmukh
+ * @version 1.0
+ */
+public class StringBSTTest extends TestCase {
+
+    // The keys printhelp lists, in its reverse inorder
+    private List<String> printedKeys(StringBST tree) {
+        CollectingSink sink = new CollectingSink();
+        tree.setOutput(sink);
+        tree.printhelp(tree.root, 0);
+        List<String> keys = new ArrayList<>();
+        for (String line : sink.getText().split("\n")) {
+            if (!line.trim().equals("null")) {
+                keys.add(line.trim());
+            }
+        }
+        return keys;
+    }
+
+
+    // The keys sorted the way printhelp lists them
+    private List<String> descending(List<String> keys) {
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(Collections.reverseOrder());
+        return sorted;
+    }
+
+
+    /**
+     * Tests random inserts and removals with many equal keys against a list
+     * of the keys, in plain and in balanced mode.
+     */
+    public void testMatchesModel() {
+        for (boolean balanced : new boolean[] { false, true }) {
+            Random random = new Random(balanced ? 3 : 4);
+            SeminarStore store = new SeminarStore();
+            StringBST tree = new StringBST(balanced, store);
+            List<String> keys = new ArrayList<>();
+            List<Seminar> seminars = new ArrayList<>();
+            for (int step = 0; step < 600; step++) {
+                if (keys.isEmpty() || random.nextInt(3) > 0) {
+                    String key = "k" + random.nextInt(8);
+                    Seminar seminar = Fixtures.seminar(step, 10, 0, 0, "VT");
+                    tree.insert(key, store.add(seminar));
+                    keys.add(key);
+                    seminars.add(seminar);
+                }
+                else {
+                    int index = random.nextInt(keys.size());
+                    String key = keys.remove(index);
+                    Seminar seminar = seminars.remove(index);
+                    assertTrue(tree.remove(key, store.find(seminar.id())));
+                }
+            }
+            assertEquals(descending(keys), printedKeys(tree));
+            assertEquals(keys.size(), tree.getSize());
+            if (balanced) {
+                assertTrue(tree.getHeight() <= 11);
+            }
+        }
+    }
+
+
+    /**
+     * Tests that a bulk loaded tree is perfectly balanced and that removals
+     * after the load still find every entry.
+     */
+    public void testBulkLoad() {
+        Random random = new Random(12);
+        int count = 500;
+        SeminarStore store = new SeminarStore();
+        StringBST tree = new StringBST(false, store);
+        String[] keys = new String[count];
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "k" + random.nextInt(10);
+            handles[i] = store.add(Fixtures.seminar(i, 10, 0, 0, "VT"));
+        }
+        tree.bulkLoad(keys, handles, count);
+        assertEquals(descending(Arrays.asList(keys)), printedKeys(tree));
+        assertEquals(9, tree.getHeight());
+
+        for (int i = 0; i < count; i++) {
+            assertTrue(tree.remove(keys[i], handles[i]));
+        }
+        assertEquals(0, tree.getSize());
+        assertEquals(0, tree.getHeight());
+    }
+
+
+    /**
+     * Tests that removing an entry that is not in the tree leaves the tree
+     * and its record count unchanged.
+     */
+    public void testRemoveMissing() {
+        SeminarStore store = new SeminarStore();
+        StringBST tree = new StringBST(true, store);
+        int first = store.add(Fixtures.seminar(1, 10, 0, 0, "VT"));
+        int second = store.add(Fixtures.seminar(2, 10, 0, 0, "VT"));
+        tree.insert("VT", first);
+        assertFalse(tree.remove("VT", second));
+        assertFalse(tree.remove("HCI", first));
+        assertEquals(1, tree.getSize());
+        assertTrue(tree.isBalanced());
+        assertSame(store, tree.getStore());
+        assertTrue(tree.remove("VT", first));
+        assertFalse(tree.remove("VT", first));
+        assertEquals(0, tree.getSize());
+    }
+}